@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Compare platform threads with virtual threads under the same load.
+# Requires JDK 21, k6 and jq, and the MySQL database from application.properties.
+# Usage: loadtest/compare-threading.sh [max-vus]
+# Results: p99 latency, failure rate and peak concurrent connections per mode, written to target/loadtest/.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+MAX_VUS="${1:-1000}"
+PORT=8888
+OUT=target/loadtest
+mkdir -p "$OUT"
+
+mvn -B -q -Pjava21 package -DskipTests
+JAR=target/inventory-backend-1.0.0.jar
+
+run_mode() {
+    local name="$1" profiles="$2"
+    echo "=== $name ($profiles) ==="
+    java -jar "$JAR" --spring.profiles.active="$profiles" > "$OUT/$name.log" 2>&1 &
+    local app_pid=$!
+    until curl -sf "http://localhost:$PORT/api/health" > /dev/null; do sleep 1; done
+
+    # Sample established connections on the server port once per second
+    ( peak=0
+      while true; do
+          current=$(ss -Htn state established "( sport = :$PORT )" | wc -l)
+          [ "$current" -gt "$peak" ] && peak=$current && echo "$peak" > "$OUT/$name.peak-connections"
+          sleep 1
+      done ) &
+    local sampler_pid=$!
+
+    k6 run -q -e BASE_URL="http://localhost:$PORT" -e MAX_VUS="$MAX_VUS" \
+        --summary-export "$OUT/$name.json" loadtest/read-mix.js || true
+
+    kill "$sampler_pid" "$app_pid"
+    wait "$app_pid" 2> /dev/null || true
+}
+
+run_mode platform dev
+run_mode virtual dev,virtual-threads
+
+printf '\n%-10s %12s %12s %10s %18s\n' mode p99-ms p95-ms failed peak-connections
+for name in platform virtual; do
+    printf '%-10s %12.1f %12.1f %10.4f %18s\n' "$name" \
+        "$(jq '.metrics.http_req_duration["p(99)"]' "$OUT/$name.json")" \
+        "$(jq '.metrics.http_req_duration["p(95)"]' "$OUT/$name.json")" \
+        "$(jq '.metrics.http_req_failed.value' "$OUT/$name.json")" \
+        "$(cat "$OUT/$name.peak-connections" 2> /dev/null || echo 0)"
+done
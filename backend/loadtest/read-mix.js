@@ -0,0 +1,51 @@
+// k6 load test: authenticated read traffic (dashboard polling, product lists, alerts) plus a share of logins.
+// Usage: k6 run -e BASE_URL=http://localhost:8888 -e MAX_VUS=1000 loadtest/read-mix.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8888';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '1000');
+const EMAIL = __ENV.EMAIL || 'admin@inventra.com';
+const PASSWORD = __ENV.PASSWORD || 'admin123';
+
+export const options = {
+    scenarios: {
+        ramp: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: MAX_VUS },
+                { duration: '60s', target: MAX_VUS },
+                { duration: '10s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function login() {
+    const res = http.post(`${BASE_URL}/api/auth/login`, JSON.stringify({ email: EMAIL, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' }, tags: { name: 'login' } });
+    check(res, { 'login ok': (r) => r.status === 200 });
+    return res.json('token');
+}
+
+export function setup() {
+    return { token: login() };
+}
+
+export default function (data) {
+    // 1 in 50 iterations logs in again (BCrypt is CPU bound and does not benefit from virtual threads)
+    if (Math.random() < 0.02) {
+        login();
+    }
+    const params = { headers: { Authorization: `Bearer ${data.token}` } };
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/api/dashboard/admin`, null, Object.assign({ tags: { name: 'dashboard' } }, params)],
+        ['GET', `${BASE_URL}/api/fashion-products?limit=50&includeVariants=false`, null, Object.assign({ tags: { name: 'products' } }, params)],
+        ['GET', `${BASE_URL}/api/alerts/active`, null, Object.assign({ tags: { name: 'alerts' } }, params)],
+        ['GET', `${BASE_URL}/api/auth/me`, null, Object.assign({ tags: { name: 'me' } }, params)],
+    ]);
+    responses.forEach((res) => check(res, { 'status 200': (r) => r.status === 200 }));
+}
@@ -0,0 +1,23 @@
+#!/usr/bin/env bash
+# Stand-in for Prometheus when none is available (offline, CI): scrapes /actuator/prometheus
+# at a fixed interval into timestamped files and prints the main inventory series.
+# Usage: monitoring/scrape.sh [interval-seconds] [base-url]
+# Results: target/metrics/<epoch-seconds>.prom, one file per scrape.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+INTERVAL="${1:-15}"
+BASE_URL="${2:-http://localhost:8888}"
+OUT=target/metrics
+mkdir -p "$OUT"
+
+while true; do
+    file="$OUT/$(date +%s).prom"
+    if curl -sf "$BASE_URL/actuator/prometheus" -o "$file"; then
+        echo "=== $(date '+%H:%M:%S') $file"
+        grep -E '^(inventory_(alerts_queue|email_outbox)_pending|inventory_alerts_queue_oldest_age_seconds|hikaricp_connections_(active|pending)|inventory_[a-z_]+_seconds_count)' "$file" || true
+    else
+        echo "=== $(date '+%H:%M:%S') scrape failed" >&2
+    fi
+    sleep "$INTERVAL"
+done
@@ -0,0 +1,53 @@
+package com.inventory.benchmark;
+
+import com.inventory.dto.AlertResponse;
+import com.inventory.model.Alert;
+import com.inventory.model.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AlertResponse construction, dominated by extracting the fashion product name from the alert message
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlertResponseBenchmark {
+    
+    private Alert outOfStockAlert;
+    private Alert lowStockAlert;
+    private Alert plainAlert;
+    
+    @Setup
+    public void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setName("Cotton Tee");
+        
+        outOfStockAlert = new Alert(product, Alert.AlertType.OUT_OF_STOCK,
+                "🚨 Cotton Tee (M/White) is completely out of stock! Immediate restocking required.");
+        lowStockAlert = new Alert(product, Alert.AlertType.LOW_STOCK,
+                "⚠️ Cotton Tee (S/Black) is running low on stock. Current: 2 units, Minimum required: 3 units. Please restock soon.");
+        plainAlert = new Alert(product, Alert.AlertType.LOW_STOCK,
+                "Cotton Tee is running low on stock. Current: 2 units, Minimum required: 3 units. Please restock soon.");
+    }
+    
+    @Benchmark
+    public AlertResponse outOfStockVariantMessage() {
+        return new AlertResponse(outOfStockAlert);
+    }
+    
+    @Benchmark
+    public AlertResponse lowStockVariantMessage() {
+        return new AlertResponse(lowStockAlert);
+    }
+    
+    @Benchmark
+    public AlertResponse messageWithoutVariant() {
+        return new AlertResponse(plainAlert);
+    }
+}
@@ -0,0 +1,43 @@
+package com.inventory.benchmark;
+
+import com.inventory.export.CsvWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV field escaping and row writing (the export hot loop) into a discarding writer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvWriterBenchmark {
+    
+    private CsvWriter csv;
+    
+    @Setup
+    public void setUp() {
+        csv = new CsvWriter(Writer.nullWriter());
+    }
+    
+    @TearDown
+    public void tearDown() throws IOException {
+        csv.close();
+    }
+    
+    @Benchmark
+    public void plainRow() throws IOException {
+        csv.row("42", "2026-01-15 10:30:00", "Cotton Tee", "FASHION_PRODUCT", "M/Black", "STOCK_OUT", "3", "Sale", "admin");
+    }
+    
+    @Benchmark
+    public void rowNeedingQuotes() throws IOException {
+        csv.row("42", "2026-01-15 10:30:00", "Tee, \"Classic\" cut", "FASHION_PRODUCT", "M/Black", "STOCK_OUT", "3",
+                "Returned:\nwrong size", "admin");
+    }
+}
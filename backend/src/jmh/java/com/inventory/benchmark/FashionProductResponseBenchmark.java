@@ -0,0 +1,58 @@
+package com.inventory.benchmark;
+
+import com.inventory.dto.FashionProductResponse;
+import com.inventory.model.FashionProduct;
+import com.inventory.model.ProductVariant;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FashionProductResponse construction for products with large variant lists
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FashionProductResponseBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    private int variantCount;
+    
+    private FashionProduct product;
+    
+    @Setup
+    public void setUp() {
+        product = new FashionProduct("Benchmark Tee", "Cotton tee", FashionProduct.Category.CLOTHING_MENS, "StyleCraft",
+                new BigDecimal("499.00"), FashionProduct.Season.SUMMER, FashionProduct.Gender.MALE);
+        product.setId(1L);
+        product.setCreatedAt(LocalDateTime.now());
+        
+        ProductVariant.Size[] sizes = ProductVariant.Size.values();
+        ProductVariant.Color[] colors = ProductVariant.Color.values();
+        List<ProductVariant> variants = new ArrayList<>(variantCount);
+        for (int i = 0; i < variantCount; i++) {
+            ProductVariant variant = new ProductVariant(product, sizes[i % sizes.length],
+                    colors[(i / sizes.length) % colors.length], i % 20, 5, BigDecimal.ZERO);
+            variant.setId((long) i + 1);
+            variants.add(variant);
+        }
+        product.setVariants(variants);
+    }
+    
+    @Benchmark
+    public FashionProductResponse withVariants() {
+        return new FashionProductResponse(product, true);
+    }
+    
+    @Benchmark
+    public FashionProductResponse summary() {
+        return new FashionProductResponse(product, false);
+    }
+}
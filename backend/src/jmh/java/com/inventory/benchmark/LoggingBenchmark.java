@@ -0,0 +1,118 @@
+package com.inventory.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The logging of a transaction listing request (two messages with a count and a type) from 8 concurrent
+ * request threads, all output going to /dev/null:
+ * - systemOut: the previous System.out.println with string concatenation (a PrintStream set up like System.out)
+ * - asyncInfo: SLF4J with parameters through an AsyncAppender set up like logback-spring.xml; once the
+ *   writer thread falls behind, INFO events are discarded, so this is the cost seen by request threads
+ * - asyncInfoLossless: the same with a blocking, non-discarding queue, i.e. the rate the writer sustains
+ * - disabledDebug: the calls at DEBUG with the logger at INFO, as for the request logging in the prod profile
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    private PrintStream console;
+    private LoggerContext loggerContext;
+    private Logger asyncLogger;
+    private Logger losslessLogger;
+
+    private final String type = "STOCK_OUT";
+    private int count = 1234;
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        // System.out: autoflushing PrintStream over a small buffer on the file descriptor
+        console = new PrintStream(new BufferedOutputStream(new FileOutputStream("/dev/null"), 128), true);
+
+        // A context of its own, so the benchmark does not depend on the logging configuration on the classpath
+        loggerContext = new LoggerContext();
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+        asyncLogger = asyncLogger("async", true);
+        losslessLogger = asyncLogger("lossless", false);
+    }
+
+    private Logger asyncLogger(String name, boolean neverBlock) throws FileNotFoundException {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(loggerContext);
+        output.setEncoder(encoder);
+        output.setOutputStream(new FileOutputStream("/dev/null"));
+        output.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(loggerContext);
+        async.setQueueSize(8192);
+        async.setNeverBlock(neverBlock);
+        if (!neverBlock) {
+            async.setDiscardingThreshold(0);
+        }
+        async.setIncludeCallerData(false);
+        async.addAppender(output);
+        async.start();
+
+        Logger logger = loggerContext.getLogger("com.inventory.service.StockTransactionService." + name);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(async);
+        return logger;
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+        console.close();
+    }
+
+    @Benchmark
+    public void systemOut() {
+        console.println("🔍 Fetching " + type + " transactions...");
+        console.println("📊 Found " + count + " " + type + " transactions");
+    }
+
+    @Benchmark
+    public void asyncInfo() {
+        asyncLogger.info("🔍 Fetching {} transactions...", type);
+        asyncLogger.info("📊 Found {} {} transactions", count, type);
+    }
+
+    @Benchmark
+    public void asyncInfoLossless() {
+        losslessLogger.info("🔍 Fetching {} transactions...", type);
+        losslessLogger.info("📊 Found {} {} transactions", count, type);
+    }
+
+    @Benchmark
+    public void disabledDebug() {
+        asyncLogger.debug("🔍 Fetching {} transactions...", type);
+        asyncLogger.debug("📊 Found {} {} transactions", count, type);
+    }
+}
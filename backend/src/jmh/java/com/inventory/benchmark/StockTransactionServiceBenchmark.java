@@ -0,0 +1,105 @@
+package com.inventory.benchmark;
+
+import com.inventory.InventoryBackendApplication;
+import com.inventory.dto.FashionProductRequest;
+import com.inventory.dto.FashionProductResponse;
+import com.inventory.dto.ProductVariantRequest;
+import com.inventory.dto.StockTransactionRequest;
+import com.inventory.dto.StockTransactionResponse;
+import com.inventory.model.FashionProduct;
+import com.inventory.model.Product;
+import com.inventory.model.ProductVariant;
+import com.inventory.repository.ProductRepository;
+import com.inventory.service.FashionProductService;
+import com.inventory.service.StockTransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StockTransactionService.createStockTransaction end to end (conditional update, totals,
+ * alert queueing, transaction insert) against an in-memory H2 database (MySQL mode).
+ * Movements alternate between STOCK_IN and STOCK_OUT so stock levels stay stable across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StockTransactionServiceBenchmark {
+    
+    private ConfigurableApplicationContext context;
+    private StockTransactionService stockTransactionService;
+    private StockTransactionRequest variantStockIn;
+    private StockTransactionRequest variantStockOut;
+    private StockTransactionRequest productStockIn;
+    private StockTransactionRequest productStockOut;
+    private boolean stockIn;
+    
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--logging.level.com.inventory=WARN");
+        stockTransactionService = context.getBean(StockTransactionService.class);
+        
+        // The legacy products come from DataInitializer; the fashion product is created here
+        FashionProductRequest productRequest = new FashionProductRequest("Benchmark Tee", "Cotton tee",
+                FashionProduct.Category.CLOTHING_MENS, "StyleCraft", new BigDecimal("499.00"),
+                FashionProduct.Season.SUMMER, FashionProduct.Gender.MALE);
+        productRequest.setVariants(List.of(
+                new ProductVariantRequest(ProductVariant.Size.M, ProductVariant.Color.BLACK, 100, 10, null),
+                new ProductVariantRequest(ProductVariant.Size.L, ProductVariant.Color.BLACK, 100, 10, null)));
+        FashionProductResponse fashionProduct = context.getBean(FashionProductService.class).createProduct(productRequest);
+        Long variantId = fashionProduct.getVariants().get(0).getId();
+        Product product = context.getBean(ProductRepository.class).findAll().get(0);
+        
+        variantStockIn = request(null, fashionProduct.getId(), variantId, "STOCK_IN");
+        variantStockOut = request(null, fashionProduct.getId(), variantId, "STOCK_OUT");
+        productStockIn = request(product.getId(), null, null, "STOCK_IN");
+        productStockOut = request(product.getId(), null, null, "STOCK_OUT");
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public StockTransactionResponse fashionVariantMovement() {
+        stockIn = !stockIn;
+        return stockTransactionService.createStockTransaction(stockIn ? variantStockIn : variantStockOut, "admin");
+    }
+    
+    @Benchmark
+    public StockTransactionResponse regularProductMovement() {
+        stockIn = !stockIn;
+        return stockTransactionService.createStockTransaction(stockIn ? productStockIn : productStockOut, "admin");
+    }
+    
+    private static StockTransactionRequest request(Long productId, Long fashionProductId, Long variantId, String type) {
+        StockTransactionRequest request = new StockTransactionRequest();
+        request.setProductId(productId);
+        request.setFashionProductId(fashionProductId);
+        request.setVariantId(variantId);
+        request.setType(type);
+        request.setQuantity(1);
+        request.setReason("Benchmark");
+        return request;
+    }
+}
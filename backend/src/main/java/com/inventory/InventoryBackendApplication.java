@@ -1,29 +1,34 @@
 package com.inventory;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class InventoryBackendApplication {
 
+    private static final Logger logger = LoggerFactory.getLogger(InventoryBackendApplication.class);
+
     public static void main(String[] args) {
         SpringApplication.run(InventoryBackendApplication.class, args);
     }
     
     @EventListener(ApplicationReadyEvent.class)
     public void onApplicationReady() {
-        System.out.println("\n" + "=".repeat(70));
-        System.out.println("👗 FASHION RETAIL BACKEND IS RUNNING SUCCESSFULLY!");
-        System.out.println("🌟 Welcome to the Apparel & Fashion Retail Management System");
-        System.out.println("📡 Server: http://localhost:8888");
-        System.out.println("🗄️  MySQL Database: Connected to fashion_retail_db");
-        System.out.println("🔐 Admin Login: email=admin@inventra.com, password=admin123");
-        System.out.println("👔 Manager Login: email=manager@inventra.com, password=manager123");
-        System.out.println("👕 Fashion Collection: Clothes, Footwear & Accessories");
-        System.out.println("🎨 Features: Size/Color Variants, Seasonal Collections, Brand Management");
-        System.out.println("✅ All Fashion APIs are ready to use!");
-        System.out.println("=".repeat(70) + "\n");
+        logger.info("\n{}\n" +
+                "👗 FASHION RETAIL BACKEND IS RUNNING SUCCESSFULLY!\n" +
+                "🌟 Welcome to the Apparel & Fashion Retail Management System\n" +
+                "📡 Server: http://localhost:8888\n" +
+                "🗄️  MySQL Database: Connected to fashion_retail_db\n" +
+                "🔐 Admin Login: email=admin@inventra.com, password=admin123\n" +
+                "👔 Manager Login: email=manager@inventra.com, password=manager123\n" +
+                "👕 Fashion Collection: Clothes, Footwear & Accessories\n" +
+                "🎨 Features: Size/Color Variants, Seasonal Collections, Brand Management\n" +
+                "✅ All Fashion APIs are ready to use!\n{}", "=".repeat(70), "=".repeat(70));
     }
 }
\ No newline at end of file
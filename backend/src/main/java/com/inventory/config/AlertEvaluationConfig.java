@@ -0,0 +1,29 @@
+package com.inventory.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded worker pool for asynchronous alert evaluation. The single running drain submits at most one
+ * task per worker at a time, so the queue never fills.
+ */
+@Configuration
+public class AlertEvaluationConfig {
+    
+    @Bean(name = "alertEvaluationExecutor")
+    public ThreadPoolTaskExecutor alertEvaluationExecutor(
+            @Value("${app.alerts.evaluation.workers:4}") int workers,
+            @Value("${app.alerts.evaluation.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("alert-eval-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -4,6 +4,8 @@ import com.inventory.model.User;
 import com.inventory.model.Product;
 import com.inventory.repository.UserRepository;
 import com.inventory.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -14,6 +16,8 @@ import java.math.BigDecimal;
 @Component
 public class DataInitializer implements CommandLineRunner {
     
+    private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -37,17 +41,17 @@ public class DataInitializer implements CommandLineRunner {
             
             userRepository.save(admin);
             
-            System.out.println("✅ Default Admin User Created Successfully!");
+            logger.info("✅ Default Admin User Created Successfully!");
         } else {
-            System.out.println("✅ Admin User Already Exists");
+            logger.info("✅ Admin User Already Exists");
         }
         
         // Create sample products if database is empty
         if (productRepository.count() == 0) {
             createSampleProducts();
-            System.out.println("✅ Sample Products Created Successfully!");
+            logger.info("✅ Sample Products Created Successfully!");
         } else {
-            System.out.println("✅ Products Already Exist in Database");
+            logger.info("✅ Products Already Exist in Database");
         }
     }
     
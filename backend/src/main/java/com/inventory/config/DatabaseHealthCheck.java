@@ -1,5 +1,7 @@
 package com.inventory.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
@@ -11,6 +13,8 @@ import java.sql.Connection;
 @Component
 public class DatabaseHealthCheck {
     
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseHealthCheck.class);
+    
     @Autowired
     private DataSource dataSource;
     
@@ -18,13 +22,13 @@ public class DatabaseHealthCheck {
     public void checkDatabaseConnection() {
         try (Connection connection = dataSource.getConnection()) {
             if (connection.isValid(5)) {
-                System.out.println("🗄️  Database Connection: ✅ HEALTHY");
-                System.out.println("📊 Database URL: " + connection.getMetaData().getURL());
+                logger.info("🗄️  Database Connection: ✅ HEALTHY");
+                logger.info("📊 Database URL: {}", connection.getMetaData().getURL());
             } else {
-                System.out.println("🗄️  Database Connection: ❌ UNHEALTHY");
+                logger.warn("🗄️  Database Connection: ❌ UNHEALTHY");
             }
         } catch (Exception e) {
-            System.out.println("🗄️  Database Connection: ❌ FAILED - " + e.getMessage());
+            logger.error("🗄️  Database Connection: ❌ FAILED - {}", e.getMessage());
         }
     }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package com.inventory.config;
 
 import com.inventory.model.User;
 import com.inventory.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
@@ -12,6 +14,8 @@ import org.springframework.stereotype.Component;
 @Order(3) // Run after user initialization
 public class FashionDataInitializer implements CommandLineRunner {
     
+    private static final Logger logger = LoggerFactory.getLogger(FashionDataInitializer.class);
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -20,8 +24,8 @@ public class FashionDataInitializer implements CommandLineRunner {
     
     @Override
     public void run(String... args) throws Exception {
-        System.out.println("👗 Fashion Retail System Initialized!");
-        System.out.println("🎯 Ready to manage apparel, footwear & accessories!");
+        logger.info("👗 Fashion Retail System Initialized!");
+        logger.info("🎯 Ready to manage apparel, footwear & accessories!");
         
         // Ensure we have basic users
         if (userRepository.count() == 0) {
@@ -57,9 +61,9 @@ public class FashionDataInitializer implements CommandLineRunner {
         staff.setStatus(User.UserStatus.APPROVED);
         userRepository.save(staff);
         
-        System.out.println("✅ Default users created successfully!");
-        System.out.println("🔐 Admin: admin@inventra.com / admin123");
-        System.out.println("👔 Manager: manager@inventra.com / manager123");
-        System.out.println("👤 Staff: staff@inventra.com / staff123");
+        logger.info("✅ Default users created successfully!");
+        logger.info("🔐 Admin: admin@inventra.com / admin123");
+        logger.info("👔 Manager: manager@inventra.com / manager123");
+        logger.info("👤 Staff: staff@inventra.com / staff123");
     }
 }
\ No newline at end of file
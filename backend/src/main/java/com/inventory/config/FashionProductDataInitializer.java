@@ -4,6 +4,8 @@ import com.inventory.model.FashionProduct;
 import com.inventory.model.ProductVariant;
 import com.inventory.repository.FashionProductRepository;
 import com.inventory.repository.ProductVariantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
@@ -17,6 +19,8 @@ import java.util.List;
 @Order(4) // Run after other initializers
 public class FashionProductDataInitializer implements CommandLineRunner {
     
+    private static final Logger logger = LoggerFactory.getLogger(FashionProductDataInitializer.class);
+    
     @Autowired
     private FashionProductRepository fashionProductRepository;
     
@@ -26,11 +30,11 @@ public class FashionProductDataInitializer implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         if (fashionProductRepository.count() == 0) {
-            System.out.println("👗 Creating Fashion Products and Variants...");
+            logger.info("👗 Creating Fashion Products and Variants...");
             createFashionProducts();
-            System.out.println("✅ Fashion Products Created Successfully!");
+            logger.info("✅ Fashion Products Created Successfully!");
         } else {
-            System.out.println("✅ Fashion Products Already Exist");
+            logger.info("✅ Fashion Products Already Exist");
         }
     }
     
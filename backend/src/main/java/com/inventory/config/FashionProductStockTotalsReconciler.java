@@ -0,0 +1,29 @@
+package com.inventory.config;
+
+import com.inventory.repository.FashionProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the pre-aggregated stock totals of every fashion product on startup,
+ * so rows created before the columns existed (or edited outside the application) start out correct.
+ */
+@Component
+@Order(5) // Run after the data initializers
+public class FashionProductStockTotalsReconciler implements CommandLineRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FashionProductStockTotalsReconciler.class);
+    
+    @Autowired
+    private FashionProductRepository fashionProductRepository;
+    
+    @Override
+    public void run(String... args) throws Exception {
+        int updated = fashionProductRepository.recalculateAllStockTotals();
+        logger.info("📊 Reconciled stock totals for {} fashion products", updated);
+    }
+}
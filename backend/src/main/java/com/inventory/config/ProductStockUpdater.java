@@ -2,6 +2,8 @@ package com.inventory.config;
 
 import com.inventory.model.Product;
 import com.inventory.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
@@ -14,6 +16,8 @@ import java.util.List;
 @Order(2) // Run after DataInitializer
 public class ProductStockUpdater implements CommandLineRunner {
     
+    private static final Logger logger = LoggerFactory.getLogger(ProductStockUpdater.class);
+    
     @Autowired
     private ProductRepository productRepository;
     
@@ -26,11 +30,11 @@ public class ProductStockUpdater implements CommandLineRunner {
         List<Product> products = productRepository.findAll();
         
         if (products.isEmpty()) {
-            System.out.println("⚠️ No products found in database");
+            logger.warn("⚠️ No products found in database");
             return;
         }
         
-        System.out.println("🔄 Updating product stock quantities...");
+        logger.info("🔄 Updating product stock quantities...");
         
         for (Product product : products) {
             // Update stock quantities based on product name or create reasonable defaults
@@ -38,8 +42,8 @@ public class ProductStockUpdater implements CommandLineRunner {
             productRepository.save(product);
         }
         
-        System.out.println("✅ Product stock quantities updated successfully!");
-        System.out.println("📊 Total products updated: " + products.size());
+        logger.info("✅ Product stock quantities updated successfully!");
+        logger.info("📊 Total products updated: {}", products.size());
     }
     
     private void updateProductStock(Product product) {
@@ -117,6 +121,6 @@ public class ProductStockUpdater implements CommandLineRunner {
             product.setDescription("High-quality " + product.getName().toLowerCase() + " for office and personal use");
         }
         
-        System.out.println("📦 Updated: " + product.getName() + " - Quantity: " + product.getQuantity() + " - Price: ₹" + product.getPrice());
+        logger.debug("📦 Updated: {} - Quantity: {} - Price: ₹{}", product.getName(), product.getQuantity(), product.getPrice());
     }
 }
\ No newline at end of file
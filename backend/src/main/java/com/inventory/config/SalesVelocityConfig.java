@@ -0,0 +1,29 @@
+package com.inventory.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded worker pool for the nightly sales velocity recompute, which submits one task per worker; each
+ * task takes variant id ranges until none is left.
+ */
+@Configuration
+public class SalesVelocityConfig {
+    
+    @Bean(name = "salesVelocityExecutor")
+    public ThreadPoolTaskExecutor salesVelocityExecutor(
+            @Value("${app.forecast.workers:4}") int workers,
+            @Value("${app.forecast.queue-capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("velocity-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,17 +1,28 @@
 package com.inventory.controller;
 
 import com.inventory.dto.ApiResponse;
+import com.inventory.dto.StockLedgerDrift;
 import com.inventory.dto.UserResponse;
+import com.inventory.export.CsvExportMetrics;
+import com.inventory.export.CsvWriter;
 import com.inventory.model.User;
 import com.inventory.service.AdminService;
+import com.inventory.service.CacheStatisticsService;
+import com.inventory.service.CachingUserDetailsService;
+import com.inventory.service.ProductSearchIndex;
+import com.inventory.service.StockLedgerService;
+import com.inventory.service.SalesVelocityService;
+import com.inventory.service.StockMovementRollupService;
 import com.inventory.service.StockTransactionService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +38,27 @@ public class AdminController {
     @Autowired
     private StockTransactionService stockTransactionService;
     
+    @Autowired
+    private CachingUserDetailsService cachingUserDetailsService;
+    
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+    
+    @Autowired
+    private StockLedgerService stockLedgerService;
+    
+    @Autowired
+    private StockMovementRollupService stockMovementRollupService;
+    
+    @Autowired
+    private SalesVelocityService salesVelocityService;
+    
+    @Autowired
+    private CsvExportMetrics csvExportMetrics;
+    
     @GetMapping("/pending-users")
     public ResponseEntity<?> getPendingUsers() {
         try {
@@ -86,62 +118,152 @@ public class AdminController {
         }
     }
     
-    @GetMapping("/transactions/export")
-    public ResponseEntity<String> exportTransactionsCSV() {
+    @GetMapping("/user-cache/stats")
+    public ResponseEntity<?> getUserCacheStats() {
         try {
-            String csvContent = stockTransactionService.exportTransactionsToCSV();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            headers.setContentDispositionFormData("attachment", "transactions_" + 
-                java.time.LocalDate.now().toString() + ".csv");
-            
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(csvContent);
+            Map<String, Object> stats = cachingUserDetailsService.getStatistics();
+            return ResponseEntity.ok(stats);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                .body("Error exporting transactions: " + e.getMessage());
+                .body(ApiResponse.error("Failed to fetch user cache stats: " + e.getMessage()));
         }
     }
     
-    @GetMapping("/products/export")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<String> exportProductsCSV() {
+    @GetMapping("/search-index/stats")
+    public ResponseEntity<?> getSearchIndexStats() {
         try {
-            String csvContent = adminService.exportProductsToCSV();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            headers.setContentDispositionFormData("attachment", "products_" + 
-                java.time.LocalDate.now().toString() + ".csv");
-            
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(csvContent);
+            Map<String, Object> stats = productSearchIndex.getStatistics();
+            return ResponseEntity.ok(stats);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                .body("Error exporting products: " + e.getMessage());
+                .body(ApiResponse.error("Failed to fetch search index stats: " + e.getMessage()));
         }
     }
     
-    @GetMapping("/fashion-products/export")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<String> exportFashionProductsCSV() {
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> getCacheStats() {
         try {
-            String csvContent = adminService.exportFashionProductsToCSV();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            headers.setContentDispositionFormData("attachment", "fashion_products_" + 
-                java.time.LocalDate.now().toString() + ".csv");
-            
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(csvContent);
+            Map<String, Object> stats = cacheStatisticsService.getStatistics();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Failed to fetch cache stats: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/ledger/stats")
+    public ResponseEntity<?> getLedgerStats() {
+        try {
+            Map<String, Object> stats = stockLedgerService.getStatistics();
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Failed to fetch ledger stats: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/ledger/fold")
+    public ResponseEntity<?> foldLedger() {
+        try {
+            long folded = stockLedgerService.fold();
+            return ResponseEntity.ok(ApiResponse.success("Folded " + folded + " stock transactions into the ledger", folded));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Failed to fold ledger: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/rollups/fold")
+    public ResponseEntity<?> foldMovementRollups() {
+        try {
+            long folded = stockMovementRollupService.fold();
+            return ResponseEntity.ok(ApiResponse.success("Folded " + folded + " stock transactions into the movement rollups", folded));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Failed to fold movement rollups: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/forecasts/fold")
+    public ResponseEntity<?> foldSalesVelocities() {
+        try {
+            long folded = salesVelocityService.fold();
+            return ResponseEntity.ok(ApiResponse.success("Folded " + folded + " stock transactions into the sales velocities", folded));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Failed to fold sales velocities: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/forecasts/recompute")
+    public ResponseEntity<?> recomputeForecasts() {
+        try {
+            long refreshed = salesVelocityService.recompute().join();
+            return ResponseEntity.ok(ApiResponse.success("Recomputed " + refreshed + " variant forecasts", refreshed));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Failed to recompute forecasts: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/ledger/drift")
+    public ResponseEntity<?> getLedgerDrift() {
+        try {
+            List<StockLedgerDrift> drift = stockLedgerService.getDrift();
+            return ResponseEntity.ok(Map.of("drift", drift, "count", drift.size()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Failed to fetch ledger drift: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/ledger/drift/repair")
+    public ResponseEntity<?> repairLedgerDrift() {
+        try {
+            List<StockLedgerDrift> repaired = stockLedgerService.repairDrift();
+            return ResponseEntity.ok(ApiResponse.success("Reset " + repaired.size() + " variants to the ledger", repaired));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Failed to repair ledger drift: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/ledger/variants/{variantId}/quantity")
+    public ResponseEntity<?> getLedgerQuantity(@PathVariable Long variantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        try {
+            LocalDateTime pointInTime = at != null ? at : LocalDateTime.now();
+            int quantity = stockLedgerService.getQuantityAt(variantId, pointInTime);
+            return ResponseEntity.ok(Map.of("variantId", variantId, "at", pointInTime, "quantity", quantity));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                .body("Error exporting fashion products: " + e.getMessage());
+                .body(ApiResponse.error("Failed to replay ledger: " + e.getMessage()));
         }
     }
+    
+    @GetMapping("/transactions/export")
+    public void exportTransactionsCSV(@RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+                                      HttpServletResponse response) throws IOException {
+        CsvWriter.writeAttachment(response, "transactions_" + java.time.LocalDate.now().toString() + ".csv", gzip,
+            "Error exporting transactions: ",
+            csvExportMetrics.timed("transactions", csv -> stockTransactionService.exportTransactionsToCSV(null, null, csv)));
+    }
+    
+    @GetMapping("/products/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public void exportProductsCSV(@RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+                                  HttpServletResponse response) throws IOException {
+        CsvWriter.writeAttachment(response, "products_" + java.time.LocalDate.now().toString() + ".csv", gzip,
+            "Error exporting products: ",
+            csvExportMetrics.timed("products", csv -> adminService.exportProductsToCSV(csv)));
+    }
+    
+    @GetMapping("/fashion-products/export")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public void exportFashionProductsCSV(@RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+                                         HttpServletResponse response) throws IOException {
+        CsvWriter.writeAttachment(response, "fashion_products_" + java.time.LocalDate.now().toString() + ".csv", gzip,
+            "Error exporting fashion products: ",
+            csvExportMetrics.timed("fashion-products", csv -> adminService.exportFashionProductsToCSV(csv)));
+    }
 }
\ No newline at end of file
@@ -1,7 +1,9 @@
 package com.inventory.controller;
 
+import com.inventory.dto.AlertQueueMetrics;
 import com.inventory.dto.AlertResponse;
 import com.inventory.dto.ApiResponse;
+import com.inventory.service.AlertEvaluationService;
 import com.inventory.service.AlertService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +20,9 @@ public class AlertController {
     @Autowired
     private AlertService alertService;
 
+    @Autowired
+    private AlertEvaluationService alertEvaluationService;
+
     // Get ALL alerts (active + resolved)
     @GetMapping
     public ResponseEntity<ApiResponse<List<AlertResponse>>> getAllAlerts() {
@@ -117,4 +122,17 @@ public class AlertController {
                     .body(ApiResponse.error("Failed to cleanup orphaned alerts: " + e.getMessage()));
         }
     }
+
+    // Alert evaluation queue depth, lag and throughput
+    @GetMapping("/queue-metrics")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<ApiResponse<AlertQueueMetrics>> getQueueMetrics() {
+        try {
+            AlertQueueMetrics metrics = alertEvaluationService.getMetrics();
+            return ResponseEntity.ok(ApiResponse.success("Alert queue metrics fetched successfully", metrics));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to fetch alert queue metrics: " + e.getMessage()));
+        }
+    }
 }
@@ -4,10 +4,14 @@ import com.inventory.dto.*;
 import com.inventory.model.User;
 import com.inventory.repository.UserRepository;
 import com.inventory.security.JwtUtils;
+import com.inventory.security.TokenDenyList;
 import com.inventory.security.UserPrincipal;
 import com.inventory.service.AuthService;
 import com.inventory.service.PasswordResetService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -23,6 +27,8 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
 public class AuthController {
     
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+    
     @Autowired
     private AuthService authService;
     
@@ -35,6 +41,9 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
     
+    @Autowired
+    private TokenDenyList tokenDenyList;
+    
     @Autowired
     private PasswordResetService passwordResetService;
     
@@ -52,14 +61,14 @@ public class AuthController {
     
     @PostMapping("/test")
     public ResponseEntity<?> test(@RequestBody(required = false) Object request) {
-        System.out.println("Test endpoint called with: " + request);
+        logger.debug("Test endpoint called with: {}", request);
         return ResponseEntity.ok(ApiResponse.success("Test endpoint working"));
     }
     
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
         try {
-            System.out.println("Login attempt for email: " + loginRequest.getEmail());
+            logger.debug("Login attempt for email: {}", loginRequest.getEmail());
             
             // Basic validation
             if (loginRequest.getEmail() == null || loginRequest.getEmail().trim().isEmpty()) {
@@ -79,9 +88,9 @@ public class AuthController {
             Optional<User> userByEmail = userRepository.findByEmail(email);
             if (userByEmail.isPresent()) {
                 username = userByEmail.get().getUsername();
-                System.out.println("Found user by email: " + username);
+                logger.debug("Found user by email: {}", username);
             } else {
-                System.out.println("User not found by email: " + email);
+                logger.debug("User not found by email: {}", email);
                 return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Invalid email or password"));
             }
@@ -113,13 +122,13 @@ public class AuthController {
                     .body(ApiResponse.error(statusMessage));
             }
             
-            System.out.println("Login successful for user: " + username);
+            logger.info("Login successful for user: {}", username);
             JwtResponse response = new JwtResponse(jwt, new UserResponse(user));
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
-            System.out.println("Login error: " + e.getMessage());
-            e.printStackTrace();
+            logger.warn("Login error: {}", e.getMessage());
+            logger.debug("Login error details", e);
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Invalid email or password"));
         }
@@ -149,7 +158,14 @@ public class AuthController {
     }
     
     @PostMapping("/logout")
-    public ResponseEntity<?> logout() {
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        // Revoke the presented token so it cannot be reused until it expires
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            Claims claims = jwtUtils.getValidatedClaims(authorization.substring(7));
+            if (claims != null) {
+                tokenDenyList.denyToken(claims);
+            }
+        }
         return ResponseEntity.ok(ApiResponse.success("Logout successful"));
     }
     
@@ -158,11 +174,11 @@ public class AuthController {
     @PostMapping("/forgot-password")
     public ResponseEntity<?> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request) {
         try {
-            System.out.println("🔐 Forgot password request for: " + request.getEmail());
+            logger.debug("🔐 Forgot password request for: {}", request.getEmail());
             ApiResponse response = passwordResetService.sendOtp(request);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.err.println("❌ Forgot password error: " + e.getMessage());
+            logger.warn("❌ Forgot password error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Failed to process forgot password request"));
         }
@@ -171,11 +187,11 @@ public class AuthController {
     @PostMapping("/verify-otp")
     public ResponseEntity<?> verifyOtp(@Valid @RequestBody VerifyOtpRequest request) {
         try {
-            System.out.println("🔍 OTP verification request for: " + request.getEmail());
+            logger.debug("🔍 OTP verification request for: {}", request.getEmail());
             ApiResponse response = passwordResetService.verifyOtp(request);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.err.println("❌ OTP verification error: " + e.getMessage());
+            logger.warn("❌ OTP verification error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Failed to verify OTP"));
         }
@@ -184,11 +200,11 @@ public class AuthController {
     @PostMapping("/reset-password")
     public ResponseEntity<?> resetPassword(@Valid @RequestBody ResetPasswordRequest request) {
         try {
-            System.out.println("🔄 Password reset request for: " + request.getEmail());
+            logger.debug("🔄 Password reset request for: {}", request.getEmail());
             ApiResponse response = passwordResetService.resetPassword(request);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            System.err.println("❌ Password reset error: " + e.getMessage());
+            logger.warn("❌ Password reset error: {}", e.getMessage());
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Failed to reset password"));
         }
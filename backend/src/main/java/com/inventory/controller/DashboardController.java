@@ -9,7 +9,6 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -18,35 +17,26 @@ import java.util.Map;
 public class DashboardController {
     
     @Autowired
-    private ProductService productService;
+    private DashboardSnapshotService dashboardSnapshotService;
     
-    @Autowired
-    private FashionProductService fashionProductService;
-    
-    @Autowired
-    private StockTransactionService stockTransactionService;
-    
-    @Autowired
-    private AlertService alertService;
-    
-    @Autowired
-    private AdminService adminService;
+    // All dashboards are served from the in-memory snapshot (refreshed from stock/alert events)
     
     @GetMapping("/staff")
     @PreAuthorize("hasRole('STAFF')")
     public ResponseEntity<Map<String, Object>> getStaffDashboard() {
+        DashboardSnapshot snapshot = dashboardSnapshotService.getSnapshot();
         Map<String, Object> dashboard = new HashMap<>();
         
         // Staff can view fashion products and stock levels
-        List<FashionProductResponse> fashionProducts = fashionProductService.getAllFashionProducts();
-        dashboard.put("products", fashionProducts);
+        dashboard.put("products", snapshot.getProducts());
         
         // Basic stats
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalProducts", fashionProducts.size());
-        stats.put("lowStockProducts", fashionProductService.getLowStockFashionProducts().size());
-        stats.put("outOfStockProducts", fashionProductService.getOutOfStockFashionProducts().size());
+        stats.put("totalProducts", snapshot.getTotalProducts());
+        stats.put("lowStockProducts", snapshot.getLowStockProducts());
+        stats.put("outOfStockProducts", snapshot.getOutOfStockProducts());
         dashboard.put("stats", stats);
+        dashboard.put("snapshotTime", snapshot.getUpdatedAt());
         
         return ResponseEntity.ok(dashboard);
     }
@@ -54,26 +44,22 @@ public class DashboardController {
     @GetMapping("/manager")
     @PreAuthorize("hasRole('MANAGER')")
     public ResponseEntity<Map<String, Object>> getManagerDashboard() {
+        DashboardSnapshot snapshot = dashboardSnapshotService.getSnapshot();
         Map<String, Object> dashboard = new HashMap<>();
         
-        // Managers can view fashion products, manage stock, and view alerts
-        List<FashionProductResponse> fashionProducts = fashionProductService.getAllFashionProducts();
-        List<StockTransactionResponse> recentTransactions = stockTransactionService.getRecentTransactions();
-        
-        // Get only ACTIVE alerts for manager dashboard
-        List<AlertResponse> activeAlerts = alertService.getAllActiveAlerts();
+        // Managers can view fashion products, manage stock, and view ACTIVE alerts
+        dashboard.put("products", snapshot.getProducts());
+        dashboard.put("recentTransactions", snapshot.getRecentTransactions());
+        dashboard.put("alerts", snapshot.getActiveAlerts());
         
-        dashboard.put("products", fashionProducts);
-        dashboard.put("recentTransactions", recentTransactions);
-        dashboard.put("alerts", activeAlerts);
-        
-        // Manager stats - calculate accurate counts for fashion products
+        // Manager stats
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalProducts", fashionProducts.size());
-        stats.put("lowStockProducts", fashionProductService.getLowStockFashionProducts().size());
-        stats.put("outOfStockProducts", fashionProductService.getOutOfStockFashionProducts().size());
-        stats.put("activeAlerts", activeAlerts.size());
+        stats.put("totalProducts", snapshot.getTotalProducts());
+        stats.put("lowStockProducts", snapshot.getLowStockProducts());
+        stats.put("outOfStockProducts", snapshot.getOutOfStockProducts());
+        stats.put("activeAlerts", snapshot.getActiveAlertCount());
         dashboard.put("stats", stats);
+        dashboard.put("snapshotTime", snapshot.getUpdatedAt());
         
         return ResponseEntity.ok(dashboard);
     }
@@ -81,26 +67,23 @@ public class DashboardController {
     @GetMapping("/admin")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getAdminDashboard() {
+        DashboardSnapshot snapshot = dashboardSnapshotService.getSnapshot();
         Map<String, Object> dashboard = new HashMap<>();
         
-        // Admin has access to everything - show fashion products
-        List<FashionProductResponse> fashionProducts = fashionProductService.getAllFashionProducts();
-        List<StockTransactionResponse> recentTransactions = stockTransactionService.getRecentTransactions();
-        List<AlertResponse> alerts = alertService.getRecentAlerts();
-        
         // Admin stats for fashion retail system
         Map<String, Object> stats = new HashMap<>();
-        stats.put("totalProducts", fashionProducts.size());
-        stats.put("lowStockProducts", fashionProductService.getLowStockFashionProducts().size());
-        stats.put("outOfStockProducts", fashionProductService.getOutOfStockFashionProducts().size());
-        stats.put("activeAlerts", alertService.getAllActiveAlerts().size());
-        stats.put("totalTransactions", recentTransactions.size());
+        stats.put("totalProducts", snapshot.getTotalProducts());
+        stats.put("lowStockProducts", snapshot.getLowStockProducts());
+        stats.put("outOfStockProducts", snapshot.getOutOfStockProducts());
+        stats.put("activeAlerts", snapshot.getActiveAlertCount());
+        stats.put("totalTransactions", snapshot.getRecentTransactions().size());
         
-        dashboard.put("products", fashionProducts);
-        dashboard.put("recentTransactions", recentTransactions);
-        dashboard.put("alerts", alerts);
+        dashboard.put("products", snapshot.getProducts());
+        dashboard.put("recentTransactions", snapshot.getRecentTransactions());
+        dashboard.put("alerts", snapshot.getRecentAlerts());
         dashboard.put("stats", stats);
+        dashboard.put("snapshotTime", snapshot.getUpdatedAt());
         
         return ResponseEntity.ok(dashboard);
     }
-}
\ No newline at end of file
+}
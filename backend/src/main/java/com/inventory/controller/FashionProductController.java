@@ -4,8 +4,11 @@ import com.inventory.dto.*;
 import com.inventory.model.FashionProduct;
 import com.inventory.model.ProductVariant;
 import com.inventory.service.FashionProductService;
+import com.inventory.service.SalesVelocityService;
+import com.inventory.service.StockHistoryService;
 import com.inventory.service.StockTransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -14,28 +17,44 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/fashion-products")
-@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}, allowCredentials = "true")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}, allowCredentials = "true", exposedHeaders = "X-Next-Cursor")
 public class FashionProductController {
     
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     @Autowired
     private FashionProductService fashionProductService;
     
     @Autowired
     private StockTransactionService stockTransactionService;
     
+    @Autowired
+    private StockHistoryService stockHistoryService;
+    
+    @Autowired
+    private SalesVelocityService salesVelocityService;
+    
     /**
      * Get all fashion products
      * GET /api/fashion-products
+     * Optional on every list endpoint: ?limit={n}&cursor={X-Next-Cursor}&includeVariants=false
      */
     @GetMapping
-    public ResponseEntity<List<FashionProductResponse>> getAllProducts() {
+    public ResponseEntity<List<FashionProductResponse>> getAllProducts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeVariants", defaultValue = "true") boolean includeVariants) {
         try {
-            List<FashionProductResponse> products = fashionProductService.getAllProducts();
-            return ResponseEntity.ok(products);
+            return listProducts(new FashionProductFilter(), cursor, limit, includeVariants,
+                    () -> fashionProductService.getAllProducts());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -131,11 +150,17 @@ public class FashionProductController {
      * GET /api/fashion-products/category/{category}
      */
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<FashionProductResponse>> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<List<FashionProductResponse>> getProductsByCategory(
+            @PathVariable String category,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeVariants", defaultValue = "true") boolean includeVariants) {
         try {
             FashionProduct.Category categoryEnum = FashionProduct.Category.valueOf(category.toUpperCase());
-            List<FashionProductResponse> products = fashionProductService.getProductsByCategory(categoryEnum);
-            return ResponseEntity.ok(products);
+            FashionProductFilter filter = new FashionProductFilter();
+            filter.setCategory(categoryEnum);
+            return listProducts(filter, cursor, limit, includeVariants,
+                    () -> fashionProductService.getProductsByCategory(categoryEnum));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
@@ -148,10 +173,18 @@ public class FashionProductController {
      * GET /api/fashion-products/brand/{brand}
      */
     @GetMapping("/brand/{brand}")
-    public ResponseEntity<List<FashionProductResponse>> getProductsByBrand(@PathVariable String brand) {
+    public ResponseEntity<List<FashionProductResponse>> getProductsByBrand(
+            @PathVariable String brand,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeVariants", defaultValue = "true") boolean includeVariants) {
         try {
-            List<FashionProductResponse> products = fashionProductService.getProductsByBrand(brand);
-            return ResponseEntity.ok(products);
+            FashionProductFilter filter = new FashionProductFilter();
+            filter.setBrand(brand);
+            return listProducts(filter, cursor, limit, includeVariants,
+                    () -> fashionProductService.getProductsByBrand(brand));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -162,11 +195,17 @@ public class FashionProductController {
      * GET /api/fashion-products/season/{season}
      */
     @GetMapping("/season/{season}")
-    public ResponseEntity<List<FashionProductResponse>> getProductsBySeason(@PathVariable String season) {
+    public ResponseEntity<List<FashionProductResponse>> getProductsBySeason(
+            @PathVariable String season,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeVariants", defaultValue = "true") boolean includeVariants) {
         try {
             FashionProduct.Season seasonEnum = FashionProduct.Season.valueOf(season.toUpperCase());
-            List<FashionProductResponse> products = fashionProductService.getProductsBySeason(seasonEnum);
-            return ResponseEntity.ok(products);
+            FashionProductFilter filter = new FashionProductFilter();
+            filter.setSeason(seasonEnum);
+            return listProducts(filter, cursor, limit, includeVariants,
+                    () -> fashionProductService.getProductsBySeason(seasonEnum));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
@@ -193,11 +232,17 @@ public class FashionProductController {
      * GET /api/fashion-products/gender/{gender}
      */
     @GetMapping("/gender/{gender}")
-    public ResponseEntity<List<FashionProductResponse>> getProductsByGender(@PathVariable String gender) {
+    public ResponseEntity<List<FashionProductResponse>> getProductsByGender(
+            @PathVariable String gender,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeVariants", defaultValue = "true") boolean includeVariants) {
         try {
             FashionProduct.Gender genderEnum = FashionProduct.Gender.valueOf(gender.toUpperCase());
-            List<FashionProductResponse> products = fashionProductService.getProductsByGender(genderEnum);
-            return ResponseEntity.ok(products);
+            FashionProductFilter filter = new FashionProductFilter();
+            filter.setTargetGender(genderEnum);
+            return listProducts(filter, cursor, limit, includeVariants,
+                    () -> fashionProductService.getProductsByGender(genderEnum));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         } catch (Exception e) {
@@ -210,10 +255,19 @@ public class FashionProductController {
      * GET /api/fashion-products/search?q={searchTerm}
      */
     @GetMapping("/search")
-    public ResponseEntity<List<FashionProductResponse>> searchProducts(@RequestParam("q") String searchTerm) {
+    public ResponseEntity<List<FashionProductResponse>> searchProducts(
+            @RequestParam("q") String searchTerm,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeVariants", defaultValue = "true") boolean includeVariants) {
         try {
-            List<FashionProductResponse> products = fashionProductService.searchProducts(searchTerm);
-            return ResponseEntity.ok(products);
+            // Results come from the search index in ranking order, so they are paged by rank, not by keyset
+            if (cursor == null && limit == null && includeVariants) {
+                return ResponseEntity.ok(fashionProductService.searchProducts(searchTerm));
+            }
+            return pageResponse(fashionProductService.searchProductPage(searchTerm, cursor, limit, includeVariants));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -226,10 +280,18 @@ public class FashionProductController {
     @GetMapping("/price-range")
     public ResponseEntity<List<FashionProductResponse>> getProductsByPriceRange(
             @RequestParam("min") BigDecimal minPrice,
-            @RequestParam("max") BigDecimal maxPrice) {
+            @RequestParam("max") BigDecimal maxPrice,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeVariants", defaultValue = "true") boolean includeVariants) {
         try {
-            List<FashionProductResponse> products = fashionProductService.getProductsByPriceRange(minPrice, maxPrice);
-            return ResponseEntity.ok(products);
+            FashionProductFilter filter = new FashionProductFilter();
+            filter.setMinPrice(minPrice);
+            filter.setMaxPrice(maxPrice);
+            return listProducts(filter, cursor, limit, includeVariants,
+                    () -> fashionProductService.getProductsByPriceRange(minPrice, maxPrice));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -241,10 +303,17 @@ public class FashionProductController {
      */
     @GetMapping("/low-stock")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<List<FashionProductResponse>> getLowStockProducts() {
+    public ResponseEntity<List<FashionProductResponse>> getLowStockProducts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeVariants", defaultValue = "true") boolean includeVariants) {
         try {
-            List<FashionProductResponse> products = fashionProductService.getLowStockProducts();
-            return ResponseEntity.ok(products);
+            FashionProductFilter filter = new FashionProductFilter();
+            filter.setLowStockOnly(true);
+            return listProducts(filter, cursor, limit, includeVariants,
+                    () -> fashionProductService.getLowStockProducts());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -256,10 +325,17 @@ public class FashionProductController {
      */
     @GetMapping("/out-of-stock")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
-    public ResponseEntity<List<FashionProductResponse>> getOutOfStockProducts() {
+    public ResponseEntity<List<FashionProductResponse>> getOutOfStockProducts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeVariants", defaultValue = "true") boolean includeVariants) {
         try {
-            List<FashionProductResponse> products = fashionProductService.getOutOfStockProducts();
-            return ResponseEntity.ok(products);
+            FashionProductFilter filter = new FashionProductFilter();
+            filter.setOutOfStockOnly(true);
+            return listProducts(filter, cursor, limit, includeVariants,
+                    () -> fashionProductService.getOutOfStockProducts());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -394,4 +470,115 @@ public class FashionProductController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Get the stock of a product's variants at a point in time
+     * GET /api/fashion-products/{id}/stock-at?ts={ISO date-time}
+     */
+    @GetMapping("/{id}/stock-at")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<FashionProductStockAt> getStockAt(
+            @PathVariable Long id,
+            @RequestParam("ts") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ts) {
+        try {
+            FashionProductStockAt stock = stockHistoryService.getStockAt(id, ts);
+            return ResponseEntity.ok(stock);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Get the stock of several products at a point in time (up to 200 ids)
+     * GET /api/fashion-products/stock-at?ids={id},{id}&ts={ISO date-time}
+     */
+    @GetMapping("/stock-at")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<List<FashionProductStockAt>> getStockAt(
+            @RequestParam("ids") List<Long> ids,
+            @RequestParam("ts") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ts) {
+        try {
+            List<FashionProductStockAt> stock = stockHistoryService.getStockAt(ids, ts);
+            return ResponseEntity.ok(stock);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Get the sales velocity, reorder point and days of cover of a product's variants
+     * GET /api/fashion-products/{id}/forecast
+     */
+    @GetMapping("/{id}/forecast")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<List<VariantForecastResponse>> getProductForecast(@PathVariable Long id) {
+        try {
+            List<VariantForecastResponse> forecasts = salesVelocityService.getProductForecasts(id);
+            return ResponseEntity.ok(forecasts);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Get the sales velocity, reorder point and days of cover of one variant
+     * GET /api/fashion-products/variants/{variantId}/forecast
+     */
+    @GetMapping("/variants/{variantId}/forecast")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<VariantForecastResponse> getVariantForecast(@PathVariable Long variantId) {
+        try {
+            VariantForecastResponse forecast = salesVelocityService.getVariantForecast(variantId);
+            return ResponseEntity.ok(forecast);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Get the variants at or below their dynamic reorder point, fewest days of cover first (up to 500)
+     * GET /api/fashion-products/reorder?limit={n}
+     */
+    @GetMapping("/reorder")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<List<VariantForecastResponse>> getReorderList(@RequestParam(defaultValue = "100") int limit) {
+        try {
+            List<VariantForecastResponse> forecasts = salesVelocityService.getReorderList(limit);
+            return ResponseEntity.ok(forecasts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * Serve a product list: the full list when no paging/field options are given, otherwise one
+     * keyset page with the cursor for the next page in the X-Next-Cursor header
+     */
+    private ResponseEntity<List<FashionProductResponse>> listProducts(FashionProductFilter filter, String cursor,
+                                                                      Integer limit, boolean includeVariants,
+                                                                      Supplier<List<FashionProductResponse>> fullList) {
+        if (cursor == null && limit == null && includeVariants) {
+            return ResponseEntity.ok(fullList.get());
+        }
+        
+        return pageResponse(fashionProductService.getProductPage(filter, cursor, limit, includeVariants));
+    }
+    
+    private ResponseEntity<List<FashionProductResponse>> pageResponse(FashionProductPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getProducts());
+    }
+}
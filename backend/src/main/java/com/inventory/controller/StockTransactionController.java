@@ -1,17 +1,25 @@
 package com.inventory.controller;
 
+import com.inventory.dto.ApiResponse;
+import com.inventory.dto.StockTransactionBatchRequest;
+import com.inventory.dto.StockTransactionBatchResponse;
 import com.inventory.dto.StockTransactionRequest;
 import com.inventory.dto.StockTransactionResponse;
+import com.inventory.export.CsvExportMetrics;
+import com.inventory.export.CsvWriter;
 import com.inventory.service.StockTransactionService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -19,9 +27,14 @@ import java.util.List;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:3000"}, allowCredentials = "true")
 public class StockTransactionController {
 
+    private static final Logger logger = LoggerFactory.getLogger(StockTransactionController.class);
+
     @Autowired
     private StockTransactionService stockTransactionService;
 
+    @Autowired
+    private CsvExportMetrics csvExportMetrics;
+
     /**
      * Get all stock transactions
      * GET /api/stock-transactions
@@ -31,17 +44,18 @@ public class StockTransactionController {
     @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<List<StockTransactionResponse>> getAllTransactions() {
         try {
-            System.out.println("📋 GET /api/stock-transactions - Fetching all transactions");
+            logger.debug("📋 GET /api/stock-transactions - Fetching all transactions");
             List<StockTransactionResponse> transactions = stockTransactionService.getAllTransactions();
-            System.out.println("✅ Found " + transactions.size() + " transactions");
+            logger.debug("✅ Found {} transactions", transactions.size());
             
-            // Print each transaction for debugging
-            transactions.forEach(t -> System.out.println("  - " + t.getProductName() + " (" + t.getType() + ") x" + t.getQuantity()));
+            // Each transaction only at TRACE: the loop is skipped entirely otherwise
+            if (logger.isTraceEnabled()) {
+                transactions.forEach(t -> logger.trace("  - {} ({}) x{}", t.getProductName(), t.getType(), t.getQuantity()));
+            }
             
             return ResponseEntity.ok(transactions);
         } catch (Exception e) {
-            System.err.println("❌ Error fetching transactions: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("❌ Error fetching transactions: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -54,12 +68,12 @@ public class StockTransactionController {
     public ResponseEntity<List<StockTransactionResponse>> getTransactionsByType(
             @PathVariable String type) {
         try {
-            System.out.println("📋 GET /api/stock-transactions/type/" + type);
+            logger.debug("📋 GET /api/stock-transactions/type/{}", type);
             List<StockTransactionResponse> transactions = stockTransactionService.getTransactionsByType(type);
-            System.out.println("✅ Found " + transactions.size() + " " + type + " transactions");
+            logger.debug("✅ Found {} {} transactions", transactions.size(), type);
             return ResponseEntity.ok(transactions);
         } catch (Exception e) {
-            System.err.println("❌ Error fetching transactions by type: " + e.getMessage());
+            logger.warn("❌ Error fetching transactions by type: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
@@ -72,11 +86,11 @@ public class StockTransactionController {
     public ResponseEntity<List<StockTransactionResponse>> getTransactionsByProduct(
             @PathVariable Long productId) {
         try {
-            System.out.println("📋 GET /api/stock-transactions/product/" + productId);
+            logger.debug("📋 GET /api/stock-transactions/product/{}", productId);
             List<StockTransactionResponse> transactions = stockTransactionService.getTransactionsByProduct(productId);
             return ResponseEntity.ok(transactions);
         } catch (Exception e) {
-            System.err.println("❌ Error fetching product transactions: " + e.getMessage());
+            logger.warn("❌ Error fetching product transactions: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
@@ -88,11 +102,11 @@ public class StockTransactionController {
     @GetMapping("/recent")
     public ResponseEntity<List<StockTransactionResponse>> getRecentTransactions() {
         try {
-            System.out.println("📋 GET /api/stock-transactions/recent");
+            logger.debug("📋 GET /api/stock-transactions/recent");
             List<StockTransactionResponse> transactions = stockTransactionService.getRecentTransactions();
             return ResponseEntity.ok(transactions);
         } catch (Exception e) {
-            System.err.println("❌ Error fetching recent transactions: " + e.getMessage());
+            logger.error("❌ Error fetching recent transactions: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -107,49 +121,58 @@ public class StockTransactionController {
     public ResponseEntity<StockTransactionResponse> createTransaction(
             @RequestBody StockTransactionRequest request) {
         try {
-            System.out.println("📝 POST /api/stock-transactions - Creating new transaction");
+            logger.debug("📝 POST /api/stock-transactions - Creating new transaction");
             String username = SecurityContextHolder.getContext().getAuthentication().getName();
             StockTransactionResponse response = stockTransactionService.createStockTransaction(request, username);
-            System.out.println("✅ Transaction created with ID: " + response.getId());
+            logger.debug("✅ Transaction created with ID: {}", response.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
-            System.err.println("❌ Error creating transaction: " + e.getMessage());
+            logger.warn("❌ Error creating transaction: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
     
     /**
-     * Export transactions to CSV
-     * GET /api/stock-transactions/export
-     * Available for both MANAGER and ADMIN
+     * Apply many stock movements at once (e.g. a goods receipt) in a single transaction
+     * POST /api/stock-transactions/batch
+     * Only MANAGER and ADMIN can create stock transactions
      */
-    @GetMapping("/export")
+    @PostMapping("/batch")
     @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
-    public ResponseEntity<String> exportTransactionsCSV(
-            @RequestParam(required = false) String startDate,
-            @RequestParam(required = false) String endDate) {
+    public ResponseEntity<?> createBatchTransactions(@Valid @RequestBody StockTransactionBatchRequest request) {
         try {
-            String csvContent = stockTransactionService.exportTransactionsToCSV(startDate, endDate);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("text/csv"));
-            
-            String fileName = "transactions_";
-            if (startDate != null && endDate != null) {
-                fileName += startDate + "_to_" + endDate;
-            } else {
-                fileName += java.time.LocalDate.now().toString();
-            }
-            fileName += ".csv";
-            
-            headers.setContentDispositionFormData("attachment", fileName);
-            
-            return ResponseEntity.ok()
-                .headers(headers)
-                .body(csvContent);
+            logger.debug("📝 POST /api/stock-transactions/batch - Applying {} lines", request.getTransactions().size());
+            String username = SecurityContextHolder.getContext().getAuthentication().getName();
+            StockTransactionBatchResponse response = stockTransactionService.createStockTransactionsBatch(request, username);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
         } catch (Exception e) {
+            logger.warn("❌ Error applying transaction batch: {}", e.getMessage());
             return ResponseEntity.badRequest()
-                .body("Error exporting transactions: " + e.getMessage());
+                .body(ApiResponse.error("Failed to apply transaction batch: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Export transactions to CSV
+     * GET /api/stock-transactions/export?startDate=&endDate=&gzip=true
+     * Available for both MANAGER and ADMIN; the file is streamed, gzip-encoded when gzip=true
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public void exportTransactionsCSV(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        String fileName = "transactions_";
+        if (startDate != null && endDate != null) {
+            fileName += startDate + "_to_" + endDate;
+        } else {
+            fileName += java.time.LocalDate.now().toString();
         }
+        fileName += ".csv";
+        
+        CsvWriter.writeAttachment(response, fileName, gzip, "Error exporting transactions: ",
+            csvExportMetrics.timed("transactions", csv -> stockTransactionService.exportTransactionsToCSV(startDate, endDate, csv)));
     }
 }
@@ -1,7 +1,9 @@
 package com.inventory.controller;
 
 import com.inventory.dto.ApiResponse;
+import com.inventory.dto.StockMovementBucket;
 import com.inventory.dto.StockTransactionResponse;
+import com.inventory.service.StockMovementRollupService;
 import com.inventory.service.TransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -21,6 +23,9 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private StockMovementRollupService stockMovementRollupService;
+
     // Get all transactions
     @GetMapping
     public ResponseEntity<ApiResponse<List<StockTransactionResponse>>> getAllTransactions() {
@@ -71,11 +76,24 @@ public class TransactionController {
         }
     }
 
-    // Get transaction statistics
+    // Get transaction statistics: the total count and the movement volume per hour or day (last day of hours
+    // or last 30 days by default), overall or per PRODUCT, FASHION_PRODUCT, CATEGORY, BRAND or USER key
     @GetMapping("/statistics")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getStatistics() {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getStatistics(
+            @RequestParam(defaultValue = "DAY") String granularity,
+            @RequestParam(defaultValue = "TOTAL") String dimension,
+            @RequestParam(required = false) String key,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
         try {
-            Map<String, Object> stats = new HashMap<>();
+            StockMovementBucket.Granularity bucketGranularity = StockMovementBucket.Granularity.valueOf(granularity.toUpperCase());
+            StockMovementBucket.Dimension bucketDimension = StockMovementBucket.Dimension.valueOf(dimension.toUpperCase());
+            LocalDateTime end = to != null ? to : LocalDateTime.now();
+            LocalDateTime start = from != null ? from
+                    : bucketGranularity == StockMovementBucket.Granularity.HOUR ? end.minusDays(1) : end.minusDays(30);
+
+            Map<String, Object> stats = new HashMap<>(
+                    stockMovementRollupService.getSeries(bucketGranularity, bucketDimension, key, start, end));
             stats.put("totalTransactions", transactionService.getTotalTransactions());
             return ResponseEntity.ok(ApiResponse.success("Statistics fetched successfully", stats));
         } catch (Exception e) {
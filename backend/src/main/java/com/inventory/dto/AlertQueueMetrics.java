@@ -0,0 +1,47 @@
+package com.inventory.dto;
+
+import java.time.LocalDateTime;
+
+public class AlertQueueMetrics {
+    
+    private long pendingTasks;          // Queue depth (uncoalesced rows)
+    private long oldestTaskAgeMs;       // Lag: age of the oldest pending task, 0 when empty
+    private long processedTasks;        // Tasks completed since startup
+    private long evaluations;           // Coalesced evaluations run since startup
+    private long failedEvaluations;     // Evaluations that failed and stay queued for retry
+    private LocalDateTime lastDrainAt;
+    private long lastDrainDurationMs;
+    private int activeWorkers;
+    private int workerQueueSize;
+    
+    // Constructors
+    public AlertQueueMetrics() {}
+    
+    // Getters and Setters
+    public long getPendingTasks() { return pendingTasks; }
+    public void setPendingTasks(long pendingTasks) { this.pendingTasks = pendingTasks; }
+    
+    public long getOldestTaskAgeMs() { return oldestTaskAgeMs; }
+    public void setOldestTaskAgeMs(long oldestTaskAgeMs) { this.oldestTaskAgeMs = oldestTaskAgeMs; }
+    
+    public long getProcessedTasks() { return processedTasks; }
+    public void setProcessedTasks(long processedTasks) { this.processedTasks = processedTasks; }
+    
+    public long getEvaluations() { return evaluations; }
+    public void setEvaluations(long evaluations) { this.evaluations = evaluations; }
+    
+    public long getFailedEvaluations() { return failedEvaluations; }
+    public void setFailedEvaluations(long failedEvaluations) { this.failedEvaluations = failedEvaluations; }
+    
+    public LocalDateTime getLastDrainAt() { return lastDrainAt; }
+    public void setLastDrainAt(LocalDateTime lastDrainAt) { this.lastDrainAt = lastDrainAt; }
+    
+    public long getLastDrainDurationMs() { return lastDrainDurationMs; }
+    public void setLastDrainDurationMs(long lastDrainDurationMs) { this.lastDrainDurationMs = lastDrainDurationMs; }
+    
+    public int getActiveWorkers() { return activeWorkers; }
+    public void setActiveWorkers(int activeWorkers) { this.activeWorkers = activeWorkers; }
+    
+    public int getWorkerQueueSize() { return workerQueueSize; }
+    public void setWorkerQueueSize(int workerQueueSize) { this.workerQueueSize = workerQueueSize; }
+}
@@ -0,0 +1,55 @@
+package com.inventory.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable view of everything the dashboards show; replaced as a whole when the data changes.
+ */
+public class DashboardSnapshot {
+    
+    private final List<FashionProductResponse> products;
+    private final List<StockTransactionResponse> recentTransactions;
+    private final List<AlertResponse> activeAlerts;
+    private final List<AlertResponse> recentAlerts;
+    private final long lowStockProducts;
+    private final long outOfStockProducts;
+    private final long activeAlertCount;
+    private final LocalDateTime updatedAt;
+    
+    public DashboardSnapshot(List<FashionProductResponse> products,
+                             List<StockTransactionResponse> recentTransactions,
+                             List<AlertResponse> activeAlerts,
+                             List<AlertResponse> recentAlerts,
+                             long lowStockProducts,
+                             long outOfStockProducts,
+                             long activeAlertCount) {
+        this.products = List.copyOf(products);
+        this.recentTransactions = List.copyOf(recentTransactions);
+        this.activeAlerts = List.copyOf(activeAlerts);
+        this.recentAlerts = List.copyOf(recentAlerts);
+        this.lowStockProducts = lowStockProducts;
+        this.outOfStockProducts = outOfStockProducts;
+        this.activeAlertCount = activeAlertCount;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters
+    public List<FashionProductResponse> getProducts() { return products; }
+    
+    public List<StockTransactionResponse> getRecentTransactions() { return recentTransactions; }
+    
+    public List<AlertResponse> getActiveAlerts() { return activeAlerts; }
+    
+    public List<AlertResponse> getRecentAlerts() { return recentAlerts; }
+    
+    public int getTotalProducts() { return products.size(); }
+    
+    public long getLowStockProducts() { return lowStockProducts; }
+    
+    public long getOutOfStockProducts() { return outOfStockProducts; }
+    
+    public long getActiveAlertCount() { return activeAlertCount; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
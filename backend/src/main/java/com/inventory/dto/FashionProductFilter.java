@@ -0,0 +1,48 @@
+package com.inventory.dto;
+
+import com.inventory.model.FashionProduct;
+
+import java.math.BigDecimal;
+
+/**
+ * Optional criteria for the paged fashion product list; null fields are not applied.
+ */
+public class FashionProductFilter {
+    
+    private FashionProduct.Category category;
+    private String brand;
+    private FashionProduct.Season season;
+    private FashionProduct.Gender targetGender;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private boolean lowStockOnly;
+    private boolean outOfStockOnly;
+    
+    // Constructors
+    public FashionProductFilter() {}
+    
+    // Getters and Setters
+    public FashionProduct.Category getCategory() { return category; }
+    public void setCategory(FashionProduct.Category category) { this.category = category; }
+    
+    public String getBrand() { return brand; }
+    public void setBrand(String brand) { this.brand = brand; }
+    
+    public FashionProduct.Season getSeason() { return season; }
+    public void setSeason(FashionProduct.Season season) { this.season = season; }
+    
+    public FashionProduct.Gender getTargetGender() { return targetGender; }
+    public void setTargetGender(FashionProduct.Gender targetGender) { this.targetGender = targetGender; }
+    
+    public BigDecimal getMinPrice() { return minPrice; }
+    public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+    
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+    
+    public boolean isLowStockOnly() { return lowStockOnly; }
+    public void setLowStockOnly(boolean lowStockOnly) { this.lowStockOnly = lowStockOnly; }
+    
+    public boolean isOutOfStockOnly() { return outOfStockOnly; }
+    public void setOutOfStockOnly(boolean outOfStockOnly) { this.outOfStockOnly = outOfStockOnly; }
+}
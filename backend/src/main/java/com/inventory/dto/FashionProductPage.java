@@ -0,0 +1,24 @@
+package com.inventory.dto;
+
+import java.util.List;
+
+public class FashionProductPage {
+    
+    private List<FashionProductResponse> products;
+    private String nextCursor; // null on the last page
+    
+    // Constructors
+    public FashionProductPage() {}
+    
+    public FashionProductPage(List<FashionProductResponse> products, String nextCursor) {
+        this.products = products;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and Setters
+    public List<FashionProductResponse> getProducts() { return products; }
+    public void setProducts(List<FashionProductResponse> products) { this.products = products; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
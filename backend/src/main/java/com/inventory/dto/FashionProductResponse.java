@@ -1,5 +1,6 @@
 package com.inventory.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.inventory.model.FashionProduct;
 import com.inventory.model.ProductVariant;
 
@@ -28,6 +29,7 @@ public class FashionProductResponse {
     private Integer totalMinStock;
     private boolean lowStock;
     private boolean outOfStock;
+    @JsonInclude(JsonInclude.Include.NON_NULL) // omitted from summary rows
     private List<ProductVariantResponse> variants;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -36,6 +38,10 @@ public class FashionProductResponse {
     public FashionProductResponse() {}
     
     public FashionProductResponse(FashionProduct product) {
+        this(product, true);
+    }
+    
+    public FashionProductResponse(FashionProduct product, boolean includeVariants) {
         this.id = product.getId();
         this.name = product.getName();
         this.sku = product.getSku();
@@ -54,9 +60,9 @@ public class FashionProductResponse {
         this.totalMinStock = product.getTotalMinStock();
         this.lowStock = product.isLowStock();
         this.outOfStock = product.isOutOfStock();
-        this.variants = product.getVariants().stream()
+        this.variants = includeVariants ? product.getVariants().stream()
                 .map(ProductVariantResponse::new)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()) : null;
         this.createdAt = product.getCreatedAt();
         this.updatedAt = product.getUpdatedAt();
     }
@@ -0,0 +1,39 @@
+package com.inventory.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class FashionProductStockAt {
+    
+    private Long productId;
+    private LocalDateTime at;
+    private int totalStock;
+    private List<VariantStockAt> variants = new ArrayList<>();
+    
+    // Constructors
+    public FashionProductStockAt() {}
+    
+    public FashionProductStockAt(Long productId, LocalDateTime at) {
+        this.productId = productId;
+        this.at = at;
+    }
+    
+    public void addVariant(VariantStockAt variant) {
+        variants.add(variant);
+        totalStock += variant.getQuantity();
+    }
+    
+    // Getters and Setters
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public LocalDateTime getAt() { return at; }
+    public void setAt(LocalDateTime at) { this.at = at; }
+    
+    public int getTotalStock() { return totalStock; }
+    public void setTotalStock(int totalStock) { this.totalStock = totalStock; }
+    
+    public List<VariantStockAt> getVariants() { return variants; }
+    public void setVariants(List<VariantStockAt> variants) { this.variants = variants; }
+}
@@ -0,0 +1,70 @@
+package com.inventory.dto;
+
+public class InventoryStatistics {
+    
+    // Regular products
+    private long totalProducts;
+    private long totalStock;
+    private long lowStockProducts;
+    private long outOfStockProducts;
+    
+    // Fashion products and their variants
+    private long fashionProducts;
+    private long lowStockFashionProducts;
+    private long outOfStockFashionProducts;
+    private long totalVariants;
+    private long totalVariantStock;
+    private long lowStockVariants;
+    private long outOfStockVariants;
+    
+    // Alerts
+    private long activeAlerts;
+    private long activeLowStockAlerts;
+    private long activeOutOfStockAlerts;
+    
+    // Constructors
+    public InventoryStatistics() {}
+    
+    // Getters and Setters
+    public long getTotalProducts() { return totalProducts; }
+    public void setTotalProducts(long totalProducts) { this.totalProducts = totalProducts; }
+    
+    public long getTotalStock() { return totalStock; }
+    public void setTotalStock(long totalStock) { this.totalStock = totalStock; }
+    
+    public long getLowStockProducts() { return lowStockProducts; }
+    public void setLowStockProducts(long lowStockProducts) { this.lowStockProducts = lowStockProducts; }
+    
+    public long getOutOfStockProducts() { return outOfStockProducts; }
+    public void setOutOfStockProducts(long outOfStockProducts) { this.outOfStockProducts = outOfStockProducts; }
+    
+    public long getFashionProducts() { return fashionProducts; }
+    public void setFashionProducts(long fashionProducts) { this.fashionProducts = fashionProducts; }
+    
+    public long getLowStockFashionProducts() { return lowStockFashionProducts; }
+    public void setLowStockFashionProducts(long lowStockFashionProducts) { this.lowStockFashionProducts = lowStockFashionProducts; }
+    
+    public long getOutOfStockFashionProducts() { return outOfStockFashionProducts; }
+    public void setOutOfStockFashionProducts(long outOfStockFashionProducts) { this.outOfStockFashionProducts = outOfStockFashionProducts; }
+    
+    public long getTotalVariants() { return totalVariants; }
+    public void setTotalVariants(long totalVariants) { this.totalVariants = totalVariants; }
+    
+    public long getTotalVariantStock() { return totalVariantStock; }
+    public void setTotalVariantStock(long totalVariantStock) { this.totalVariantStock = totalVariantStock; }
+    
+    public long getLowStockVariants() { return lowStockVariants; }
+    public void setLowStockVariants(long lowStockVariants) { this.lowStockVariants = lowStockVariants; }
+    
+    public long getOutOfStockVariants() { return outOfStockVariants; }
+    public void setOutOfStockVariants(long outOfStockVariants) { this.outOfStockVariants = outOfStockVariants; }
+    
+    public long getActiveAlerts() { return activeAlerts; }
+    public void setActiveAlerts(long activeAlerts) { this.activeAlerts = activeAlerts; }
+    
+    public long getActiveLowStockAlerts() { return activeLowStockAlerts; }
+    public void setActiveLowStockAlerts(long activeLowStockAlerts) { this.activeLowStockAlerts = activeLowStockAlerts; }
+    
+    public long getActiveOutOfStockAlerts() { return activeOutOfStockAlerts; }
+    public void setActiveOutOfStockAlerts(long activeOutOfStockAlerts) { this.activeOutOfStockAlerts = activeOutOfStockAlerts; }
+}
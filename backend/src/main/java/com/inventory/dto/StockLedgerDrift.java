@@ -0,0 +1,42 @@
+package com.inventory.dto;
+
+public class StockLedgerDrift {
+    
+    private Long variantId;
+    private Long fashionProductId;
+    private String variantSku;
+    private int recordedQuantity;   // ProductVariant.quantity
+    private int ledgerQuantity;     // Opening quantity plus every stock transaction
+    private int difference;         // recordedQuantity - ledgerQuantity
+    
+    // Constructors
+    public StockLedgerDrift() {}
+    
+    public StockLedgerDrift(Long variantId, Long fashionProductId, String variantSku, int recordedQuantity, int ledgerQuantity) {
+        this.variantId = variantId;
+        this.fashionProductId = fashionProductId;
+        this.variantSku = variantSku;
+        this.recordedQuantity = recordedQuantity;
+        this.ledgerQuantity = ledgerQuantity;
+        this.difference = recordedQuantity - ledgerQuantity;
+    }
+    
+    // Getters and Setters
+    public Long getVariantId() { return variantId; }
+    public void setVariantId(Long variantId) { this.variantId = variantId; }
+    
+    public Long getFashionProductId() { return fashionProductId; }
+    public void setFashionProductId(Long fashionProductId) { this.fashionProductId = fashionProductId; }
+    
+    public String getVariantSku() { return variantSku; }
+    public void setVariantSku(String variantSku) { this.variantSku = variantSku; }
+    
+    public int getRecordedQuantity() { return recordedQuantity; }
+    public void setRecordedQuantity(int recordedQuantity) { this.recordedQuantity = recordedQuantity; }
+    
+    public int getLedgerQuantity() { return ledgerQuantity; }
+    public void setLedgerQuantity(int ledgerQuantity) { this.ledgerQuantity = ledgerQuantity; }
+    
+    public int getDifference() { return difference; }
+    public void setDifference(int difference) { this.difference = difference; }
+}
@@ -0,0 +1,105 @@
+package com.inventory.dto;
+
+import com.inventory.model.StockTransaction;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Stock movement volume of one time bucket for one dimension key (a row of stock_movement_rollups)
+ */
+public class StockMovementBucket {
+    
+    private Granularity granularity;
+    private Dimension dimension;
+    private String key;             // Product/fashion product/user id, category or brand; "" for TOTAL
+    private LocalDateTime bucketStart;
+    private long inCount;
+    private long inQuantity;
+    private long outCount;
+    private long outQuantity;
+    
+    // Constructors
+    public StockMovementBucket() {}
+    
+    public StockMovementBucket(Granularity granularity, Dimension dimension, String key, LocalDateTime bucketStart) {
+        this.granularity = granularity;
+        this.dimension = dimension;
+        this.key = key;
+        this.bucketStart = bucketStart;
+    }
+    
+    /**
+     * Count one movement into the bucket
+     */
+    public void add(StockTransaction.TransactionType type, int quantity) {
+        if (type == StockTransaction.TransactionType.STOCK_IN) {
+            inCount++;
+            inQuantity += quantity;
+        } else {
+            outCount++;
+            outQuantity += quantity;
+        }
+    }
+    
+    /**
+     * Add another bucket's volume to this one
+     */
+    public void add(StockMovementBucket other) {
+        inCount += other.inCount;
+        inQuantity += other.inQuantity;
+        outCount += other.outCount;
+        outQuantity += other.outQuantity;
+    }
+    
+    // Getters and Setters
+    public Granularity getGranularity() { return granularity; }
+    public void setGranularity(Granularity granularity) { this.granularity = granularity; }
+    
+    public Dimension getDimension() { return dimension; }
+    public void setDimension(Dimension dimension) { this.dimension = dimension; }
+    
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+    
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public void setBucketStart(LocalDateTime bucketStart) { this.bucketStart = bucketStart; }
+    
+    public long getInCount() { return inCount; }
+    public void setInCount(long inCount) { this.inCount = inCount; }
+    
+    public long getInQuantity() { return inQuantity; }
+    public void setInQuantity(long inQuantity) { this.inQuantity = inQuantity; }
+    
+    public long getOutCount() { return outCount; }
+    public void setOutCount(long outCount) { this.outCount = outCount; }
+    
+    public long getOutQuantity() { return outQuantity; }
+    public void setOutQuantity(long outQuantity) { this.outQuantity = outQuantity; }
+    
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+        
+        private final ChronoUnit unit;
+        
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+        
+        public LocalDateTime bucketStart(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+        
+        public ChronoUnit getUnit() { return unit; }
+    }
+    
+    public enum Dimension {
+        TOTAL,            // Every movement
+        PRODUCT,          // Regular product id
+        FASHION_PRODUCT,  // Fashion product id
+        CATEGORY,         // Regular product category or fashion product category
+        BRAND,            // Fashion product brand
+        USER              // User id
+    }
+}
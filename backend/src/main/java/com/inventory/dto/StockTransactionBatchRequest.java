@@ -0,0 +1,35 @@
+package com.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StockTransactionBatchRequest {
+
+    public static final int MAX_LINES = 10000;
+
+    @NotEmpty(message = "At least one transaction line is required")
+    @Size(max = MAX_LINES, message = "A batch may contain at most " + MAX_LINES + " lines")
+    @Valid
+    private List<StockTransactionRequest> transactions = new ArrayList<>();
+
+    private String reason; // Default reason for lines that do not carry their own
+
+    // Constructors
+    public StockTransactionBatchRequest() {}
+
+    public StockTransactionBatchRequest(List<StockTransactionRequest> transactions, String reason) {
+        this.transactions = transactions;
+        this.reason = reason;
+    }
+
+    // Getters and Setters
+    public List<StockTransactionRequest> getTransactions() { return transactions; }
+    public void setTransactions(List<StockTransactionRequest> transactions) { this.transactions = transactions; }
+
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
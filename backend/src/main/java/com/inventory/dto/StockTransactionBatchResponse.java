@@ -0,0 +1,38 @@
+package com.inventory.dto;
+
+public class StockTransactionBatchResponse {
+
+    private int processedLines;
+    private int affectedVariants;
+    private int affectedProducts;
+    private long stockInQuantity;
+    private long stockOutQuantity;
+
+    // Constructors
+    public StockTransactionBatchResponse() {}
+
+    public StockTransactionBatchResponse(int processedLines, int affectedVariants, int affectedProducts,
+                                         long stockInQuantity, long stockOutQuantity) {
+        this.processedLines = processedLines;
+        this.affectedVariants = affectedVariants;
+        this.affectedProducts = affectedProducts;
+        this.stockInQuantity = stockInQuantity;
+        this.stockOutQuantity = stockOutQuantity;
+    }
+
+    // Getters and Setters
+    public int getProcessedLines() { return processedLines; }
+    public void setProcessedLines(int processedLines) { this.processedLines = processedLines; }
+
+    public int getAffectedVariants() { return affectedVariants; }
+    public void setAffectedVariants(int affectedVariants) { this.affectedVariants = affectedVariants; }
+
+    public int getAffectedProducts() { return affectedProducts; }
+    public void setAffectedProducts(int affectedProducts) { this.affectedProducts = affectedProducts; }
+
+    public long getStockInQuantity() { return stockInQuantity; }
+    public void setStockInQuantity(long stockInQuantity) { this.stockInQuantity = stockInQuantity; }
+
+    public long getStockOutQuantity() { return stockOutQuantity; }
+    public void setStockOutQuantity(long stockOutQuantity) { this.stockOutQuantity = stockOutQuantity; }
+}
@@ -0,0 +1,89 @@
+package com.inventory.dto;
+
+import com.inventory.model.ProductVariant;
+
+import java.time.LocalDate;
+
+/**
+ * Sales velocity, reorder point and days of cover of one variant as of a day
+ */
+public class VariantForecastResponse {
+    
+    private Long variantId;
+    private Long fashionProductId;
+    private String variantSku;
+    private ProductVariant.Size size;
+    private ProductVariant.Color color;
+    private int quantity;
+    private int minStockLevel;
+    private double dailyVelocity;       // Smoothed units sold per day
+    private double velocityStdDev;      // Day-to-day deviation of units sold
+    private long historyDays;           // Complete days behind the estimate
+    private Integer reorderPoint;       // Dynamic reorder point; null until there is enough history
+    private int reorderLevel;           // Level at or below which the variant is low on stock (reorder point or minStockLevel)
+    private Double daysOfCover;         // Days the stock lasts at the current velocity; null when it has not sold
+    private boolean lowStock;
+    private LocalDate asOf;
+    
+    // Constructors
+    public VariantForecastResponse() {}
+    
+    public VariantForecastResponse(ProductVariant variant, LocalDate asOf) {
+        this.variantId = variant.getId();
+        this.fashionProductId = variant.getProduct() != null ? variant.getProduct().getId() : null;
+        this.variantSku = variant.getVariantSku();
+        this.size = variant.getSize();
+        this.color = variant.getColor();
+        this.quantity = variant.getQuantity();
+        this.minStockLevel = variant.getMinStockLevel();
+        this.reorderLevel = variant.getMinStockLevel();
+        this.lowStock = variant.isLowStock();
+        this.asOf = asOf;
+    }
+    
+    // Getters and Setters
+    public Long getVariantId() { return variantId; }
+    public void setVariantId(Long variantId) { this.variantId = variantId; }
+    
+    public Long getFashionProductId() { return fashionProductId; }
+    public void setFashionProductId(Long fashionProductId) { this.fashionProductId = fashionProductId; }
+    
+    public String getVariantSku() { return variantSku; }
+    public void setVariantSku(String variantSku) { this.variantSku = variantSku; }
+    
+    public ProductVariant.Size getSize() { return size; }
+    public void setSize(ProductVariant.Size size) { this.size = size; }
+    
+    public ProductVariant.Color getColor() { return color; }
+    public void setColor(ProductVariant.Color color) { this.color = color; }
+    
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+    
+    public int getMinStockLevel() { return minStockLevel; }
+    public void setMinStockLevel(int minStockLevel) { this.minStockLevel = minStockLevel; }
+    
+    public double getDailyVelocity() { return dailyVelocity; }
+    public void setDailyVelocity(double dailyVelocity) { this.dailyVelocity = dailyVelocity; }
+    
+    public double getVelocityStdDev() { return velocityStdDev; }
+    public void setVelocityStdDev(double velocityStdDev) { this.velocityStdDev = velocityStdDev; }
+    
+    public long getHistoryDays() { return historyDays; }
+    public void setHistoryDays(long historyDays) { this.historyDays = historyDays; }
+    
+    public Integer getReorderPoint() { return reorderPoint; }
+    public void setReorderPoint(Integer reorderPoint) { this.reorderPoint = reorderPoint; }
+    
+    public int getReorderLevel() { return reorderLevel; }
+    public void setReorderLevel(int reorderLevel) { this.reorderLevel = reorderLevel; }
+    
+    public Double getDaysOfCover() { return daysOfCover; }
+    public void setDaysOfCover(Double daysOfCover) { this.daysOfCover = daysOfCover; }
+    
+    public boolean isLowStock() { return lowStock; }
+    public void setLowStock(boolean lowStock) { this.lowStock = lowStock; }
+    
+    public LocalDate getAsOf() { return asOf; }
+    public void setAsOf(LocalDate asOf) { this.asOf = asOf; }
+}
@@ -0,0 +1,39 @@
+package com.inventory.dto;
+
+import com.inventory.model.ProductVariant;
+
+public class VariantStockAt {
+    
+    private Long variantId;
+    private String variantSku;
+    private ProductVariant.Size size;
+    private ProductVariant.Color color;
+    private int quantity;
+    
+    // Constructors
+    public VariantStockAt() {}
+    
+    public VariantStockAt(Long variantId, String variantSku, ProductVariant.Size size, ProductVariant.Color color, int quantity) {
+        this.variantId = variantId;
+        this.variantSku = variantSku;
+        this.size = size;
+        this.color = color;
+        this.quantity = quantity;
+    }
+    
+    // Getters and Setters
+    public Long getVariantId() { return variantId; }
+    public void setVariantId(Long variantId) { this.variantId = variantId; }
+    
+    public String getVariantSku() { return variantSku; }
+    public void setVariantSku(String variantSku) { this.variantSku = variantSku; }
+    
+    public ProductVariant.Size getSize() { return size; }
+    public void setSize(ProductVariant.Size size) { this.size = size; }
+    
+    public ProductVariant.Color getColor() { return color; }
+    public void setColor(ProductVariant.Color color) { this.color = color; }
+    
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+}
@@ -0,0 +1,7 @@
+package com.inventory.event;
+
+/**
+ * Published when alerts are created, resolved or deleted.
+ */
+public class AlertChangedEvent {
+}
@@ -0,0 +1,15 @@
+package com.inventory.event;
+
+/**
+ * Published when alert evaluation tasks are queued; wakes the evaluator once the enqueuing transaction commits.
+ */
+public class AlertEvaluationQueuedEvent {
+    
+    private final int taskCount;
+    
+    public AlertEvaluationQueuedEvent(int taskCount) {
+        this.taskCount = taskCount;
+    }
+    
+    public int getTaskCount() { return taskCount; }
+}
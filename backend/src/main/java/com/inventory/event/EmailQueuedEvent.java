@@ -0,0 +1,7 @@
+package com.inventory.event;
+
+/**
+ * Published when an email is written to the outbox; wakes the dispatcher once the transaction commits.
+ */
+public class EmailQueuedEvent {
+}
@@ -0,0 +1,15 @@
+package com.inventory.event;
+
+/**
+ * Published when a fashion product is created, updated or deleted.
+ */
+public class FashionProductChangedEvent {
+    
+    private final Long productId;
+    
+    public FashionProductChangedEvent(Long productId) {
+        this.productId = productId;
+    }
+    
+    public Long getProductId() { return productId; }
+}
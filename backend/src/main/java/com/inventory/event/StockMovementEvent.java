@@ -0,0 +1,22 @@
+package com.inventory.event;
+
+import java.util.Set;
+
+/**
+ * Published when stock transactions are recorded; carries the fashion products whose variants changed
+ * (empty for regular-product movements).
+ */
+public class StockMovementEvent {
+    
+    private final Set<Long> fashionProductIds;
+    private final int transactionCount;
+    
+    public StockMovementEvent(Set<Long> fashionProductIds, int transactionCount) {
+        this.fashionProductIds = fashionProductIds;
+        this.transactionCount = transactionCount;
+    }
+    
+    public Set<Long> getFashionProductIds() { return fashionProductIds; }
+    
+    public int getTransactionCount() { return transactionCount; }
+}
@@ -0,0 +1,60 @@
+package com.inventory.export;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duration, row count and throughput (rows/s) of CSV exports, tagged with the export name
+ */
+@Component
+public class CsvExportMetrics {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * Wrap an export body so that it is measured when it runs
+     */
+    public CsvWriter.Body timed(String export, CsvWriter.Body body) {
+        return csv -> {
+            long start = System.nanoTime();
+            String outcome = "failure";
+            try {
+                body.writeTo(csv);
+                outcome = "success";
+            } finally {
+                record(export, outcome, csv.getRowCount(), System.nanoTime() - start);
+            }
+        };
+    }
+    
+    private void record(String export, String outcome, long rows, long durationNanos) {
+        Timer.builder("inventory.csv.export")
+                .description("Time to stream a CSV export to the client")
+                .tag("export", export)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("inventory.csv.export.rows")
+                .description("CSV rows written")
+                .tag("export", export)
+                .register(meterRegistry)
+                .increment(rows);
+        if (durationNanos > 0) {
+            DistributionSummary.builder("inventory.csv.export.throughput")
+                    .description("Rows per second of each CSV export")
+                    .baseUnit("rows/s")
+                    .minimumExpectedValue(100.0)
+                    .maximumExpectedValue(10_000_000.0)
+                    .tag("export", export)
+                    .register(meterRegistry)
+                    .record(rows * 1_000_000_000.0 / durationNanos);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.inventory.export;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Minimal streaming CSV writer: fields are escaped straight into the underlying writer,
+ * so rows never have to be assembled in memory.
+ */
+public class CsvWriter implements Closeable {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final Writer out;
+    private boolean startOfRow = true;
+    private long rowCount;
+    
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+    
+    /**
+     * Callback that writes the CSV body
+     */
+    @FunctionalInterface
+    public interface Body {
+        void writeTo(CsvWriter csv) throws Exception;
+    }
+    
+    /**
+     * Stream a CSV attachment to the response. Failures before anything reached the client become
+     * a 400 with errorPrefix + message; failures mid-stream abort the (already committed) response.
+     */
+    public static void writeAttachment(HttpServletResponse response, String fileName, boolean gzip,
+                                       String errorPrefix, Body body) throws IOException {
+        try {
+            CsvWriter csv = forResponse(response, fileName, gzip);
+            body.writeTo(csv);
+            csv.close();
+        } catch (Exception e) {
+            if (response.isCommitted()) {
+                throw new IOException(errorPrefix + e.getMessage(), e);
+            }
+            response.reset();
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            response.setContentType("text/plain");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(errorPrefix + e.getMessage());
+        }
+    }
+    
+    /**
+     * Prepare a CSV attachment response and return a writer on its (optionally gzip-encoded) body
+     */
+    public static CsvWriter forResponse(HttpServletResponse response, String fileName, boolean gzip) throws IOException {
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+        
+        OutputStream body = response.getOutputStream();
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+            body = new GZIPOutputStream(body, BUFFER_SIZE);
+        }
+        return new CsvWriter(new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), BUFFER_SIZE));
+    }
+    
+    /**
+     * Write a text field, quoting it when it contains a separator, quote or line break
+     */
+    public CsvWriter field(String value) throws IOException {
+        separator();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (!needsQuoting(value)) {
+            out.write(value);
+            return this;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+        return this;
+    }
+    
+    /**
+     * Write a non-text value (numbers, dates, enums) - null becomes an empty field
+     */
+    public CsvWriter field(Object value) throws IOException {
+        return field(value != null ? value.toString() : null);
+    }
+    
+    /**
+     * Write a complete row of text fields
+     */
+    public void row(String... values) throws IOException {
+        for (String value : values) {
+            field(value);
+        }
+        endRow();
+    }
+    
+    public void endRow() throws IOException {
+        out.write('\n');
+        startOfRow = true;
+        rowCount++;
+    }
+    
+    /**
+     * Rows written so far, header rows included
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    public void flush() throws IOException {
+        out.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+    
+    private void separator() throws IOException {
+        if (!startOfRow) {
+            out.write(',');
+        }
+        startOfRow = false;
+    }
+    
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,65 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable queue entry asking for the stock alerts of one variant or product to be re-evaluated.
+ * Rows are written in the same transaction as the stock movement and deleted only once the
+ * evaluation has committed, so every movement is evaluated at least once even across restarts.
+ */
+@Entity
+@Table(name = "alert_evaluation_queue", indexes = {
+    @Index(name = "idx_alert_evaluation_queue_target", columnList = "target_type, target_id")
+})
+public class AlertEvaluationTask {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false, length = 20)
+    private TargetType targetType;
+    
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+    
+    @Column(name = "fashion_product_id")
+    private Long fashionProductId; // Owning product of a VARIANT target, so one product's variants are evaluated together
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public AlertEvaluationTask() {}
+    
+    public AlertEvaluationTask(TargetType targetType, Long targetId, Long fashionProductId) {
+        this.targetType = targetType;
+        this.targetId = targetId;
+        this.fashionProductId = fashionProductId;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public TargetType getTargetType() { return targetType; }
+    public void setTargetType(TargetType targetType) { this.targetType = targetType; }
+    
+    public Long getTargetId() { return targetId; }
+    public void setTargetId(Long targetId) { this.targetId = targetId; }
+    
+    public Long getFashionProductId() { return fashionProductId; }
+    public void setFashionProductId(Long fashionProductId) { this.fashionProductId = fashionProductId; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public enum TargetType {
+        VARIANT,  // ProductVariant of a fashion product
+        PRODUCT   // Regular (legacy) product
+    }
+}
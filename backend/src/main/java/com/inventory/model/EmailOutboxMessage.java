@@ -0,0 +1,115 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Email waiting to be sent. Rows are written in the requesting transaction and delivered by
+ * EmailOutboxService in the background, so SMTP latency never holds an HTTP thread or DB connection.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class EmailOutboxMessage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private MessageType type;
+    
+    @Column(nullable = false)
+    private String recipient;
+    
+    private String userName;
+    
+    private String otp; // Only for OTP emails
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+    
+    @Column(nullable = false)
+    private int attempts = 0;
+    
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    private LocalDateTime expiresAt; // Not sent after this time (e.g. the OTP has expired)
+    
+    @Column(length = 500)
+    private String lastError;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime sentAt;
+    
+    // Constructors
+    public EmailOutboxMessage() {}
+    
+    public EmailOutboxMessage(MessageType type, String recipient, String userName, String otp, LocalDateTime expiresAt) {
+        this.type = type;
+        this.recipient = recipient;
+        this.userName = userName;
+        this.otp = otp;
+        this.expiresAt = expiresAt;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+        this.status = Status.PENDING;
+        this.attempts = 0;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public MessageType getType() { return type; }
+    public void setType(MessageType type) { this.type = type; }
+    
+    public String getRecipient() { return recipient; }
+    public void setRecipient(String recipient) { this.recipient = recipient; }
+    
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+    
+    public String getOtp() { return otp; }
+    public void setOtp(String otp) { this.otp = otp; }
+    
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getSentAt() { return sentAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+    
+    public boolean isExpired(LocalDateTime now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+    
+    public enum MessageType {
+        OTP,
+        PASSWORD_RESET_CONFIRMATION
+    }
+    
+    public enum Status {
+        PENDING, SENT, FAILED
+    }
+}
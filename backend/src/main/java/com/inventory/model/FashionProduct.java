@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -13,7 +15,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "fashion_products")
+@Table(name = "fashion_products", indexes = {
+    @Index(name = "idx_fashion_products_created_at_id", columnList = "created_at DESC, id DESC") // keyset pagination order
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "fashion-products")
 public class FashionProduct {
     
     @Id
@@ -50,8 +56,24 @@ public class FashionProduct {
     private String careInstructions;
     
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "fashion-product-variants")
     private List<ProductVariant> variants = new ArrayList<>();
     
+    // Stock aggregates over the variants. Never written through the entity (updatable = false):
+    // they are maintained with atomic updates in FashionProductRepository in the same
+    // transaction as the variant change, so reads do not need to load the variants.
+    @Column(nullable = false, updatable = false)
+    private int totalStock = 0;
+    
+    @Column(nullable = false, updatable = false)
+    private int totalMinStock = 0;
+    
+    @Column(nullable = false, updatable = false)
+    private int lowVariantCount = 0;
+    
+    @Column(nullable = false, updatable = false)
+    private int outOfStockVariantCount = 0;
+    
     @CreationTimestamp
     private LocalDateTime createdAt;
     
@@ -183,14 +205,15 @@ public class FashionProduct {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
-    // Helper methods
-    public int getTotalStock() {
-        return variants.stream().mapToInt(ProductVariant::getQuantity).sum();
-    }
+    public int getTotalStock() { return totalStock; }
     
-    public int getTotalMinStock() {
-        return variants.stream().mapToInt(ProductVariant::getMinStockLevel).sum();
-    }
+    public int getTotalMinStock() { return totalMinStock; }
+    
+    public int getLowVariantCount() { return lowVariantCount; }
+    
+    public int getOutOfStockVariantCount() { return outOfStockVariantCount; }
+    
+    // Helper methods
     
     public boolean isLowStock() {
         return getTotalStock() <= getTotalMinStock();
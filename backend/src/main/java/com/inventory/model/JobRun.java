@@ -0,0 +1,44 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Last run of a once-a-day background job. Instances read the row with a write lock, so only the
+ * first one to claim a day runs the job on it.
+ */
+@Entity
+@Table(name = "job_runs")
+public class JobRun {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(name = "last_run_on", nullable = false)
+    private LocalDate lastRunOn;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public JobRun() {}
+
+    public JobRun(String name) {
+        this.name = name;
+        this.lastRunOn = LocalDate.EPOCH;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public LocalDate getLastRunOn() { return lastRunOn; }
+    public void setLastRunOn(LocalDate lastRunOn) { this.lastRunOn = lastRunOn; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,43 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position of a background job over stock_transactions: the highest transaction id it has consumed.
+ * Jobs read the row with a write lock, so two instances never process the same range.
+ */
+@Entity
+@Table(name = "job_watermarks")
+public class JobWatermark {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public JobWatermark() {}
+
+    public JobWatermark(String name) {
+        this.name = name;
+        this.lastId = 0L;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Long getLastId() { return lastId; }
+    public void setLastId(Long lastId) { this.lastId = lastId; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -3,6 +3,8 @@ package com.inventory.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,6 +13,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "product_variants")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-variants")
 public class ProductVariant {
     
     @Id
@@ -42,6 +46,11 @@ public class ProductVariant {
     @Column(unique = true)
     private String variantSku;
     
+    // Optimistic lock guarding read-modify-write updates; stock movements use the atomic repository updates instead
+    @Version
+    @Column(nullable = false)
+    private Long version = 0L;
+    
     @CreationTimestamp
     private LocalDateTime createdAt;
     
@@ -160,6 +169,9 @@ public class ProductVariant {
     public String getVariantSku() { return variantSku; }
     public void setVariantSku(String variantSku) { this.variantSku = variantSku; }
     
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
@@ -0,0 +1,57 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running ledger quantity of one variant: its opening quantity plus every stock transaction folded
+ * so far (up to lastTransactionId). Later transactions are added when the ledger is read.
+ */
+@Entity
+@Table(name = "stock_ledger_heads")
+public class StockLedgerHead {
+
+    @Id
+    @Column(name = "product_variant_id")
+    private Long productVariantId;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private Long lastTransactionId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "events_since_snapshot", nullable = false)
+    private Integer eventsSinceSnapshot;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public StockLedgerHead() {}
+
+    public StockLedgerHead(Long productVariantId, Long lastTransactionId, Integer quantity) {
+        this.productVariantId = productVariantId;
+        this.lastTransactionId = lastTransactionId;
+        this.quantity = quantity;
+        this.eventsSinceSnapshot = 0;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getProductVariantId() { return productVariantId; }
+    public void setProductVariantId(Long productVariantId) { this.productVariantId = productVariantId; }
+
+    public Long getLastTransactionId() { return lastTransactionId; }
+    public void setLastTransactionId(Long lastTransactionId) { this.lastTransactionId = lastTransactionId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public Integer getEventsSinceSnapshot() { return eventsSinceSnapshot; }
+    public void setEventsSinceSnapshot(Integer eventsSinceSnapshot) { this.eventsSinceSnapshot = eventsSinceSnapshot; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,66 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable ledger checkpoint: the quantity of a variant once every stock transaction up to
+ * lastTransactionId is applied, as of snapshotAt (the time of that transaction, or of the variant's
+ * creation for its opening snapshot).
+ */
+@Entity
+@Table(name = "stock_snapshots", indexes = {
+    @Index(name = "idx_stock_snapshots_variant_snapshot_at", columnList = "product_variant_id, snapshot_at, last_transaction_id")
+})
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_variant_id", nullable = false)
+    private Long productVariantId;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private Long lastTransactionId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public StockSnapshot() {}
+
+    public StockSnapshot(Long productVariantId, Long lastTransactionId, Integer quantity, LocalDateTime snapshotAt) {
+        this.productVariantId = productVariantId;
+        this.lastTransactionId = lastTransactionId;
+        this.quantity = quantity;
+        this.snapshotAt = snapshotAt;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getProductVariantId() { return productVariantId; }
+    public void setProductVariantId(Long productVariantId) { this.productVariantId = productVariantId; }
+
+    public Long getLastTransactionId() { return lastTransactionId; }
+    public void setLastTransactionId(Long lastTransactionId) { this.lastTransactionId = lastTransactionId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public LocalDateTime getSnapshotAt() { return snapshotAt; }
+    public void setSnapshotAt(LocalDateTime snapshotAt) { this.snapshotAt = snapshotAt; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,105 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Sales velocity state of one variant. smoothedOut and smoothedOutSq are the exponentially smoothed
+ * daily STOCK_OUT quantity and its square over the days from firstDay to the day before openDay (not
+ * bias corrected); openDayOut is what has sold on openDay so far. The derived velocity and reorder
+ * point are as of computedOn. Only changed columns are written, so the nightly recompute (derived
+ * columns) never overwrites smoothing state folded in meanwhile.
+ */
+@Entity
+@Table(name = "variant_forecasts")
+@DynamicUpdate
+public class VariantForecast {
+
+    @Id
+    @Column(name = "product_variant_id")
+    private Long productVariantId;
+
+    @Column(name = "first_day", nullable = false)
+    private LocalDate firstDay;
+
+    @Column(name = "open_day", nullable = false)
+    private LocalDate openDay;
+
+    @Column(name = "open_day_out", nullable = false)
+    private Long openDayOut;
+
+    @Column(name = "smoothed_out", nullable = false)
+    private Double smoothedOut;
+
+    @Column(name = "smoothed_out_sq", nullable = false)
+    private Double smoothedOutSq;
+
+    @Column(name = "daily_velocity", nullable = false)
+    private Double dailyVelocity;
+
+    @Column(name = "velocity_std_dev", nullable = false)
+    private Double velocityStdDev;
+
+    // Null until the variant has app.forecast.min-history-days of history (minStockLevel applies meanwhile)
+    @Column(name = "reorder_point")
+    private Integer reorderPoint;
+
+    @Column(name = "computed_on", nullable = false)
+    private LocalDate computedOn;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public VariantForecast() {}
+
+    public VariantForecast(Long productVariantId, LocalDate firstDay, LocalDate openDay) {
+        this.productVariantId = productVariantId;
+        this.firstDay = firstDay;
+        this.openDay = openDay;
+        this.openDayOut = 0L;
+        this.smoothedOut = 0.0;
+        this.smoothedOutSq = 0.0;
+        this.dailyVelocity = 0.0;
+        this.velocityStdDev = 0.0;
+        this.computedOn = openDay;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getProductVariantId() { return productVariantId; }
+    public void setProductVariantId(Long productVariantId) { this.productVariantId = productVariantId; }
+
+    public LocalDate getFirstDay() { return firstDay; }
+    public void setFirstDay(LocalDate firstDay) { this.firstDay = firstDay; }
+
+    public LocalDate getOpenDay() { return openDay; }
+    public void setOpenDay(LocalDate openDay) { this.openDay = openDay; }
+
+    public Long getOpenDayOut() { return openDayOut; }
+    public void setOpenDayOut(Long openDayOut) { this.openDayOut = openDayOut; }
+
+    public Double getSmoothedOut() { return smoothedOut; }
+    public void setSmoothedOut(Double smoothedOut) { this.smoothedOut = smoothedOut; }
+
+    public Double getSmoothedOutSq() { return smoothedOutSq; }
+    public void setSmoothedOutSq(Double smoothedOutSq) { this.smoothedOutSq = smoothedOutSq; }
+
+    public Double getDailyVelocity() { return dailyVelocity; }
+    public void setDailyVelocity(Double dailyVelocity) { this.dailyVelocity = dailyVelocity; }
+
+    public Double getVelocityStdDev() { return velocityStdDev; }
+    public void setVelocityStdDev(Double velocityStdDev) { this.velocityStdDev = velocityStdDev; }
+
+    public Integer getReorderPoint() { return reorderPoint; }
+    public void setReorderPoint(Integer reorderPoint) { this.reorderPoint = reorderPoint; }
+
+    public LocalDate getComputedOn() { return computedOn; }
+    public void setComputedOn(LocalDate computedOn) { this.computedOn = computedOn; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,46 @@
+package com.inventory.repository;
+
+import com.inventory.model.AlertEvaluationTask;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC batch writer for alert evaluation tasks (IDENTITY ids keep Hibernate from batching the inserts).
+ */
+@Repository
+public class AlertEvaluationTaskBatchRepository {
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO alert_evaluation_queue (target_type, target_id, fashion_product_id, created_at) VALUES (?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * Insert all tasks using JDBC batching (joins the caller's transaction)
+     */
+    public void insertAll(List<AlertEvaluationTask> tasks) {
+        RepositoryMetrics.record(meterRegistry, AlertEvaluationTaskBatchRepository.class, "insertAll", () ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, tasks, BATCH_SIZE, (ps, task) -> {
+                    ps.setString(1, task.getTargetType().name());
+                    ps.setLong(2, task.getTargetId());
+                    if (task.getFashionProductId() != null) {
+                        ps.setLong(3, task.getFashionProductId());
+                    } else {
+                        ps.setNull(3, Types.BIGINT);
+                    }
+                    ps.setTimestamp(4, Timestamp.valueOf(task.getCreatedAt()));
+                }));
+    }
+}
@@ -0,0 +1,33 @@
+package com.inventory.repository;
+
+import com.inventory.model.AlertEvaluationTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AlertEvaluationTaskRepository extends JpaRepository<AlertEvaluationTask, Long> {
+    
+    // Pending work coalesced per target, oldest first:
+    // [targetType, targetId, fashionProductId, max task id, oldest createdAt, task count]
+    @Query("SELECT t.targetType, t.targetId, t.fashionProductId, MAX(t.id), MIN(t.createdAt), COUNT(t) " +
+           "FROM AlertEvaluationTask t GROUP BY t.targetType, t.targetId, t.fashionProductId ORDER BY MIN(t.id)")
+    List<Object[]> findPendingTargets(Pageable pageable);
+    
+    // Remove the tasks covered by an evaluation (tasks queued after it started stay pending)
+    @Modifying
+    @Query("DELETE FROM AlertEvaluationTask t WHERE t.targetType = :targetType AND t.targetId = :targetId AND t.id <= :maxId")
+    int deleteProcessed(@Param("targetType") AlertEvaluationTask.TargetType targetType,
+                        @Param("targetId") Long targetId,
+                        @Param("maxId") Long maxId);
+    
+    // Age of the oldest pending task (queue lag)
+    @Query("SELECT MIN(t.createdAt) FROM AlertEvaluationTask t")
+    LocalDateTime findOldestCreatedAt();
+}
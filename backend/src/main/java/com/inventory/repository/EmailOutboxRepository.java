@@ -0,0 +1,34 @@
+package com.inventory.repository;
+
+import com.inventory.model.EmailOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+    
+    // Messages in the given status whose next attempt is due, oldest first
+    @Query("SELECT m FROM EmailOutboxMessage m WHERE m.status = :status AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<EmailOutboxMessage> findDue(@Param("status") EmailOutboxMessage.Status status,
+                                     @Param("now") LocalDateTime now, Pageable pageable);
+    
+    // Number of messages in the given status (outbox backlog)
+    long countByStatus(EmailOutboxMessage.Status status);
+    
+    // Remove messages in the given status sent before the cutoff (retention of delivered mail)
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = :status AND m.sentAt < :before")
+    int deleteSentBefore(@Param("status") EmailOutboxMessage.Status status, @Param("before") LocalDateTime before);
+    
+    // Remove messages in the given status queued before the cutoff (retention of undeliverable mail)
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = :status AND m.createdAt < :before")
+    int deleteQueuedBefore(@Param("status") EmailOutboxMessage.Status status, @Param("before") LocalDateTime before);
+}
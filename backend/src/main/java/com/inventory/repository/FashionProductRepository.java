@@ -1,11 +1,17 @@
 package com.inventory.repository;
 
 import com.inventory.model.FashionProduct;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,14 +45,66 @@ public interface FashionProductRepository extends JpaRepository<FashionProduct,
     // Find all ordered by creation date (newest first)
     List<FashionProduct> findAllByOrderByCreatedAtDesc();
     
-    // Find products with low stock (using custom query)
-    @Query("SELECT DISTINCT p FROM FashionProduct p JOIN p.variants v WHERE v.quantity <= v.minStockLevel")
+    // Find all with their variants in a single query (newest first) - avoids one variants select per product
+    @Query("SELECT DISTINCT p FROM FashionProduct p LEFT JOIN FETCH p.variants ORDER BY p.createdAt DESC")
+    List<FashionProduct> findAllWithVariantsOrderByCreatedAtDesc();
+    
+    // Find the given products with their variants in a single query (search results and indexing)
+    @Query("SELECT DISTINCT p FROM FashionProduct p LEFT JOIN FETCH p.variants WHERE p.id IN :ids")
+    List<FashionProduct> findAllWithVariantsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Ids of the given products that still exist
+    @Query("SELECT p.id FROM FashionProduct p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    // Ids of all products
+    @Query("SELECT p.id FROM FashionProduct p")
+    List<Long> findAllIds();
+    
+    // Keyset page over the catalog (newest first) with optional filters; the cursor is the
+    // (createdAt, id) of the last row of the previous page, null for the first page
+    @Query("SELECT p FROM FashionProduct p WHERE " +
+           "(:category IS NULL OR p.category = :category) AND " +
+           "(:brand IS NULL OR LOWER(p.brand) = LOWER(:brand)) AND " +
+           "(:season IS NULL OR p.season = :season) AND " +
+           "(:targetGender IS NULL OR p.targetGender = :targetGender) AND " +
+           "(:minPrice IS NULL OR p.basePrice >= :minPrice) AND " +
+           "(:maxPrice IS NULL OR p.basePrice <= :maxPrice) AND " +
+           "(:lowStockOnly = false OR p.lowVariantCount > 0) AND " +
+           "(:outOfStockOnly = false OR p.totalStock = 0) AND " +
+           "(:cursorCreatedAt IS NULL OR p.createdAt < :cursorCreatedAt OR " +
+           "(p.createdAt = :cursorCreatedAt AND p.id < :cursorId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<FashionProduct> findPageWithFilters(@Param("category") FashionProduct.Category category,
+                                             @Param("brand") String brand,
+                                             @Param("season") FashionProduct.Season season,
+                                             @Param("targetGender") FashionProduct.Gender targetGender,
+                                             @Param("minPrice") BigDecimal minPrice,
+                                             @Param("maxPrice") BigDecimal maxPrice,
+                                             @Param("lowStockOnly") boolean lowStockOnly,
+                                             @Param("outOfStockOnly") boolean outOfStockOnly,
+                                             @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+    
+    // Find products with at least one low stock variant (uses the pre-aggregated counters)
+    @Query("SELECT p FROM FashionProduct p WHERE p.lowVariantCount > 0")
     List<FashionProduct> findLowStockProducts();
     
-    // Find products that are out of stock
-    @Query("SELECT DISTINCT p FROM FashionProduct p WHERE NOT EXISTS (SELECT v FROM ProductVariant v WHERE v.product = p AND v.quantity > 0)")
+    // Find products that are out of stock (no variant has any quantity left)
+    @Query("SELECT p FROM FashionProduct p WHERE p.totalStock = 0")
     List<FashionProduct> findOutOfStockProducts();
     
+    // Recompute the totals of every product (startup reconciliation)
+    @Modifying
+    @Transactional
+    @Query("UPDATE FashionProduct p SET " +
+           "p.totalStock = (SELECT COALESCE(SUM(v.quantity), 0) FROM ProductVariant v WHERE v.product.id = p.id), " +
+           "p.totalMinStock = (SELECT COALESCE(SUM(v.minStockLevel), 0) FROM ProductVariant v WHERE v.product.id = p.id), " +
+           "p.lowVariantCount = (SELECT COUNT(v) FROM ProductVariant v WHERE v.product.id = p.id AND v.quantity <= v.minStockLevel), " +
+           "p.outOfStockVariantCount = (SELECT COUNT(v) FROM ProductVariant v WHERE v.product.id = p.id AND v.quantity = 0)")
+    int recalculateAllStockTotals();
+    
     // Find products by name containing (search functionality)
     List<FashionProduct> findByNameContainingIgnoreCase(String name);
     
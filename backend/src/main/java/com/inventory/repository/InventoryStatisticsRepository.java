@@ -0,0 +1,72 @@
+package com.inventory.repository;
+
+import com.inventory.dto.InventoryStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Answers every dashboard counter with one aggregate query instead of loading entity lists to count them.
+ * Each derived table scans one table once; low/out-of-stock use the same conditions as the
+ * findLowStockProducts/findOutOfStockProducts repository queries, and alerts whose product no longer
+ * exists (orphaned) are not counted, as in AlertService.getAllActiveAlerts.
+ */
+@Repository
+public class InventoryStatisticsRepository {
+    
+    private static final String STATISTICS_SQL =
+            "SELECT p.total_products, p.total_stock, p.low_stock_products, p.out_of_stock_products, " +
+            "fp.fashion_products, fp.low_stock_fashion_products, fp.out_of_stock_fashion_products, " +
+            "v.total_variants, v.total_variant_stock, v.low_stock_variants, v.out_of_stock_variants, " +
+            "a.active_alerts, a.active_low_stock_alerts, a.active_out_of_stock_alerts " +
+            "FROM (SELECT COUNT(*) AS total_products, " +
+            "             COALESCE(SUM(quantity), 0) AS total_stock, " +
+            "             COALESCE(SUM(CASE WHEN quantity <= min_stock_level THEN 1 ELSE 0 END), 0) AS low_stock_products, " +
+            "             COALESCE(SUM(CASE WHEN quantity = 0 THEN 1 ELSE 0 END), 0) AS out_of_stock_products " +
+            "      FROM products) p " +
+            "CROSS JOIN (SELECT COUNT(*) AS fashion_products, " +
+            "             COALESCE(SUM(CASE WHEN low_variant_count > 0 THEN 1 ELSE 0 END), 0) AS low_stock_fashion_products, " +
+            "             COALESCE(SUM(CASE WHEN total_stock = 0 THEN 1 ELSE 0 END), 0) AS out_of_stock_fashion_products " +
+            "      FROM fashion_products) fp " +
+            "CROSS JOIN (SELECT COUNT(*) AS total_variants, " +
+            "             COALESCE(SUM(quantity), 0) AS total_variant_stock, " +
+            "             COALESCE(SUM(CASE WHEN quantity <= min_stock_level THEN 1 ELSE 0 END), 0) AS low_stock_variants, " +
+            "             COALESCE(SUM(CASE WHEN quantity = 0 THEN 1 ELSE 0 END), 0) AS out_of_stock_variants " +
+            "      FROM product_variants) v " +
+            "CROSS JOIN (SELECT COALESCE(SUM(CASE WHEN al.status = 'ACTIVE' THEN 1 ELSE 0 END), 0) AS active_alerts, " +
+            "             COALESCE(SUM(CASE WHEN al.status = 'ACTIVE' AND al.type = 'LOW_STOCK' THEN 1 ELSE 0 END), 0) AS active_low_stock_alerts, " +
+            "             COALESCE(SUM(CASE WHEN al.status = 'ACTIVE' AND al.type = 'OUT_OF_STOCK' THEN 1 ELSE 0 END), 0) AS active_out_of_stock_alerts " +
+            "      FROM alerts al JOIN products ap ON ap.id = al.product_id) a";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * Load all inventory counters in a single round trip
+     */
+    public InventoryStatistics getStatistics() {
+        return RepositoryMetrics.record(meterRegistry, InventoryStatisticsRepository.class, "getStatistics", () ->
+                jdbcTemplate.queryForObject(STATISTICS_SQL, (rs, rowNum) -> {
+                    InventoryStatistics statistics = new InventoryStatistics();
+                    statistics.setTotalProducts(rs.getLong("total_products"));
+                    statistics.setTotalStock(rs.getLong("total_stock"));
+                    statistics.setLowStockProducts(rs.getLong("low_stock_products"));
+                    statistics.setOutOfStockProducts(rs.getLong("out_of_stock_products"));
+                    statistics.setFashionProducts(rs.getLong("fashion_products"));
+                    statistics.setLowStockFashionProducts(rs.getLong("low_stock_fashion_products"));
+                    statistics.setOutOfStockFashionProducts(rs.getLong("out_of_stock_fashion_products"));
+                    statistics.setTotalVariants(rs.getLong("total_variants"));
+                    statistics.setTotalVariantStock(rs.getLong("total_variant_stock"));
+                    statistics.setLowStockVariants(rs.getLong("low_stock_variants"));
+                    statistics.setOutOfStockVariants(rs.getLong("out_of_stock_variants"));
+                    statistics.setActiveAlerts(rs.getLong("active_alerts"));
+                    statistics.setActiveLowStockAlerts(rs.getLong("active_low_stock_alerts"));
+                    statistics.setActiveOutOfStockAlerts(rs.getLong("active_out_of_stock_alerts"));
+                    return statistics;
+                }));
+    }
+}
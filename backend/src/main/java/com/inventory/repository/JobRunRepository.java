@@ -0,0 +1,20 @@
+package com.inventory.repository;
+
+import com.inventory.model.JobRun;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, String> {
+    
+    // Claim a daily job for the rest of the transaction (one runner per day across instances)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM JobRun r WHERE r.name = :name")
+    Optional<JobRun> findByNameForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,20 @@
+package com.inventory.repository;
+
+import com.inventory.model.JobWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+    
+    // Claim a job's position for the rest of the transaction (one runner at a time across instances)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM JobWatermark w WHERE w.name = :name")
+    Optional<JobWatermark> findByNameForUpdate(@Param("name") String name);
+}
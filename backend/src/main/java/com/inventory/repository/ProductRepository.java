@@ -1,12 +1,20 @@
 package com.inventory.repository;
 
 import com.inventory.model.Product;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -27,6 +35,11 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT COALESCE(SUM(p.quantity), 0) FROM Product p")
     long getTotalStockQuantity();
     
+    // Lock products for a bulk stock movement in ascending id order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id ASC")
+    List<Product> findAllByIdInOrderByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
     boolean existsByName(String name);
     
     boolean existsBySku(String sku);
@@ -35,4 +48,12 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     
     // Order products by creation date (newest first)
     List<Product> findAllByOrderByCreatedAtDesc();
+    
+    // Forward-only cursor over all products for CSV export (must be consumed inside a transaction)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.createdAt DESC")
+    Stream<Product> streamAllForExport();
 }
\ No newline at end of file
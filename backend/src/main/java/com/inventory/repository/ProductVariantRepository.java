@@ -2,17 +2,33 @@ package com.inventory.repository;
 
 import com.inventory.model.ProductVariant;
 import com.inventory.model.FashionProduct;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductVariantRepository extends JpaRepository<ProductVariant, Long> {
     
+    // Lock variants for a bulk stock movement, always in ascending id order so concurrent batches cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM ProductVariant v WHERE v.id IN :ids ORDER BY v.id ASC")
+    List<ProductVariant> findAllByIdInOrderByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
+    // Current quantity and creation time of variants [id, quantity, createdAt] (stock ledger opening balances)
+    @Query("SELECT v.id, v.quantity, v.createdAt FROM ProductVariant v WHERE v.id IN :ids")
+    List<Object[]> findQuantityAndCreatedAtByIds(@Param("ids") Collection<Long> ids);
+    
+    // Sales velocity: stock levels of variants by id [id, fashionProductId, quantity, minStockLevel, createdAt]
+    @Query("SELECT v.id, v.product.id, v.quantity, v.minStockLevel, v.createdAt FROM ProductVariant v WHERE v.id IN :ids")
+    List<Object[]> findStockLevelsByIds(@Param("ids") Collection<Long> ids);
+    
     // Find by variant SKU
     Optional<ProductVariant> findByVariantSku(String variantSku);
     
@@ -84,6 +100,14 @@ public interface ProductVariantRepository extends JpaRepository<ProductVariant,
     List<ProductVariant.Size> findAvailableSizesByProductAndColor(@Param("product") FashionProduct product, 
                                                                  @Param("color") ProductVariant.Color color);
     
+    // (product id, size, color) of every in-stock variant of the given products (availability matrix)
+    @Query("SELECT v.product.id, v.size, v.color FROM ProductVariant v WHERE v.product.id IN :productIds AND v.quantity > 0")
+    List<Object[]> findInStockSizeColorByProductIds(@Param("productIds") Collection<Long> productIds);
+    
+    // (product id, size, color) of every in-stock variant (availability matrix rebuild)
+    @Query("SELECT v.product.id, v.size, v.color FROM ProductVariant v WHERE v.quantity > 0")
+    List<Object[]> findAllInStockSizeColor();
+    
     // Count variants by product
     Long countByProduct(FashionProduct product);
     
@@ -0,0 +1,38 @@
+package com.inventory.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.Supplier;
+
+/**
+ * Times the hand-written JDBC repositories under the metric Spring Boot records for Spring Data
+ * repositories (spring.data.repository.invocations, same tags), so every repository query is in one histogram.
+ */
+final class RepositoryMetrics {
+    
+    private static final String INVOCATIONS = "spring.data.repository.invocations";
+    
+    private RepositoryMetrics() {}
+    
+    static <T> T record(MeterRegistry registry, Class<?> repository, String method, Supplier<T> invocation) {
+        Timer.Sample sample = Timer.start(registry);
+        String state = "SUCCESS";
+        String exception = "None";
+        try {
+            return invocation.get();
+        } catch (RuntimeException e) {
+            state = "ERROR";
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(INVOCATIONS)
+                    .description("Duration of repository invocations")
+                    .tag("repository", repository.getSimpleName())
+                    .tag("method", method)
+                    .tag("state", state)
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+    }
+}
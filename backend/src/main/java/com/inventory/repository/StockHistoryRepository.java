@@ -0,0 +1,62 @@
+package com.inventory.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Historical variant quantities from the stock ledger snapshots and range sums over stock_transactions.
+ * Every sum is bounded by (product_variant_id, id) or (product_variant_id, created_at) and answered from
+ * that index, so a lookup reads at most the movements between a snapshot and the requested time.
+ */
+@Repository
+public class StockHistoryRepository {
+
+    private static final String SIGNED_QUANTITY =
+            "CASE WHEN t.type = 'STOCK_IN' THEN t.quantity ELSE -t.quantity END";
+
+    // Same rule as StockLedgerService.getQuantityAt: the nearest snapshot at or before :at plus the movements
+    // after it up to :at; without one (not folded yet), the recorded quantity minus the movements after :at
+    private static final String QUANTITIES_AT_SQL =
+            "SELECT v.id, v.product_id, v.variant_sku, v.size, v.color, " +
+            "CASE WHEN s.quantity IS NOT NULL THEN s.quantity + COALESCE((SELECT SUM(" + SIGNED_QUANTITY + ") " +
+            "          FROM stock_transactions t WHERE t.product_variant_id = v.id " +
+            "          AND t.id > s.last_transaction_id AND t.created_at <= :at), 0) " +
+            "     WHEN v.created_at > :at THEN 0 " +
+            "     ELSE v.quantity - COALESCE((SELECT SUM(" + SIGNED_QUANTITY + ") " +
+            "          FROM stock_transactions t WHERE t.product_variant_id = v.id AND t.created_at > :at), 0) " +
+            "END AS quantity_at " +
+            "FROM product_variants v " +
+            "LEFT JOIN stock_snapshots s ON s.id = " +
+            "     (SELECT s2.id FROM stock_snapshots s2 WHERE s2.product_variant_id = v.id AND s2.snapshot_at <= :at " +
+            "      ORDER BY s2.snapshot_at DESC, s2.last_transaction_id DESC LIMIT 1) " +
+            "WHERE v.product_id IN (:productIds) " +
+            "ORDER BY v.product_id, v.id";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Quantity of every variant of the given fashion products at a point in time:
+     * [variantId, fashionProductId, variantSku, size, color, quantity]
+     */
+    public List<Object[]> findQuantitiesAt(Collection<Long> productIds, LocalDateTime at) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("productIds", productIds)
+                .addValue("at", Timestamp.valueOf(at));
+        return RepositoryMetrics.record(meterRegistry, StockHistoryRepository.class, "findQuantitiesAt", () ->
+                jdbcTemplate.query(QUANTITIES_AT_SQL, parameters, (rs, rowNum) -> new Object[] {
+                        rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getInt(6)
+                }));
+    }
+}
@@ -0,0 +1,25 @@
+package com.inventory.repository;
+
+import com.inventory.model.StockLedgerHead;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockLedgerHeadRepository extends JpaRepository<StockLedgerHead, Long> {
+    
+    // Variants whose recorded quantity differs from the ledger (head plus the transactions not folded yet):
+    // [variantId, fashionProductId, variantSku, recorded quantity, ledger quantity]
+    @Query("SELECT v.id, v.product.id, v.variantSku, v.quantity, h.quantity + " +
+           "COALESCE((SELECT SUM(CASE WHEN t.type = com.inventory.model.StockTransaction$TransactionType.STOCK_IN " +
+           "THEN t.quantity ELSE -t.quantity END) FROM StockTransaction t " +
+           "WHERE t.productVariant.id = h.productVariantId AND t.id > h.lastTransactionId), 0) " +
+           "FROM StockLedgerHead h, ProductVariant v WHERE v.id = h.productVariantId AND v.quantity <> h.quantity + " +
+           "COALESCE((SELECT SUM(CASE WHEN t.type = com.inventory.model.StockTransaction$TransactionType.STOCK_IN " +
+           "THEN t.quantity ELSE -t.quantity END) FROM StockTransaction t " +
+           "WHERE t.productVariant.id = h.productVariantId AND t.id > h.lastTransactionId), 0) " +
+           "ORDER BY v.id")
+    List<Object[]> findLedgerDrift();
+}
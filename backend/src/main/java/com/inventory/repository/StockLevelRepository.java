@@ -0,0 +1,129 @@
+package com.inventory.repository;
+
+import com.inventory.model.FashionProduct;
+import com.inventory.model.ProductVariant;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Atomic stock updates of variants and of the pre-aggregated fashion product totals (JDBC, joins the
+ * caller's transaction). A JPQL bulk UPDATE makes Hibernate drop the whole ProductVariant or FashionProduct
+ * second-level cache region, so every stock movement would empty the catalog cache; these statements
+ * evict only the row they touched, once right away and again after the transaction completes (a
+ * concurrent reader may have cached the old row in between).
+ */
+@Repository
+public class StockLevelRepository {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE product_variants SET quantity = quantity - ?, version = version + 1, updated_at = ? " +
+            "WHERE id = ? AND quantity >= ?";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE product_variants SET quantity = quantity + ?, version = version + 1, updated_at = ? WHERE id = ?";
+
+    private static final String SET_IF_UNCHANGED_SQL =
+            "UPDATE product_variants SET quantity = ?, version = version + 1, updated_at = ? WHERE id = ? AND quantity = ?";
+
+    private static final String ADJUST_TOTALS_SQL =
+            "UPDATE fashion_products SET total_stock = total_stock + ?, low_variant_count = low_variant_count + ?, " +
+            "out_of_stock_variant_count = out_of_stock_variant_count + ? WHERE id = ?";
+
+    private static final String RECALCULATE_TOTALS_SQL =
+            "UPDATE fashion_products SET " +
+            "total_stock = (SELECT COALESCE(SUM(v.quantity), 0) FROM product_variants v WHERE v.product_id = ?), " +
+            "total_min_stock = (SELECT COALESCE(SUM(v.min_stock_level), 0) FROM product_variants v WHERE v.product_id = ?), " +
+            "low_variant_count = (SELECT COUNT(*) FROM product_variants v WHERE v.product_id = ? AND v.quantity <= v.min_stock_level), " +
+            "out_of_stock_variant_count = (SELECT COUNT(*) FROM product_variants v WHERE v.product_id = ? AND v.quantity = 0) " +
+            "WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Take stock only when enough is available; the row count (0 or 1) decides whether the movement succeeded
+     */
+    public int decrementQuantityIfAvailable(Long variantId, int amount) {
+        return update("decrementQuantityIfAvailable", ProductVariant.class, variantId,
+                DECREMENT_SQL, amount, now(), variantId, amount);
+    }
+
+    /**
+     * Add stock without a read-modify-write cycle
+     */
+    public int incrementQuantity(Long variantId, int amount) {
+        return update("incrementQuantity", ProductVariant.class, variantId,
+                INCREMENT_SQL, amount, now(), variantId);
+    }
+
+    /**
+     * Overwrite the quantity only if no movement changed it since it was read (ledger repair)
+     */
+    public int setQuantityIfUnchanged(Long variantId, int expected, int quantity) {
+        return update("setQuantityIfUnchanged", ProductVariant.class, variantId,
+                SET_IF_UNCHANGED_SQL, quantity, now(), variantId, expected);
+    }
+
+    /**
+     * Apply one or more variants' stock changes to a product's pre-aggregated totals
+     */
+    public int adjustStockTotals(Long fashionProductId, int stockDelta, int lowDelta, int outOfStockDelta) {
+        return update("adjustStockTotals", FashionProduct.class, fashionProductId,
+                ADJUST_TOTALS_SQL, stockDelta, lowDelta, outOfStockDelta, fashionProductId);
+    }
+
+    /**
+     * Recompute a product's totals from its variants (after variants are created or replaced). The persistence
+     * context is cleared afterwards so a product loaded earlier in the transaction is read again.
+     */
+    public int recalculateStockTotals(Long fashionProductId) {
+        int updated = update("recalculateStockTotals", FashionProduct.class, fashionProductId, RECALCULATE_TOTALS_SQL,
+                fashionProductId, fashionProductId, fashionProductId, fashionProductId, fashionProductId);
+        entityManager.clear();
+        return updated;
+    }
+
+    private int update(String method, Class<?> entity, Long id, String sql, Object... args) {
+        // Pending entity changes reach the database before the statement reads or overwrites the row
+        entityManager.flush();
+        int updated = RepositoryMetrics.record(meterRegistry, StockLevelRepository.class, method,
+                () -> jdbcTemplate.update(sql, args));
+        if (updated > 0) {
+            evict(entity, id);
+        }
+        return updated;
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+
+    private void evict(Class<?> entity, Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(entity, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(entity, id);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.inventory.repository;
+
+import com.inventory.dto.StockMovementBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC access to stock_movement_rollups. Folded volume is added to existing buckets with one batched
+ * upsert, so a chunk of transactions costs one round trip however many buckets it touches.
+ */
+@Repository
+public class StockMovementRollupRepository {
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    private static final String UPSERT_SQL =
+            "INSERT INTO stock_movement_rollups (granularity, dimension, dimension_key, bucket_start, " +
+            "in_count, in_quantity, out_count, out_quantity) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE in_count = in_count + VALUES(in_count), in_quantity = in_quantity + VALUES(in_quantity), " +
+            "out_count = out_count + VALUES(out_count), out_quantity = out_quantity + VALUES(out_quantity)";
+    
+    private static final String SERIES_SQL =
+            "SELECT granularity, dimension, dimension_key, bucket_start, in_count, in_quantity, out_count, out_quantity " +
+            "FROM stock_movement_rollups WHERE granularity = ? AND dimension = ? AND bucket_start >= ? AND bucket_start < ? ";
+    
+    private static final String COUNT_SQL =
+            "SELECT COALESCE(SUM(in_count + out_count), 0) FROM stock_movement_rollups " +
+            "WHERE granularity = ? AND dimension = ? AND dimension_key = ? AND bucket_start >= ?";
+    
+    private static final RowMapper<StockMovementBucket> BUCKET_MAPPER = (rs, rowNum) -> {
+        StockMovementBucket bucket = new StockMovementBucket(
+                StockMovementBucket.Granularity.valueOf(rs.getString(1)),
+                StockMovementBucket.Dimension.valueOf(rs.getString(2)),
+                rs.getString(3),
+                rs.getTimestamp(4).toLocalDateTime());
+        bucket.setInCount(rs.getLong(5));
+        bucket.setInQuantity(rs.getLong(6));
+        bucket.setOutCount(rs.getLong(7));
+        bucket.setOutQuantity(rs.getLong(8));
+        return bucket;
+    };
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    /**
+     * Add the volume of each bucket to its row, creating missing rows (joins the caller's transaction)
+     */
+    public void addAll(Collection<StockMovementBucket> buckets) {
+        RepositoryMetrics.record(meterRegistry, StockMovementRollupRepository.class, "addAll", () ->
+                jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(buckets), BATCH_SIZE, (ps, bucket) -> {
+                    ps.setString(1, bucket.getGranularity().name());
+                    ps.setString(2, bucket.getDimension().name());
+                    ps.setString(3, bucket.getKey());
+                    ps.setTimestamp(4, Timestamp.valueOf(bucket.getBucketStart()));
+                    ps.setLong(5, bucket.getInCount());
+                    ps.setLong(6, bucket.getInQuantity());
+                    ps.setLong(7, bucket.getOutCount());
+                    ps.setLong(8, bucket.getOutQuantity());
+                }));
+    }
+    
+    /**
+     * Buckets of one granularity and dimension starting in [from, to), for one key or (key null) every key,
+     * ordered by bucket start and key
+     */
+    public List<StockMovementBucket> findSeries(StockMovementBucket.Granularity granularity,
+                                                StockMovementBucket.Dimension dimension, String key,
+                                                LocalDateTime from, LocalDateTime to) {
+        return RepositoryMetrics.record(meterRegistry, StockMovementRollupRepository.class, "findSeries", () -> {
+            if (key != null) {
+                return jdbcTemplate.query(SERIES_SQL + "AND dimension_key = ? ORDER BY bucket_start", BUCKET_MAPPER,
+                        granularity.name(), dimension.name(), Timestamp.valueOf(from), Timestamp.valueOf(to), key);
+            }
+            return jdbcTemplate.query(SERIES_SQL + "ORDER BY bucket_start, dimension_key", BUCKET_MAPPER,
+                    granularity.name(), dimension.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+        });
+    }
+    
+    /**
+     * Number of movements in the buckets of one key starting at or after a time
+     */
+    public long sumCount(StockMovementBucket.Granularity granularity, StockMovementBucket.Dimension dimension,
+                         String key, LocalDateTime from) {
+        return RepositoryMetrics.record(meterRegistry, StockMovementRollupRepository.class, "sumCount", () -> {
+            Long count = jdbcTemplate.queryForObject(COUNT_SQL, Long.class,
+                    granularity.name(), dimension.name(), key, Timestamp.valueOf(from));
+            return count != null ? count : 0L;
+        });
+    }
+}
@@ -0,0 +1,22 @@
+package com.inventory.repository;
+
+import com.inventory.model.StockSnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+    
+    // Nearest snapshot of a variant at or before a point in time (use a page size of 1)
+    @Query("SELECT s FROM StockSnapshot s WHERE s.productVariantId = :variantId AND s.snapshotAt <= :at " +
+           "ORDER BY s.snapshotAt DESC, s.lastTransactionId DESC")
+    List<StockSnapshot> findLatestAtOrBefore(@Param("variantId") Long variantId,
+                                             @Param("at") LocalDateTime at,
+                                             Pageable pageable);
+}
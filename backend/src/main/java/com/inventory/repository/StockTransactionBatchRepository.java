@@ -0,0 +1,63 @@
+package com.inventory.repository;
+
+import com.inventory.model.StockTransaction;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC batch writer for stock transactions.
+ * StockTransaction uses IDENTITY ids, which stops Hibernate from batching inserts,
+ * so bulk movements are written here in a single batched statement instead.
+ */
+@Repository
+public class StockTransactionBatchRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stock_transactions (product_id, fashion_product_id, product_variant_id, entity_name, " +
+            "entity_type, variant_details, type, quantity, reason, user_id, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Insert all transactions using JDBC batching (joins the caller's transaction)
+     */
+    public void insertAll(List<StockTransaction> transactions) {
+        RepositoryMetrics.record(meterRegistry, StockTransactionBatchRepository.class, "insertAll", () ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, transactions, BATCH_SIZE, (ps, transaction) -> {
+                    setNullableId(ps, 1, transaction.getProduct() != null ? transaction.getProduct().getId() : null);
+                    setNullableId(ps, 2, transaction.getFashionProduct() != null ? transaction.getFashionProduct().getId() : null);
+                    setNullableId(ps, 3, transaction.getProductVariant() != null ? transaction.getProductVariant().getId() : null);
+                    ps.setString(4, transaction.getEntityName());
+                    ps.setString(5, transaction.getEntityType() != null ? transaction.getEntityType().name() : null);
+                    ps.setString(6, transaction.getVariantDetails());
+                    ps.setString(7, transaction.getType().name());
+                    ps.setInt(8, transaction.getQuantity());
+                    ps.setString(9, transaction.getReason());
+                    ps.setLong(10, transaction.getUser().getId());
+                    ps.setTimestamp(11, Timestamp.valueOf(transaction.getCreatedAt()));
+                }));
+    }
+
+    private void setNullableId(PreparedStatement ps, int index, Long id) throws SQLException {
+        if (id != null) {
+            ps.setLong(index, id);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+}
@@ -1,27 +1,42 @@
 package com.inventory.repository;
 
 import com.inventory.model.StockTransaction;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface StockTransactionRepository extends JpaRepository<StockTransaction, Long> {
     
+    // The queries by product, fashion product, variant and user compare the foreign key column itself: the derived
+    // findBy<Association>Id form joins the referenced table, which keeps the (fk, created_at) indexes out of the plan
+    
     // Regular product queries (legacy)
-    List<StockTransaction> findByProductIdOrderByCreatedAtDesc(Long productId);
+    @Query("SELECT t FROM StockTransaction t WHERE t.product.id = :productId ORDER BY t.createdAt DESC")
+    List<StockTransaction> findByProductIdOrderByCreatedAtDesc(@Param("productId") Long productId);
     
     // Fashion product queries (new)
-    List<StockTransaction> findByFashionProductIdOrderByCreatedAtDesc(Long fashionProductId);
+    @Query("SELECT t FROM StockTransaction t WHERE t.fashionProduct.id = :fashionProductId ORDER BY t.createdAt DESC")
+    List<StockTransaction> findByFashionProductIdOrderByCreatedAtDesc(@Param("fashionProductId") Long fashionProductId);
     
-    List<StockTransaction> findByProductVariantIdOrderByCreatedAtDesc(Long variantId);
+    @Query("SELECT t FROM StockTransaction t WHERE t.productVariant.id = :variantId ORDER BY t.createdAt DESC")
+    List<StockTransaction> findByProductVariantIdOrderByCreatedAtDesc(@Param("variantId") Long variantId);
     
     // User queries
-    List<StockTransaction> findByUserIdOrderByCreatedAtDesc(Long userId);
+    @Query("SELECT t FROM StockTransaction t WHERE t.user.id = :userId ORDER BY t.createdAt DESC")
+    List<StockTransaction> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
     
     // Type queries
     List<StockTransaction> findByTypeOrderByCreatedAtDesc(StockTransaction.TransactionType type);
@@ -29,6 +44,18 @@ public interface StockTransactionRepository extends JpaRepository<StockTransacti
     // Date range queries
     List<StockTransaction> findByCreatedAtBetweenOrderByCreatedAtDesc(LocalDateTime startDate, LocalDateTime endDate);
     
+    // Forward-only cursor for CSV export, optionally limited to a date range (must be consumed inside a transaction)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM StockTransaction t JOIN FETCH t.user WHERE " +
+           "(:startDate IS NULL OR t.createdAt >= :startDate) AND " +
+           "(:endDate IS NULL OR t.createdAt <= :endDate) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    Stream<StockTransaction> streamForExport(@Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate);
+    
     // Recent transactions
     List<StockTransaction> findTop100ByOrderByCreatedAtDesc();
     
@@ -37,6 +64,63 @@ public interface StockTransactionRepository extends JpaRepository<StockTransacti
     // Count queries
     long countByCreatedAtAfter(LocalDateTime date);
     
+    // Transaction stream: positions in id order after a watermark [id, createdAt]
+    @Query("SELECT t.id, t.createdAt FROM StockTransaction t WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findStreamPositionsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Transaction stream: re-check of skipped ids (a locking read waits for an insert still in flight)
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT t.id FROM StockTransaction t WHERE t.id > :afterId AND t.id < :beforeId")
+    List<Long> findIdsBetweenForShare(@Param("afterId") Long afterId, @Param("beforeId") Long beforeId);
+    
+    // Stock ledger and sales velocity: a stream chunk in id order [id, variantId, type, quantity, createdAt]
+    @Query("SELECT t.id, t.productVariant.id, t.type, t.quantity, t.createdAt FROM StockTransaction t " +
+           "WHERE t.id > :afterId AND t.id <= :throughId ORDER BY t.id")
+    List<Object[]> findLedgerEventsBetween(@Param("afterId") Long afterId, @Param("throughId") Long throughId);
+    
+    // Transaction stream: transactions not consumed yet (lag)
+    long countByIdGreaterThan(Long id);
+    
+    // Stock ledger: net quantity change of a variant after a transaction id, up to a point in time
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.type = com.inventory.model.StockTransaction$TransactionType.STOCK_IN " +
+           "THEN t.quantity ELSE -t.quantity END), 0) FROM StockTransaction t " +
+           "WHERE t.productVariant.id = :variantId AND t.id > :afterId AND t.createdAt <= :until")
+    long sumQuantityDeltaAfter(@Param("variantId") Long variantId,
+                               @Param("afterId") Long afterId,
+                               @Param("until") LocalDateTime until);
+    
+    // Stock ledger: net quantity change of a variant after a point in time
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.type = com.inventory.model.StockTransaction$TransactionType.STOCK_IN " +
+           "THEN t.quantity ELSE -t.quantity END), 0) FROM StockTransaction t " +
+           "WHERE t.productVariant.id = :variantId AND t.createdAt > :since")
+    long sumQuantityDeltaSince(@Param("variantId") Long variantId, @Param("since") LocalDateTime since);
+    
+    // Stock ledger: net quantity change per variant after a transaction id [variantId, delta]
+    @Query("SELECT t.productVariant.id, SUM(CASE WHEN t.type = com.inventory.model.StockTransaction$TransactionType.STOCK_IN " +
+           "THEN t.quantity ELSE -t.quantity END) FROM StockTransaction t " +
+           "WHERE t.productVariant.id IN :variantIds AND t.id > :afterId GROUP BY t.productVariant.id")
+    List<Object[]> sumQuantityDeltaByVariantAfter(@Param("variantIds") Collection<Long> variantIds,
+                                                  @Param("afterId") Long afterId);
+    
+    // Movement rollups: the stream in id order after a watermark with the dimensions of each row
+    // [id, createdAt, type, quantity, productId, productCategory, fashionProductId, fashionCategory, brand, userId]
+    @Query("SELECT t.id, t.createdAt, t.type, t.quantity, p.id, p.category, f.id, f.category, f.brand, t.user.id " +
+           "FROM StockTransaction t LEFT JOIN t.product p LEFT JOIN t.fashionProduct f " +
+           "WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findRollupEventsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Movement rollups: a stream chunk with the dimensions of each row (same columns as findRollupEventsAfter)
+    @Query("SELECT t.id, t.createdAt, t.type, t.quantity, p.id, p.category, f.id, f.category, f.brand, t.user.id " +
+           "FROM StockTransaction t LEFT JOIN t.product p LEFT JOIN t.fashionProduct f " +
+           "WHERE t.id > :afterId AND t.id <= :throughId ORDER BY t.id")
+    List<Object[]> findRollupEventsBetween(@Param("afterId") Long afterId, @Param("throughId") Long throughId);
+    
+    // Movement rollups: transactions not folded yet, created at or after a time
+    long countByIdGreaterThanAndCreatedAtGreaterThanEqual(Long id, LocalDateTime since);
+    
+    // Movement rollups: transactions created in [from, to), folded or not (the part of an hour before its bucket)
+    long countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(LocalDateTime from, LocalDateTime to);
+    
     // Custom queries for unified transaction view
     @Query("SELECT t FROM StockTransaction t WHERE " +
            "(t.product IS NOT NULL AND t.product.id = :productId) OR " +
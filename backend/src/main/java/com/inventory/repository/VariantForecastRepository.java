@@ -0,0 +1,40 @@
+package com.inventory.repository;
+
+import com.inventory.model.VariantForecast;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface VariantForecastRepository extends JpaRepository<VariantForecast, Long> {
+    
+    // Lowest and highest variant id with a forecast [min, max] (nulls when there are none)
+    @Query("SELECT MIN(f.productVariantId), MAX(f.productVariantId) FROM VariantForecast f")
+    List<Object[]> findIdRange();
+    
+    // Nightly recompute: the forecasts of one variant id range with the variants' stock levels
+    // [forecast, fashionProductId, quantity, minStockLevel]
+    @Query("SELECT f, v.product.id, v.quantity, v.minStockLevel FROM VariantForecast f, ProductVariant v " +
+           "WHERE v.id = f.productVariantId AND f.productVariantId BETWEEN :fromId AND :toId")
+    List<Object[]> findPartitionWithStockLevels(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    // Variants of a fashion product with their forecast (null when the variant has not sold) [variant, forecast]
+    @Query("SELECT v, f FROM ProductVariant v LEFT JOIN VariantForecast f ON f.productVariantId = v.id " +
+           "WHERE v.product.id = :productId ORDER BY v.id")
+    List<Object[]> findVariantsWithForecastByProductId(@Param("productId") Long productId);
+    
+    // One variant with its forecast [variant, forecast]
+    @Query("SELECT v, f FROM ProductVariant v LEFT JOIN VariantForecast f ON f.productVariantId = v.id " +
+           "WHERE v.id = :variantId")
+    List<Object[]> findVariantWithForecast(@Param("variantId") Long variantId);
+    
+    // Variants at or below their dynamic reorder point, fewest days of cover first [variant, forecast]
+    @Query("SELECT v, f FROM VariantForecast f, ProductVariant v " +
+           "WHERE v.id = f.productVariantId AND f.reorderPoint IS NOT NULL AND v.quantity <= f.reorderPoint " +
+           "ORDER BY CASE WHEN f.dailyVelocity > 0 THEN v.quantity / f.dailyVelocity ELSE 0 END, v.id")
+    List<Object[]> findAtOrBelowReorderPoint(Pageable pageable);
+}
@@ -1,5 +1,9 @@
 package com.inventory.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,20 +33,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
     
+    @Autowired
+    private TokenDenyList tokenDenyList;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer validTokenTimer;
+    private Timer invalidTokenTimer;
+    
+    @PostConstruct
+    public void registerMetrics() {
+        validTokenTimer = validationTimer("valid");
+        invalidTokenTimer = validationTimer("invalid");
+    }
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                    FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            // Verified once per token; later requests reuse the cached claims
+            Claims claims = null;
+            if (jwt != null) {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                claims = jwtUtils.getValidatedClaims(jwt);
+                sample.stop(claims != null ? validTokenTimer : invalidTokenTimer);
+            }
+            if (claims != null && !tokenDenyList.isDenied(claims)) {
+                // Stateless mode trusts the user claims in the token; otherwise (or for older tokens) load the user
+                UserDetails userDetails = jwtUtils.isStateless() ? jwtUtils.getUserPrincipalFromClaims(claims) : null;
+                if (userDetails == null) {
+                    userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                }
                 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                // Rejected users are refused even while their token is still valid
+                if (userDetails.isEnabled()) {
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage());
@@ -51,6 +83,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private Timer validationTimer(String outcome) {
+        return Timer.builder("inventory.jwt.validation")
+                .description("Bearer token validation (cached tokens skip the signature check)")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+    
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
@@ -1,58 +1,129 @@
 package com.inventory.security;
 
+import com.inventory.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
     
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_STATUS = "status";
+    
     @Value("${app.jwt.secret}")
     private String jwtSecret;
     
     @Value("${app.jwt.expiration}")
     private int jwtExpirationMs;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${app.jwt.stateless:false}")
+    private boolean stateless;
+    
+    @Value("${app.jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+    
+    // Derived once from the secret; the parser is immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    
+    // Tokens whose signature has already been verified, kept until their own expiry
+    private final ConcurrentHashMap<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
     
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        String role = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith(ROLE_PREFIX) ? authority.substring(ROLE_PREFIX.length()) : authority)
+                .findFirst()
+                .orElse(null);
         
+        // User claims let the stateless mode authenticate requests without a database lookup
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userPrincipal.getUsername())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_ROLE, role)
+                .claim(CLAIM_STATUS, userPrincipal.getStatus() != null ? userPrincipal.getStatus().name() : null)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
+    public boolean isStateless() {
+        return stateless;
+    }
+    
+    /**
+     * Build the principal from the token's own claims; returns null for tokens issued without them
+     */
+    public UserPrincipal getUserPrincipalFromClaims(Claims claims) {
+        String role = claims.get(CLAIM_ROLE, String.class);
+        String status = claims.get(CLAIM_STATUS, String.class);
+        if (role == null || status == null) {
+            return null;
+        }
+        return new UserPrincipal(
+            claims.get(CLAIM_USER_ID, Long.class),
+            claims.getSubject(),
+            claims.get(CLAIM_EMAIL, String.class),
+            null,
+            Collections.singletonList(new SimpleGrantedAuthority(ROLE_PREFIX + role)),
+            User.UserStatus.valueOf(status)
+        );
+    }
+    
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        VerifiedToken verified = getCachedToken(token);
+        if (verified != null) {
+            return verified.claims.getSubject();
+        }
+        return verify(token).getSubject();
     }
     
     public boolean validateJwtToken(String authToken) {
+        return getValidatedClaims(authToken) != null;
+    }
+    
+    /**
+     * Verify a token once and reuse its claims until it expires; returns null if the token is invalid
+     */
+    public Claims getValidatedClaims(String authToken) {
+        VerifiedToken verified = getCachedToken(authToken);
+        if (verified != null) {
+            return verified.claims;
+        }
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return verify(authToken);
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -62,6 +133,55 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+    
+    private Claims verify(String token) {
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        // Tokens without an expiry are not cached, so every use is verified again
+        if (claims.getExpiration() != null) {
+            if (verifiedTokens.size() >= cacheMaxSize) {
+                evictTokens();
+            }
+            verifiedTokens.put(token, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
+    
+    private VerifiedToken getCachedToken(String token) {
+        if (token == null) {
+            return null;
+        }
+        VerifiedToken verified = verifiedTokens.get(token);
+        if (verified != null && verified.expiresAtMillis <= System.currentTimeMillis()) {
+            // Expired: drop it so the parser reports the expiry as before
+            verifiedTokens.remove(token, verified);
+            return null;
+        }
+        return verified;
+    }
+    
+    /**
+     * Keep the cache bounded: drop expired tokens first, then arbitrary entries down to three quarters of the limit
+     */
+    private void evictTokens() {
+        long now = System.currentTimeMillis();
+        verifiedTokens.values().removeIf(verified -> verified.expiresAtMillis <= now);
+        int target = cacheMaxSize * 3 / 4;
+        Iterator<String> iterator = verifiedTokens.keySet().iterator();
+        while (verifiedTokens.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+    
+    private static final class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAtMillis;
+        
+        private VerifiedToken(Claims claims, long expiresAtMillis) {
+            this.claims = claims;
+            this.expiresAtMillis = expiresAtMillis;
+        }
     }
-}
\ No newline at end of file
+}
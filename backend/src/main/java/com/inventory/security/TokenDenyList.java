@@ -0,0 +1,67 @@
+package com.inventory.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory revocation list for issued JWTs. Single tokens are denied by their id (logout); all tokens
+ * of a user issued up to now are denied when the user's status changes, since the server does not
+ * track which token ids a user holds. Entries are only kept as long as the tokens they cover can be valid.
+ */
+@Component
+public class TokenDenyList {
+    
+    @Value("${app.jwt.expiration}")
+    private long jwtExpirationMs;
+    
+    // Token id (jti) -> token expiry
+    private final ConcurrentHashMap<String, Long> deniedTokens = new ConcurrentHashMap<>();
+    
+    // Username -> tokens issued at or before this time are denied
+    private final ConcurrentHashMap<String, Long> deniedUsers = new ConcurrentHashMap<>();
+    
+    /**
+     * Deny a single token until it expires
+     */
+    public void denyToken(Claims claims) {
+        if (claims.getId() != null) {
+            long expiresAt = claims.getExpiration() != null
+                    ? claims.getExpiration().getTime() : System.currentTimeMillis() + jwtExpirationMs;
+            deniedTokens.put(claims.getId(), expiresAt);
+        }
+    }
+    
+    /**
+     * Deny every token issued to the user so far
+     */
+    public void denyUserTokens(String username) {
+        if (username != null) {
+            deniedUsers.put(username, System.currentTimeMillis());
+        }
+    }
+    
+    public boolean isDenied(Claims claims) {
+        if (claims.getId() != null && deniedTokens.containsKey(claims.getId())) {
+            return true;
+        }
+        Long deniedBefore = deniedUsers.get(claims.getSubject());
+        if (deniedBefore == null) {
+            return false;
+        }
+        // iat has second precision, so a token issued in the same second as the change is denied as well
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() <= deniedBefore;
+    }
+    
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        deniedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        deniedUsers.values().removeIf(deniedAt -> deniedAt + jwtExpirationMs <= now);
+    }
+}
@@ -1,32 +1,52 @@
 package com.inventory.service;
 
+import com.inventory.dto.InventoryStatistics;
 import com.inventory.dto.UserResponse;
+import com.inventory.export.CsvWriter;
 import com.inventory.model.User;
 import com.inventory.model.Product;
 import com.inventory.model.FashionProduct;
 import com.inventory.model.ProductVariant;
-import com.inventory.repository.AlertRepository;
 import com.inventory.repository.ProductRepository;
 import com.inventory.repository.FashionProductRepository;
-import com.inventory.repository.StockTransactionRepository;
+import com.inventory.repository.InventoryStatisticsRepository;
 import com.inventory.repository.UserRepository;
+import com.inventory.security.TokenDenyList;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class AdminService {
     
+    private static final Logger logger = LoggerFactory.getLogger(AdminService.class);
+    
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private CachingUserDetailsService cachingUserDetailsService;
+    
+    @Autowired
+    private TokenDenyList tokenDenyList;
+    
     @Autowired
     private ProductRepository productRepository;
     
@@ -34,10 +54,13 @@ public class AdminService {
     private FashionProductRepository fashionProductRepository;
     
     @Autowired
-    private StockTransactionRepository stockTransactionRepository;
+    private StockMovementRollupService stockMovementRollupService;
     
     @Autowired
-    private AlertRepository alertRepository;
+    private InventoryStatisticsRepository inventoryStatisticsRepository;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
     
     public List<UserResponse> getPendingManagers() {
         return userRepository.findByStatusAndRole(User.UserStatus.PENDING, User.Role.MANAGER)
@@ -70,6 +93,8 @@ public class AdminService {
         
         user.setStatus(status);
         User updatedUser = userRepository.save(user);
+        cachingUserDetailsService.evict(user.getUsername());
+        tokenDenyList.denyUserTokens(user.getUsername());
         
         return new UserResponse(updatedUser);
     }
@@ -83,6 +108,8 @@ public class AdminService {
         }
         
         userRepository.delete(user);
+        cachingUserDetailsService.evict(user.getUsername());
+        tokenDenyList.denyUserTokens(user.getUsername());
     }
     
     public Map<String, Object> getDashboardStats() {
@@ -95,158 +122,175 @@ public class AdminService {
         }
         stats.put("users", userStats);
         
-        // Product statistics
+        // Product, fashion product and alert counters (one aggregate query)
+        InventoryStatistics inventory = inventoryStatisticsRepository.getStatistics();
+        
         Map<String, Object> productStats = new HashMap<>();
-        productStats.put("totalProducts", productRepository.getTotalProductCount());
-        productStats.put("totalStock", productRepository.getTotalStockQuantity());
-        productStats.put("lowStockCount", productRepository.findLowStockProducts().size());
-        productStats.put("outOfStockCount", productRepository.findOutOfStockProducts().size());
+        productStats.put("totalProducts", inventory.getTotalProducts());
+        productStats.put("totalStock", inventory.getTotalStock());
+        productStats.put("lowStockCount", inventory.getLowStockProducts());
+        productStats.put("outOfStockCount", inventory.getOutOfStockProducts());
         stats.put("products", productStats);
         
+        Map<String, Object> fashionProductStats = new HashMap<>();
+        fashionProductStats.put("totalProducts", inventory.getFashionProducts());
+        fashionProductStats.put("totalVariants", inventory.getTotalVariants());
+        fashionProductStats.put("totalStock", inventory.getTotalVariantStock());
+        fashionProductStats.put("lowStockCount", inventory.getLowStockFashionProducts());
+        fashionProductStats.put("outOfStockCount", inventory.getOutOfStockFashionProducts());
+        fashionProductStats.put("lowStockVariants", inventory.getLowStockVariants());
+        fashionProductStats.put("outOfStockVariants", inventory.getOutOfStockVariants());
+        stats.put("fashionProducts", fashionProductStats);
+        
         // Transaction statistics
         LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
-        long recentTransactions = stockTransactionRepository.countByCreatedAtAfter(weekAgo);
+        long recentTransactions = stockMovementRollupService.countSince(weekAgo);
         stats.put("recentTransactions", recentTransactions);
         
         // Alert statistics
-        long activeAlerts = alertRepository.findByStatusOrderByCreatedAtDesc(com.inventory.model.Alert.AlertStatus.ACTIVE).size();
-        stats.put("activeAlerts", activeAlerts);
+        stats.put("activeAlerts", inventory.getActiveAlerts());
         
         return stats;
     }
     
     /**
-     * Export all products to CSV format
+     * Stream all products as CSV (newest first) through a forward-only cursor
      */
-    public String exportProductsToCSV() {
-        System.out.println("📦 Exporting all products to CSV...");
-        
-        List<Product> products = productRepository.findAllByOrderByCreatedAtDesc();
-        
-        StringBuilder csv = new StringBuilder();
+    @Transactional(readOnly = true)
+    public long exportProductsToCSV(CsvWriter csv) throws IOException {
+        logger.info("📦 Exporting all products to CSV...");
         
         // CSV Headers
-        csv.append("Product Name,SKU,Description,Category,Current Stock,Min Stock Level,Price,Stock Status,Created Date,Last Updated\n");
-        
-        // CSV Data
-        for (Product product : products) {
-            csv.append(formatCSVField(product.getName())).append(",");
-            csv.append(formatCSVField(product.getSku())).append(",");
-            csv.append(formatCSVField(product.getDescription() != null ? product.getDescription() : "")).append(",");
-            csv.append(formatCSVField(product.getCategory())).append(",");
-            csv.append(product.getQuantity()).append(",");
-            csv.append(product.getMinStockLevel()).append(",");
-            csv.append(product.getPrice()).append(",");
-            
-            // Stock Status
-            String stockStatus;
-            if (product.getQuantity() == 0) {
-                stockStatus = "Out of Stock";
-            } else if (product.isLowStock()) {
-                stockStatus = "Low Stock";
-            } else {
-                stockStatus = "In Stock";
+        csv.row("Product Name", "SKU", "Description", "Category", "Current Stock", "Min Stock Level", "Price", "Stock Status", "Created Date", "Last Updated");
+        
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamAllForExport()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                
+                // Stock Status
+                String stockStatus;
+                if (product.getQuantity() == 0) {
+                    stockStatus = "Out of Stock";
+                } else if (product.isLowStock()) {
+                    stockStatus = "Low Stock";
+                } else {
+                    stockStatus = "In Stock";
+                }
+                
+                csv.field(product.getName())
+                   .field(product.getSku())
+                   .field(product.getDescription())
+                   .field(product.getCategory())
+                   .field(product.getQuantity())
+                   .field(product.getMinStockLevel())
+                   .field(product.getPrice())
+                   .field(stockStatus)
+                   .field(product.getCreatedAt())
+                   .field(product.getUpdatedAt());
+                csv.endRow();
+                
+                if (++count % EXPORT_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                }
             }
-            csv.append(formatCSVField(stockStatus)).append(",");
-            
-            csv.append(formatCSVField(product.getCreatedAt().toString())).append(",");
-            csv.append(formatCSVField(product.getUpdatedAt() != null ? product.getUpdatedAt().toString() : "")).append("\n");
         }
+        csv.flush();
         
-        System.out.println("✅ Products CSV export completed with " + products.size() + " products");
-        return csv.toString();
+        logger.info("✅ Products CSV export completed with {} products", count);
+        return count;
     }
     
     /**
-     * Export all fashion products to CSV format
+     * Stream all fashion products with their variants as CSV (newest first).
+     * Products are read in keyset chunks of EXPORT_CHUNK_SIZE; the variants of a chunk are loaded
+     * in batches (hibernate.default_batch_fetch_size) and the chunk is detached once written.
      */
-    public String exportFashionProductsToCSV() {
-        System.out.println("👗 Exporting all fashion products to CSV...");
-        
-        List<FashionProduct> products = fashionProductRepository.findAllByOrderByCreatedAtDesc();
-        
-        StringBuilder csv = new StringBuilder();
+    @Transactional(readOnly = true)
+    public long exportFashionProductsToCSV(CsvWriter csv) throws IOException {
+        logger.info("👗 Exporting all fashion products to CSV...");
         
         // CSV Headers
-        csv.append("Product Name,SKU,Description,Category,Brand,Season,Target Gender,Material,Base Price,Total Stock,Total Min Stock,Stock Status,Variants Count,Created Date,Last Updated\n");
-        
-        // CSV Data
-        for (FashionProduct product : products) {
-            csv.append(formatCSVField(product.getName())).append(",");
-            csv.append(formatCSVField(product.getSku())).append(",");
-            csv.append(formatCSVField(product.getDescription() != null ? product.getDescription() : "")).append(",");
-            csv.append(formatCSVField(product.getCategory() != null ? product.getCategory().getDisplayName() : "")).append(",");
-            csv.append(formatCSVField(product.getBrand())).append(",");
-            csv.append(formatCSVField(product.getSeason() != null ? product.getSeason().getDisplayName() : "")).append(",");
-            csv.append(formatCSVField(product.getTargetGender() != null ? product.getTargetGender().getDisplayName() : "")).append(",");
-            csv.append(formatCSVField(product.getMaterial() != null ? product.getMaterial() : "")).append(",");
-            csv.append(product.getBasePrice()).append(",");
-            csv.append(product.getTotalStock()).append(",");
-            csv.append(product.getTotalMinStock()).append(",");
+        csv.row("Product Name", "SKU", "Description", "Category", "Brand", "Season", "Target Gender", "Material", "Base Price", "Total Stock", "Total Min Stock", "Stock Status", "Variants Count", "Created Date", "Last Updated");
+        
+        long count = 0;
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        while (true) {
+            List<FashionProduct> chunk = fashionProductRepository.findPageWithFilters(
+                    null, null, null, null, null, null, false, false,
+                    cursorCreatedAt, cursorId, PageRequest.of(0, EXPORT_CHUNK_SIZE));
+            if (chunk.isEmpty()) {
+                break;
+            }
             
-            // Stock Status
-            String stockStatus;
-            if (product.isOutOfStock()) {
-                stockStatus = "Out of Stock";
-            } else if (product.isLowStock()) {
-                stockStatus = "Low Stock";
-            } else {
-                stockStatus = "In Stock";
+            for (FashionProduct product : chunk) {
+                writeFashionProductRows(csv, product);
             }
-            csv.append(formatCSVField(stockStatus)).append(",");
+            count += chunk.size();
             
-            csv.append(product.getVariants().size()).append(",");
-            csv.append(formatCSVField(product.getCreatedAt().toString())).append(",");
-            csv.append(formatCSVField(product.getUpdatedAt() != null ? product.getUpdatedAt().toString() : "")).append("\n");
+            FashionProduct last = chunk.get(chunk.size() - 1);
+            cursorCreatedAt = last.getCreatedAt();
+            cursorId = last.getId();
+            csv.flush();
+            entityManager.clear();
             
-            // Add variant details as separate rows
-            for (ProductVariant variant : product.getVariants()) {
-                csv.append("  - Variant,");
-                csv.append(formatCSVField(variant.getSku())).append(",");
-                csv.append(formatCSVField("Size: " + variant.getSize().getDisplayName() + ", Color: " + variant.getColor().getDisplayName())).append(",");
-                csv.append("Variant,");
-                csv.append(formatCSVField(product.getBrand())).append(",");
-                csv.append(formatCSVField(product.getSeason() != null ? product.getSeason().getDisplayName() : "")).append(",");
-                csv.append(formatCSVField(product.getTargetGender() != null ? product.getTargetGender().getDisplayName() : "")).append(",");
-                csv.append(formatCSVField(product.getMaterial() != null ? product.getMaterial() : "")).append(",");
-                csv.append(variant.getFinalPrice()).append(",");
-                csv.append(variant.getQuantity()).append(",");
-                csv.append(variant.getMinStockLevel()).append(",");
-                
-                // Variant Stock Status
-                String variantStockStatus;
-                if (variant.isOutOfStock()) {
-                    variantStockStatus = "Out of Stock";
-                } else if (variant.isLowStock()) {
-                    variantStockStatus = "Low Stock";
-                } else {
-                    variantStockStatus = "In Stock";
-                }
-                csv.append(formatCSVField(variantStockStatus)).append(",");
-                
-                csv.append("1,"); // Variants count for variant row
-                csv.append(formatCSVField(variant.getCreatedAt().toString())).append(",");
-                csv.append(formatCSVField(variant.getUpdatedAt() != null ? variant.getUpdatedAt().toString() : "")).append("\n");
+            if (chunk.size() < EXPORT_CHUNK_SIZE) {
+                break;
             }
         }
         
-        System.out.println("✅ Fashion products CSV export completed with " + products.size() + " products");
-        return csv.toString();
+        logger.info("✅ Fashion products CSV export completed with {} products", count);
+        return count;
     }
     
-    /**
-     * Format CSV field to handle commas and quotes
-     */
-    private String formatCSVField(String field) {
-        if (field == null) {
-            return "";
-        }
+    private void writeFashionProductRows(CsvWriter csv, FashionProduct product) throws IOException {
+        String season = product.getSeason() != null ? product.getSeason().getDisplayName() : "";
+        String targetGender = product.getTargetGender() != null ? product.getTargetGender().getDisplayName() : "";
         
-        // Escape quotes and wrap in quotes if contains comma or quote
-        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
-            return "\"" + field.replace("\"", "\"\"") + "\"";
-        }
+        csv.field(product.getName())
+           .field(product.getSku())
+           .field(product.getDescription())
+           .field(product.getCategory() != null ? product.getCategory().getDisplayName() : "")
+           .field(product.getBrand())
+           .field(season)
+           .field(targetGender)
+           .field(product.getMaterial())
+           .field(product.getBasePrice())
+           .field(product.getTotalStock())
+           .field(product.getTotalMinStock())
+           .field(stockStatus(product.isOutOfStock(), product.isLowStock()))
+           .field(product.getVariants().size())
+           .field(product.getCreatedAt())
+           .field(product.getUpdatedAt());
+        csv.endRow();
         
-        return field;
+        // Add variant details as separate rows
+        for (ProductVariant variant : product.getVariants()) {
+            csv.field("  - Variant")
+               .field(variant.getSku())
+               .field("Size: " + variant.getSize().getDisplayName() + ", Color: " + variant.getColor().getDisplayName())
+               .field("Variant")
+               .field(product.getBrand())
+               .field(season)
+               .field(targetGender)
+               .field(product.getMaterial())
+               .field(variant.getFinalPrice())
+               .field(variant.getQuantity())
+               .field(variant.getMinStockLevel())
+               .field(stockStatus(variant.isOutOfStock(), variant.isLowStock()))
+               .field(1) // Variants count for variant row
+               .field(variant.getCreatedAt())
+               .field(variant.getUpdatedAt());
+            csv.endRow();
+        }
+    }
+    
+    private String stockStatus(boolean outOfStock, boolean lowStock) {
+        if (outOfStock) {
+            return "Out of Stock";
+        }
+        return lowStock ? "Low Stock" : "In Stock";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,312 @@
+package com.inventory.service;
+
+import com.inventory.dto.AlertQueueMetrics;
+import com.inventory.event.AlertEvaluationQueuedEvent;
+import com.inventory.model.AlertEvaluationTask;
+import com.inventory.repository.AlertEvaluationTaskBatchRepository;
+import com.inventory.repository.AlertEvaluationTaskRepository;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.ProductVariantRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evaluates stock alerts outside the stock write path.
+ * Stock movements only queue an alert_evaluation_queue row inside their own transaction; once that
+ * transaction commits a drain is scheduled after app.alerts.evaluation.window-ms, so a burst of
+ * movements on the same variant results in a single evaluation. The drain runs on the bounded
+ * alertEvaluationExecutor (the scheduler thread only starts it); targets are evaluated each in its own
+ * transaction, and their rows are deleted only after the evaluation commits (at-least-once; a periodic
+ * poll picks up rows left behind by failures or restarts).
+ */
+@Service
+public class AlertEvaluationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertEvaluationService.class);
+
+    @Autowired
+    private AlertEvaluationTaskRepository alertEvaluationTaskRepository;
+
+    @Autowired
+    private AlertEvaluationTaskBatchRepository alertEvaluationTaskBatchRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private AlertService alertService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    @Qualifier("alertEvaluationExecutor")
+    private ThreadPoolTaskExecutor alertEvaluationExecutor;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.alerts.evaluation.window-ms:500}")
+    private long windowMs;
+
+    @Value("${app.alerts.evaluation.batch-size:200}")
+    private int batchSize;
+
+    private final AtomicBoolean wakeupScheduled = new AtomicBoolean();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+    private final AtomicLong processedTasks = new AtomicLong();
+    private final AtomicLong evaluations = new AtomicLong();
+    private final AtomicLong failedEvaluations = new AtomicLong();
+    private volatile LocalDateTime lastDrainAt;
+    private volatile long lastDrainDurationMs;
+    private Timer drainTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        // Queue gauges are read from the database on each scrape; the worker pool is reported as executor.* by Actuator
+        Gauge.builder("inventory.alerts.queue.pending", alertEvaluationTaskRepository, repository -> repository.count())
+                .description("Alert evaluation tasks waiting in alert_evaluation_queue")
+                .register(meterRegistry);
+        Gauge.builder("inventory.alerts.queue.oldest.age", alertEvaluationTaskRepository, AlertEvaluationService::oldestTaskAgeSeconds)
+                .description("Age of the oldest pending alert evaluation task")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        FunctionCounter.builder("inventory.alerts.queue.processed", processedTasks, AtomicLong::get)
+                .description("Queued tasks covered by completed evaluations")
+                .register(meterRegistry);
+        drainTimer = Timer.builder("inventory.alerts.drain")
+                .description("Time to drain the alert evaluation queue")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue an alert evaluation for a fashion product variant (joins the caller's transaction)
+     */
+    public void enqueueVariant(Long variantId, Long fashionProductId) {
+        alertEvaluationTaskRepository.save(
+                new AlertEvaluationTask(AlertEvaluationTask.TargetType.VARIANT, variantId, fashionProductId));
+        eventPublisher.publishEvent(new AlertEvaluationQueuedEvent(1));
+    }
+
+    /**
+     * Queue an alert evaluation for a regular product (joins the caller's transaction)
+     */
+    public void enqueueProduct(Long productId) {
+        alertEvaluationTaskRepository.save(
+                new AlertEvaluationTask(AlertEvaluationTask.TargetType.PRODUCT, productId, null));
+        eventPublisher.publishEvent(new AlertEvaluationQueuedEvent(1));
+    }
+
+    /**
+     * Queue many alert evaluations with one JDBC batch (joins the caller's transaction)
+     */
+    public void enqueueAll(List<AlertEvaluationTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        alertEvaluationTaskBatchRepository.insertAll(tasks);
+        eventPublisher.publishEvent(new AlertEvaluationQueuedEvent(tasks.size()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAlertEvaluationQueued(AlertEvaluationQueuedEvent event) {
+        // One pending wakeup per window: later commits in the window are coalesced into the same drain
+        if (wakeupScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::drain, Instant.now().plusMillis(windowMs));
+        }
+    }
+
+    /**
+     * Safety net for work queued before a restart or left behind by a failed evaluation
+     */
+    @Scheduled(initialDelayString = "${app.alerts.evaluation.poll-interval-ms:10000}",
+               fixedDelayString = "${app.alerts.evaluation.poll-interval-ms:10000}")
+    public void poll() {
+        drain();
+    }
+
+    /**
+     * Evaluate all pending targets on the worker pool. Only one drain runs at a time; a drain requested
+     * meanwhile is covered by the running one, which fetches again if it was requested after its last
+     * fetch.
+     */
+    public void drain() {
+        wakeupScheduled.set(false);
+        drainRequested.set(true);
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<Void> run;
+        try {
+            run = drainPages();
+        } catch (RuntimeException e) {
+            run = CompletableFuture.failedFuture(e);
+        }
+        run.whenComplete((ignored, e) -> {
+            if (e != null) {
+                logger.error("❌ Alert evaluation drain failed: {}", e.getMessage());
+            }
+            lastDrainAt = LocalDateTime.now();
+            lastDrainDurationMs = System.currentTimeMillis() - start;
+            sample.stop(drainTimer);
+            draining.set(false);
+            // A request that arrived after the last fetch returned early while we were still draining
+            if (e == null && drainRequested.get()) {
+                drain();
+            }
+        });
+    }
+
+    /**
+     * Fetch a page of pending targets on a worker, evaluate it, and continue with the next page until the
+     * queue is empty
+     */
+    private CompletableFuture<Void> drainPages() {
+        return CompletableFuture.supplyAsync(() -> {
+            drainRequested.set(false);
+            return alertEvaluationTaskRepository.findPendingTargets(PageRequest.of(0, batchSize));
+        }, alertEvaluationExecutor).thenCompose(targets -> {
+            if (targets.isEmpty()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return evaluateTargets(targets).thenCompose(succeeded ->
+                    // Failed targets stay queued for the next poll instead of being retried in a tight loop
+                    succeeded == 0 || targets.size() < batchSize ? CompletableFuture.completedFuture(null) : drainPages());
+        });
+    }
+
+    /**
+     * Evaluate one page of coalesced targets on the worker pool. Targets raising alerts on the same
+     * product run sequentially in one worker (alerts are keyed by product); different products run in
+     * parallel, one task per worker taking product groups in turn. Completes with the number of targets
+     * evaluated successfully.
+     */
+    private CompletableFuture<Integer> evaluateTargets(List<Object[]> targets) {
+        Map<Long, List<Object[]>> targetsByProduct = new LinkedHashMap<>();
+        for (Object[] target : targets) {
+            AlertEvaluationTask.TargetType targetType = (AlertEvaluationTask.TargetType) target[0];
+            Long productId = targetType == AlertEvaluationTask.TargetType.VARIANT && target[2] != null
+                    ? (Long) target[2] : (Long) target[1];
+            targetsByProduct.computeIfAbsent(productId, id -> new ArrayList<>()).add(target);
+        }
+
+        Queue<List<Object[]>> groups = new ConcurrentLinkedQueue<>(targetsByProduct.values());
+        AtomicInteger succeeded = new AtomicInteger();
+        int tasks = Math.min(alertEvaluationExecutor.getMaxPoolSize(), groups.size());
+        List<CompletableFuture<Void>> futures = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (List<Object[]> group = groups.poll(); group != null; group = groups.poll()) {
+                    for (Object[] target : group) {
+                        if (evaluateTarget(target)) {
+                            succeeded.incrementAndGet();
+                        }
+                    }
+                }
+            }, alertEvaluationExecutor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> succeeded.get());
+    }
+
+    /**
+     * Evaluate a single target and remove the tasks it covers in the same transaction
+     */
+    private boolean evaluateTarget(Object[] target) {
+        AlertEvaluationTask.TargetType targetType = (AlertEvaluationTask.TargetType) target[0];
+        Long targetId = (Long) target[1];
+        Long maxTaskId = (Long) target[3];
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            int removed = transactionTemplate.execute(status -> {
+                if (targetType == AlertEvaluationTask.TargetType.VARIANT) {
+                    // A deleted variant has nothing left to alert on; its tasks are simply dropped
+                    productVariantRepository.findById(targetId).ifPresent(alertService::checkAndCreateVariantAlerts);
+                } else {
+                    productRepository.findById(targetId).ifPresent(alertService::checkAndCreateAlerts);
+                }
+                return alertEvaluationTaskRepository.deleteProcessed(targetType, targetId, maxTaskId);
+            });
+            processedTasks.addAndGet(removed);
+            evaluations.incrementAndGet();
+            return true;
+        } catch (Exception e) {
+            failedEvaluations.incrementAndGet();
+            outcome = "failure";
+            logger.error("❌ Alert evaluation failed for {} {}: {}", targetType, targetId, e.getMessage());
+            return false;
+        } finally {
+            sample.stop(Timer.builder("inventory.alerts.evaluation")
+                    .description("Evaluation of one queued alert target, including its transaction")
+                    .tag("target", targetType.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Get queue depth, lag and throughput of the alert evaluation pipeline
+     */
+    public AlertQueueMetrics getMetrics() {
+        AlertQueueMetrics metrics = new AlertQueueMetrics();
+        metrics.setPendingTasks(alertEvaluationTaskRepository.count());
+        LocalDateTime oldest = alertEvaluationTaskRepository.findOldestCreatedAt();
+        metrics.setOldestTaskAgeMs(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()) : 0);
+        metrics.setProcessedTasks(processedTasks.get());
+        metrics.setEvaluations(evaluations.get());
+        metrics.setFailedEvaluations(failedEvaluations.get());
+        metrics.setLastDrainAt(lastDrainAt);
+        metrics.setLastDrainDurationMs(lastDrainDurationMs);
+        metrics.setActiveWorkers(alertEvaluationExecutor.getActiveCount());
+        metrics.setWorkerQueueSize(alertEvaluationExecutor.getQueueSize());
+        return metrics;
+    }
+
+    private static double oldestTaskAgeSeconds(AlertEvaluationTaskRepository repository) {
+        LocalDateTime oldest = repository.findOldestCreatedAt();
+        return oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()) / 1000.0 : 0;
+    }
+}
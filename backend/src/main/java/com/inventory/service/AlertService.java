@@ -1,10 +1,16 @@
 package com.inventory.service;
 
 import com.inventory.dto.AlertResponse;
+import com.inventory.event.AlertChangedEvent;
 import com.inventory.model.Alert;
 import com.inventory.model.Product;
+import com.inventory.model.VariantForecast;
 import com.inventory.repository.AlertRepository;
+import com.inventory.repository.VariantForecastRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,9 +20,17 @@ import java.util.stream.Collectors;
 @Service
 public class AlertService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AlertService.class);
+
     @Autowired
     private AlertRepository alertRepository;
 
+    @Autowired
+    private VariantForecastRepository variantForecastRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Get ALL alerts (active + resolved) - newest first
     public List<AlertResponse> getAllAlerts() {
         return alertRepository.findAll().stream()
@@ -40,8 +54,9 @@ public class AlertService {
                 .collect(Collectors.toList());
         
         if (!orphanedAlerts.isEmpty()) {
-            System.out.println("🧹 Cleaning up " + orphanedAlerts.size() + " orphaned alerts");
+            logger.info("🧹 Cleaning up {} orphaned alerts", orphanedAlerts.size());
             alertRepository.deleteAll(orphanedAlerts);
+            eventPublisher.publishEvent(new AlertChangedEvent());
         }
         
         return validAlerts.stream()
@@ -77,6 +92,7 @@ public class AlertService {
         
         alert.setStatus(Alert.AlertStatus.RESOLVED);
         Alert savedAlert = alertRepository.save(alert);
+        eventPublisher.publishEvent(new AlertChangedEvent());
         return new AlertResponse(savedAlert);
     }
 
@@ -86,6 +102,7 @@ public class AlertService {
             throw new RuntimeException("Alert not found with ID: " + alertId);
         }
         alertRepository.deleteById(alertId);
+        eventPublisher.publishEvent(new AlertChangedEvent());
     }
 
     // Mark all active alerts as resolved
@@ -96,6 +113,7 @@ public class AlertService {
             alert.setStatus(Alert.AlertStatus.RESOLVED);
             alertRepository.save(alert);
         }
+        eventPublisher.publishEvent(new AlertChangedEvent());
     }
     
     // ✅ NEW: Clean up orphaned alerts (alerts with deleted products)
@@ -106,8 +124,9 @@ public class AlertService {
                 .collect(Collectors.toList());
         
         if (!orphanedAlerts.isEmpty()) {
-            System.out.println("🧹 Cleaning up " + orphanedAlerts.size() + " orphaned alerts");
+            logger.info("🧹 Cleaning up {} orphaned alerts", orphanedAlerts.size());
             alertRepository.deleteAll(orphanedAlerts);
+            eventPublisher.publishEvent(new AlertChangedEvent());
         }
         
         return orphanedAlerts.size();
@@ -116,7 +135,7 @@ public class AlertService {
     // ✅ NEW: Check and create alerts for fashion product variants
     public void checkAndCreateVariantAlerts(com.inventory.model.ProductVariant variant) {
         if (variant == null || variant.getProduct() == null) {
-            System.err.println("⚠️ Cannot create alert for null variant or product");
+            logger.warn("⚠️ Cannot create alert for null variant or product");
             return;
         }
         
@@ -130,16 +149,33 @@ public class AlertService {
             // Create alert using the main product (since Alert model references Product, not ProductVariant)
             createOrUpdateAlert(convertToProduct(variant.getProduct()), Alert.AlertType.OUT_OF_STOCK, message);
         }
-        // Check for low stock variant
-        else if (variant.isLowStock()) {
-            String message = String.format("⚠️ %s (%s/%s) is running low on stock. Current: %d units, Minimum required: %d units. Please restock soon.", 
-                    variant.getProduct().getName(),
-                    variant.getSize() != null ? variant.getSize().getDisplayName() : "Unknown Size",
-                    variant.getColor() != null ? variant.getColor().getDisplayName() : "Unknown Color",
-                    variant.getQuantity(), 
-                    variant.getMinStockLevel());
-            
-            createOrUpdateAlert(convertToProduct(variant.getProduct()), Alert.AlertType.LOW_STOCK, message);
+        else {
+            // Low stock: at or below the dynamic reorder point once the variant has enough sales history
+            VariantForecast forecast = variantForecastRepository.findById(variant.getId()).orElse(null);
+            if (forecast != null && forecast.getReorderPoint() != null) {
+                if (variant.getQuantity() <= forecast.getReorderPoint()) {
+                    String message = String.format("⚠️ %s (%s/%s) is at its reorder point. Current: %d units, Reorder point: %d units (selling %.1f/day, %.1f days of cover). Please restock soon.",
+                            variant.getProduct().getName(),
+                            variant.getSize() != null ? variant.getSize().getDisplayName() : "Unknown Size",
+                            variant.getColor() != null ? variant.getColor().getDisplayName() : "Unknown Color",
+                            variant.getQuantity(),
+                            forecast.getReorderPoint(),
+                            forecast.getDailyVelocity(),
+                            forecast.getDailyVelocity() > 0 ? variant.getQuantity() / forecast.getDailyVelocity() : 0.0);
+                    
+                    createOrUpdateAlert(convertToProduct(variant.getProduct()), Alert.AlertType.LOW_STOCK, message);
+                }
+            }
+            else if (variant.isLowStock()) {
+                String message = String.format("⚠️ %s (%s/%s) is running low on stock. Current: %d units, Minimum required: %d units. Please restock soon.", 
+                        variant.getProduct().getName(),
+                        variant.getSize() != null ? variant.getSize().getDisplayName() : "Unknown Size",
+                        variant.getColor() != null ? variant.getColor().getDisplayName() : "Unknown Color",
+                        variant.getQuantity(), 
+                        variant.getMinStockLevel());
+                
+                createOrUpdateAlert(convertToProduct(variant.getProduct()), Alert.AlertType.LOW_STOCK, message);
+            }
         }
     }
     
@@ -165,7 +201,7 @@ public class AlertService {
     // Check and create alerts for a product
     public void checkAndCreateAlerts(Product product) {
         if (product == null) {
-            System.err.println("⚠️ Cannot create alert for null product");
+            logger.warn("⚠️ Cannot create alert for null product");
             return;
         }
         
@@ -195,6 +231,7 @@ public class AlertService {
         if (existingAlert.isEmpty()) {
             Alert alert = new Alert(product, type, message);
             alertRepository.save(alert);
+            eventPublisher.publishEvent(new AlertChangedEvent());
         }
     }
 
@@ -207,5 +244,8 @@ public class AlertService {
             alert.setStatus(Alert.AlertStatus.RESOLVED);
             alertRepository.save(alert);
         }
+        if (!activeAlerts.isEmpty()) {
+            eventPublisher.publishEvent(new AlertChangedEvent());
+        }
     }
 }
@@ -0,0 +1,62 @@
+package com.inventory.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hit/miss statistics of the Hibernate second-level and query caches
+ * (requires hibernate.generate_statistics=true)
+ */
+@Service
+public class CacheStatisticsService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Overall and per-region cache statistics since startup
+     */
+    public Map<String, Object> getStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("secondLevelCache", counters(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        result.put("queryCache", counters(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        // What still reached the database
+        result.put("entityLoads", statistics.getEntityLoadCount());
+        result.put("collectionLoads", statistics.getCollectionLoadCount());
+        result.put("queryExecutions", statistics.getQueryExecutionCount());
+        result.put("preparedStatements", statistics.getPrepareStatementCount());
+
+        Map<String, Object> regions = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.put(regionName, counters(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+        result.put("regions", regions);
+        return result;
+    }
+
+    private static Map<String, Object> counters(long hits, long misses, long puts) {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("hits", hits);
+        counters.put("misses", misses);
+        counters.put("puts", puts);
+        long lookups = hits + misses;
+        counters.put("hitRatio", lookups > 0 ? (double) hits / lookups : 0.0);
+        return counters;
+    }
+}
@@ -0,0 +1,120 @@
+package com.inventory.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache in front of UserDetailsServiceImpl for the per-request JWT authentication.
+ * Entries expire after app.security.user-cache.ttl-ms; user status, deletion and password changes
+ * evict them explicitly so they take effect on the next request. Login keeps using
+ * UserDetailsServiceImpl directly, so passwords are always checked against the database.
+ */
+@Service
+@Primary
+public class CachingUserDetailsService implements UserDetailsService {
+    
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    
+    @Value("${app.security.user-cache.ttl-ms:30000}")
+    private long ttlMs;
+    
+    @Value("${app.security.user-cache.max-size:10000}")
+    private int maxSize;
+    
+    private final ConcurrentHashMap<String, CachedUser> users = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        long now = System.currentTimeMillis();
+        CachedUser cached = users.get(username);
+        if (cached != null && cached.expiresAtMillis > now) {
+            hits.incrementAndGet();
+            return cached.userDetails;
+        }
+        misses.incrementAndGet();
+        
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (users.size() >= maxSize) {
+            trim(now);
+        }
+        users.put(username, new CachedUser(userDetails, now + ttlMs));
+        return userDetails;
+    }
+    
+    /**
+     * Drop a user's cached details now and again once the caller's transaction commits,
+     * so a request racing the change cannot re-cache the old state
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        if (users.remove(username) != null) {
+            evictions.incrementAndGet();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    users.remove(username);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Get hit/miss statistics of the cache
+     */
+    public Map<String, Object> getStatistics() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+        
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", users.size());
+        stats.put("maxSize", maxSize);
+        stats.put("ttlMs", ttlMs);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("hitRate", requests > 0 ? (double) hitCount / requests : 0.0);
+        return stats;
+    }
+    
+    private void trim(long now) {
+        users.values().removeIf(cached -> cached.expiresAtMillis <= now);
+        Iterator<String> iterator = users.keySet().iterator();
+        while (users.size() >= maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+    
+    private static final class CachedUser {
+        private final UserDetails userDetails;
+        private final long expiresAtMillis;
+        
+        private CachedUser(UserDetails userDetails, long expiresAtMillis) {
+            this.userDetails = userDetails;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
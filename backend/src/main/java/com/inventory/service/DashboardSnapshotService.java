@@ -0,0 +1,233 @@
+package com.inventory.service;
+
+import com.inventory.dto.AlertResponse;
+import com.inventory.dto.DashboardSnapshot;
+import com.inventory.dto.FashionProductResponse;
+import com.inventory.dto.InventoryStatistics;
+import com.inventory.dto.ProductVariantResponse;
+import com.inventory.event.AlertChangedEvent;
+import com.inventory.event.FashionProductChangedEvent;
+import com.inventory.event.StockMovementEvent;
+import com.inventory.model.FashionProduct;
+import com.inventory.repository.FashionProductRepository;
+import com.inventory.repository.InventoryStatisticsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the dashboard data in memory so the dashboard endpoints do not query the database.
+ * Committed stock movements, product changes and alert changes only mark parts of the snapshot
+ * dirty; a scheduled task reloads just those parts and adjusts the counters by the changed products
+ * only (staleness is bounded by app.dashboard.refresh-interval-ms). The periodic full rebuild takes the
+ * counters from the aggregate query (InventoryStatisticsRepository) and corrects any drift.
+ */
+@Service
+public class DashboardSnapshotService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DashboardSnapshotService.class);
+    
+    // Same order as FashionProductService.getAllProducts: newest first
+    private static final Comparator<FashionProductResponse> PRODUCT_ORDER =
+            Comparator.comparing(FashionProductResponse::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(FashionProductResponse::getId, Comparator.reverseOrder());
+    
+    @Autowired
+    private FashionProductRepository fashionProductRepository;
+    
+    @Autowired
+    private InventoryStatisticsRepository inventoryStatisticsRepository;
+    
+    @Autowired
+    private FashionProductService fashionProductService;
+    
+    @Autowired
+    private StockTransactionService stockTransactionService;
+    
+    @Autowired
+    private AlertService alertService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    private volatile DashboardSnapshot snapshot;
+    
+    private final Set<Long> dirtyProductIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean transactionsDirty = new AtomicBoolean();
+    private final AtomicBoolean alertsDirty = new AtomicBoolean();
+    
+    /**
+     * Get the current snapshot (built on first use if the startup rebuild has not run yet)
+     */
+    public DashboardSnapshot getSnapshot() {
+        DashboardSnapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockMovement(StockMovementEvent event) {
+        dirtyProductIds.addAll(event.getFashionProductIds());
+        transactionsDirty.set(true);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFashionProductChanged(FashionProductChangedEvent event) {
+        dirtyProductIds.add(event.getProductId());
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAlertChanged(AlertChangedEvent event) {
+        alertsDirty.set(true);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+    
+    /**
+     * Periodic full rebuild, in case a change was made outside the application
+     */
+    @Scheduled(initialDelayString = "${app.dashboard.rebuild-interval-ms:300000}",
+               fixedDelayString = "${app.dashboard.rebuild-interval-ms:300000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+    
+    /**
+     * Rebuild the whole snapshot from the database
+     */
+    public synchronized DashboardSnapshot rebuild() {
+        // Clear the dirty markers first: changes committed while we read are picked up by the next refresh
+        dirtyProductIds.clear();
+        transactionsDirty.set(false);
+        alertsDirty.set(false);
+        
+        DashboardSnapshot rebuilt = transactionTemplate.execute(status -> {
+            InventoryStatistics statistics = inventoryStatisticsRepository.getStatistics();
+            // The active alert list leaves out orphaned alerts (product deleted); the count follows the list
+            List<AlertResponse> activeAlerts = alertService.getAllActiveAlerts();
+            return new DashboardSnapshot(
+                    fashionProductService.getAllProducts(),
+                    stockTransactionService.getRecentTransactions(),
+                    activeAlerts,
+                    alertService.getRecentAlerts(),
+                    statistics.getLowStockFashionProducts(),
+                    statistics.getOutOfStockFashionProducts(),
+                    activeAlerts.size());
+        });
+        snapshot = rebuilt;
+        logger.info("📊 Dashboard snapshot rebuilt: {} products, {} active alerts",
+                rebuilt.getTotalProducts(), rebuilt.getActiveAlerts().size());
+        return rebuilt;
+    }
+    
+    /**
+     * Reload only the parts of the snapshot that changed since the last refresh
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.refresh-interval-ms:1000}")
+    public synchronized void applyPendingChanges() {
+        DashboardSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        
+        Set<Long> productIds = new HashSet<>();
+        for (Long productId : dirtyProductIds) {
+            dirtyProductIds.remove(productId);
+            productIds.add(productId);
+        }
+        boolean refreshTransactions = transactionsDirty.getAndSet(false);
+        boolean refreshAlerts = alertsDirty.getAndSet(false);
+        if (productIds.isEmpty() && !refreshTransactions && !refreshAlerts) {
+            return;
+        }
+        
+        try {
+            snapshot = transactionTemplate.execute(status -> refresh(current, productIds, refreshTransactions, refreshAlerts));
+        } catch (RuntimeException e) {
+            // Keep the markers so the next run retries
+            dirtyProductIds.addAll(productIds);
+            if (refreshTransactions) transactionsDirty.set(true);
+            if (refreshAlerts) alertsDirty.set(true);
+            logger.error("❌ Dashboard snapshot refresh failed: {}", e.getMessage());
+        }
+    }
+    
+    private DashboardSnapshot refresh(DashboardSnapshot current, Set<Long> productIds,
+                                      boolean refreshTransactions, boolean refreshAlerts) {
+        List<FashionProductResponse> products = current.getProducts();
+        long lowStock = current.getLowStockProducts();
+        long outOfStock = current.getOutOfStockProducts();
+        if (!productIds.isEmpty()) {
+            // Counters move by the changed products only: their old state out, their new state in
+            for (FashionProductResponse product : products) {
+                if (productIds.contains(product.getId())) {
+                    lowStock -= isLowStock(product) ? 1 : 0;
+                    outOfStock -= isOutOfStock(product) ? 1 : 0;
+                }
+            }
+            products = mergeProducts(products, productIds);
+            for (FashionProductResponse product : products) {
+                if (productIds.contains(product.getId())) {
+                    lowStock += isLowStock(product) ? 1 : 0;
+                    outOfStock += isOutOfStock(product) ? 1 : 0;
+                }
+            }
+        }
+        List<AlertResponse> activeAlerts = refreshAlerts ? alertService.getAllActiveAlerts() : current.getActiveAlerts();
+        return new DashboardSnapshot(
+                products,
+                refreshTransactions ? stockTransactionService.getRecentTransactions() : current.getRecentTransactions(),
+                activeAlerts,
+                refreshAlerts ? alertService.getRecentAlerts() : current.getRecentAlerts(),
+                lowStock,
+                outOfStock,
+                refreshAlerts ? activeAlerts.size() : current.getActiveAlertCount());
+    }
+    
+    // Same definitions as the aggregate query: a variant at or below its minimum, no stock at all
+    private static boolean isLowStock(FashionProductResponse product) {
+        return product.getVariants().stream().anyMatch(ProductVariantResponse::isLowStock);
+    }
+    
+    private static boolean isOutOfStock(FashionProductResponse product) {
+        return product.getTotalStock() == 0;
+    }
+    
+    /**
+     * Replace the changed products in the list (products that no longer exist are dropped)
+     */
+    private List<FashionProductResponse> mergeProducts(List<FashionProductResponse> products, Set<Long> changedIds) {
+        Map<Long, FashionProductResponse> byId = new LinkedHashMap<>();
+        for (FashionProductResponse product : products) {
+            if (!changedIds.contains(product.getId())) {
+                byId.put(product.getId(), product);
+            }
+        }
+        for (FashionProduct product : fashionProductRepository.findAllById(changedIds)) {
+            byId.put(product.getId(), new FashionProductResponse(product));
+        }
+        
+        List<FashionProductResponse> merged = new ArrayList<>(byId.values());
+        merged.sort(PRODUCT_ORDER);
+        return merged;
+    }
+}
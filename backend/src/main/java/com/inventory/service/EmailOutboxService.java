@@ -0,0 +1,262 @@
+package com.inventory.service;
+
+import com.inventory.event.EmailQueuedEvent;
+import com.inventory.model.EmailOutboxMessage;
+import com.inventory.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background delivery of queued emails (the email_outbox table).
+ * Requests only insert an outbox row; after their transaction commits the dispatcher is woken up and
+ * sends due messages in batches over one SMTP connection per batch, outside any database transaction.
+ * Failed messages are retried with exponential backoff until app.email.outbox.max-attempts is reached
+ * or the message expires; a periodic poll picks up retries and anything left by a restart. The OTP is
+ * cleared from a row as soon as it is sent or given up on, and sent and failed rows are deleted after
+ * app.email.outbox.retention-days.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired(required = false)
+    private EmailService emailService;
+
+    @Autowired(required = false)
+    private MockEmailService mockEmailService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.email.mock:false}")
+    private boolean useMockEmail;
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.email.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.email.outbox.initial-backoff-ms:10000}")
+    private long initialBackoffMs;
+
+    @Value("${app.email.outbox.max-backoff-ms:600000}")
+    private long maxBackoffMs;
+
+    @Value("${app.email.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private final AtomicBoolean wakeupScheduled = new AtomicBoolean();
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("inventory.email.outbox.pending", emailOutboxRepository,
+                        repository -> repository.countByStatus(EmailOutboxMessage.Status.PENDING))
+                .description("Queued emails not sent yet (including those waiting for a retry)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue an OTP email (joins the caller's transaction); it is not sent after the OTP expires
+     */
+    public void enqueueOtpEmail(String toEmail, String otp, String userName, LocalDateTime expiresAt) {
+        emailOutboxRepository.save(new EmailOutboxMessage(
+                EmailOutboxMessage.MessageType.OTP, toEmail, userName, otp, expiresAt));
+        eventPublisher.publishEvent(new EmailQueuedEvent());
+    }
+
+    /**
+     * Queue a password reset confirmation email (joins the caller's transaction)
+     */
+    public void enqueuePasswordResetConfirmationEmail(String toEmail, String userName) {
+        emailOutboxRepository.save(new EmailOutboxMessage(
+                EmailOutboxMessage.MessageType.PASSWORD_RESET_CONFIRMATION, toEmail, userName, null, null));
+        eventPublisher.publishEvent(new EmailQueuedEvent());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        if (wakeupScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::dispatch, Instant.now());
+        }
+    }
+
+    /**
+     * Retries, restart recovery and cleanup of delivered and undeliverable messages
+     */
+    @Scheduled(initialDelayString = "${app.email.outbox.poll-interval-ms:5000}",
+               fixedDelayString = "${app.email.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        dispatch();
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        transactionTemplate.executeWithoutResult(status -> {
+            emailOutboxRepository.deleteSentBefore(EmailOutboxMessage.Status.SENT, before);
+            emailOutboxRepository.deleteQueuedBefore(EmailOutboxMessage.Status.FAILED, before);
+        });
+    }
+
+    /**
+     * Send all due messages, one batch at a time. Only one dispatch runs at a time.
+     */
+    public void dispatch() {
+        wakeupScheduled.set(false);
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            while (true) {
+                LocalDateTime now = LocalDateTime.now();
+                List<EmailOutboxMessage> due = emailOutboxRepository.findDue(
+                        EmailOutboxMessage.Status.PENDING, now, PageRequest.of(0, batchSize));
+                if (due.isEmpty()) {
+                    break;
+                }
+                Timer.Sample sample = Timer.start(meterRegistry);
+                Map<EmailOutboxMessage, Exception> failures = send(due, now);
+                sample.stop(Timer.builder("inventory.email.dispatch")
+                        .description("Delivery of one outbox batch (one SMTP connection)")
+                        .tag("transport", useMockEmail && mockEmailService != null ? "mock" : "smtp")
+                        .register(meterRegistry));
+                transactionTemplate.executeWithoutResult(status -> recordResults(due, failures));
+                if (due.size() < batchSize || failures.size() == due.size()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            logger.error("❌ Email outbox dispatch failed: {}", e.getMessage());
+        } finally {
+            dispatching.set(false);
+        }
+    }
+
+    private Map<EmailOutboxMessage, Exception> send(List<EmailOutboxMessage> messages, LocalDateTime now) {
+        Map<EmailOutboxMessage, Exception> failures = new IdentityHashMap<>();
+        List<EmailOutboxMessage> sendable = new ArrayList<>();
+        for (EmailOutboxMessage message : messages) {
+            if (message.isExpired(now)) {
+                failures.put(message, new IllegalStateException("Expired before it could be sent"));
+            } else {
+                sendable.add(message);
+            }
+        }
+
+        if (useMockEmail && mockEmailService != null) {
+            for (EmailOutboxMessage message : sendable) {
+                if (message.getType() == EmailOutboxMessage.MessageType.OTP) {
+                    mockEmailService.sendOtpEmail(message.getRecipient(), message.getOtp(), message.getUserName());
+                } else {
+                    mockEmailService.sendPasswordResetConfirmationEmail(message.getRecipient(), message.getUserName());
+                }
+            }
+        } else if (emailService != null) {
+            Map<SimpleMailMessage, EmailOutboxMessage> byMail = new IdentityHashMap<>();
+            List<SimpleMailMessage> mails = new ArrayList<>(sendable.size());
+            for (EmailOutboxMessage message : sendable) {
+                SimpleMailMessage mail = message.getType() == EmailOutboxMessage.MessageType.OTP
+                        ? emailService.buildOtpEmail(message.getRecipient(), message.getOtp(), message.getUserName())
+                        : emailService.buildPasswordResetConfirmationEmail(message.getRecipient(), message.getUserName());
+                byMail.put(mail, message);
+                mails.add(mail);
+            }
+            emailService.sendBatch(mails).forEach((mail, error) -> failures.put(byMail.get(mail), error));
+        } else {
+            sendable.forEach(message -> failures.put(message, new IllegalStateException("No email service available")));
+        }
+        return failures;
+    }
+
+    private void recordResults(List<EmailOutboxMessage> messages, Map<EmailOutboxMessage, Exception> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        for (EmailOutboxMessage message : messages) {
+            Exception error = failures.get(message);
+            if (error == null) {
+                message.setStatus(EmailOutboxMessage.Status.SENT);
+                message.setSentAt(now);
+                message.setLastError(null);
+                message.setOtp(null);
+                countMessage(message, "sent");
+                logger.debug("✅ Email ({}) sent to: {}", message.getType(), message.getRecipient());
+            } else {
+                message.setAttempts(message.getAttempts() + 1);
+                message.setLastError(truncate(error.getMessage()));
+                if (message.getAttempts() >= maxAttempts || message.isExpired(now)) {
+                    // Expired messages end here too: the code is no use to anyone any more
+                    message.setStatus(EmailOutboxMessage.Status.FAILED);
+                    message.setOtp(null);
+                    countMessage(message, "failed");
+                    logger.error("❌ Giving up on email ({}) to {} after {} attempts: {}",
+                            message.getType(), message.getRecipient(), message.getAttempts(), error.getMessage());
+                } else {
+                    message.setNextAttemptAt(now.plus(Duration.ofMillis(backoffMs(message.getAttempts()))));
+                    countMessage(message, "retry");
+                    logger.warn("⚠️ Email ({}) to {} failed, retry {} scheduled: {}",
+                            message.getType(), message.getRecipient(), message.getAttempts(), error.getMessage());
+                }
+            }
+            emailOutboxRepository.save(message);
+        }
+    }
+
+    private void countMessage(EmailOutboxMessage message, String outcome) {
+        Counter.builder("inventory.email.messages")
+                .description("Outbox delivery attempts by result: sent, retry (scheduled again) or failed (given up)")
+                .tag("type", message.getType().name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Exponential backoff: initial, 2x, 4x, ... capped at the maximum
+     */
+    private long backoffMs(int attempts) {
+        long backoff = initialBackoffMs << Math.min(attempts - 1, 20);
+        return Math.min(backoff, maxBackoffMs);
+    }
+
+    private static String truncate(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.length() > 500 ? value.substring(0, 500) : value;
+    }
+}
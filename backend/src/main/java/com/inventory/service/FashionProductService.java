@@ -1,38 +1,70 @@
 package com.inventory.service;
 
 import com.inventory.dto.*;
+import com.inventory.event.FashionProductChangedEvent;
 import com.inventory.model.FashionProduct;
 import com.inventory.model.ProductVariant;
 import com.inventory.repository.FashionProductRepository;
 import com.inventory.repository.ProductVariantRepository;
+import com.inventory.repository.StockLevelRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Month;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class FashionProductService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    
     @Autowired
     private FashionProductRepository fashionProductRepository;
     
     @Autowired
     private ProductVariantRepository productVariantRepository;
     
+    @Autowired
+    private StockLevelRepository stockLevelRepository;
+    
     @Autowired
     private AlertService alertService;
     
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+    
+    @Autowired
+    private VariantAvailabilityIndex variantAvailabilityIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.search.max-results:500}")
+    private int maxSearchResults;
+    
     /**
-     * Get all fashion products
+     * Get all fashion products (products and variants are loaded in one query)
      */
+    @Transactional(readOnly = true)
     public List<FashionProductResponse> getAllProducts() {
-        return fashionProductRepository.findAllByOrderByCreatedAtDesc()
+        return fashionProductRepository.findAllWithVariantsOrderByCreatedAtDesc()
                 .stream()
                 .map(FashionProductResponse::new)
                 .collect(Collectors.toList());
@@ -99,6 +131,10 @@ public class FashionProductService {
             }
         }
         
+        // Seed the pre-aggregated stock totals from the new variants
+        stockLevelRepository.recalculateStockTotals(savedProduct.getId());
+        eventPublisher.publishEvent(new FashionProductChangedEvent(savedProduct.getId()));
+        
         // Reload the product with variants
         return getProductById(savedProduct.getId());
     }
@@ -122,6 +158,7 @@ public class FashionProductService {
         product.setCareInstructions(request.getCareInstructions());
         
         FashionProduct savedProduct = fashionProductRepository.save(product);
+        eventPublisher.publishEvent(new FashionProductChangedEvent(savedProduct.getId()));
         
         return new FashionProductResponse(savedProduct);
     }
@@ -134,6 +171,7 @@ public class FashionProductService {
                 .orElseThrow(() -> new RuntimeException("Fashion product not found with ID: " + id));
         
         fashionProductRepository.delete(product);
+        eventPublisher.publishEvent(new FashionProductChangedEvent(id));
     }
     
     /**
@@ -188,12 +226,63 @@ public class FashionProductService {
     }
     
     /**
-     * Search products by name
+     * Search products by name, brand, description, material and SKUs (best match first)
      */
+    @Transactional(readOnly = true)
     public List<FashionProductResponse> searchProducts(String searchTerm) {
-        return fashionProductRepository.findByNameContainingIgnoreCase(searchTerm)
-                .stream()
-                .map(FashionProductResponse::new)
+        return loadRanked(productSearchIndex.search(searchTerm), true);
+    }
+    
+    /**
+     * Get one page of search results (best match first). The cursor is the position of the next hit
+     * in the ranking; pages hold at most limit products (default DEFAULT_PAGE_SIZE, capped at MAX_PAGE_SIZE).
+     * Paging stops after the best app.search.max-results hits (the last page has no next cursor).
+     */
+    @Transactional(readOnly = true)
+    public FashionProductPage searchProductPage(String searchTerm, String cursor, Integer limit, boolean includeVariants) {
+        int offset = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        
+        List<Long> ranked = productSearchIndex.search(searchTerm, maxSearchResults);
+        int end = Math.min(ranked.size(), offset + pageSize);
+        List<Long> pageIds = offset < end ? ranked.subList(offset, end) : List.of();
+        String nextCursor = end < ranked.size()
+                ? Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(end).getBytes(StandardCharsets.UTF_8))
+                : null;
+        return new FashionProductPage(loadRanked(pageIds, includeVariants), nextCursor);
+    }
+    
+    /**
+     * Load products in the given order (ids of products deleted meanwhile are skipped)
+     */
+    private List<FashionProductResponse> loadRanked(List<Long> ids, boolean includeVariants) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, FashionProduct> byId = new HashMap<>();
+        List<FashionProduct> products = includeVariants
+                ? fashionProductRepository.findAllWithVariantsByIdIn(ids)
+                : fashionProductRepository.findAllById(ids);
+        for (FashionProduct product : products) {
+            byId.put(product.getId(), product);
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(product -> new FashionProductResponse(product, includeVariants))
                 .collect(Collectors.toList());
     }
     
@@ -248,6 +337,64 @@ public class FashionProductService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Get one keyset page of products (newest first) matching the filter.
+     * Without cursor and limit the whole filtered list is returned; otherwise pages hold at most
+     * limit rows (default DEFAULT_PAGE_SIZE, capped at MAX_PAGE_SIZE) and nextCursor points past the last row.
+     */
+    @Transactional(readOnly = true)
+    public FashionProductPage getProductPage(FashionProductFilter filter, String cursor, Integer limit, boolean includeVariants) {
+        LocalDateTime cursorCreatedAt = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            cursorCreatedAt = LocalDateTime.parse(parts[0]);
+            cursorId = Long.parseLong(parts[1]);
+        }
+        
+        boolean paged = cursorId != null || limit != null;
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (paged && (pageSize < 1 || pageSize > MAX_PAGE_SIZE)) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // Fetch one extra row to learn whether another page follows
+        Pageable pageable = paged ? PageRequest.of(0, pageSize + 1) : Pageable.unpaged();
+        
+        List<FashionProduct> products = fashionProductRepository.findPageWithFilters(
+                filter.getCategory(), filter.getBrand(), filter.getSeason(), filter.getTargetGender(),
+                filter.getMinPrice(), filter.getMaxPrice(),
+                filter.isLowStockOnly(), filter.isOutOfStockOnly(),
+                cursorCreatedAt, cursorId, pageable);
+        
+        String nextCursor = null;
+        if (paged && products.size() > pageSize) {
+            products = products.subList(0, pageSize);
+            FashionProduct last = products.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        
+        List<FashionProductResponse> responses = products.stream()
+                .map(product -> new FashionProductResponse(product, includeVariants))
+                .collect(Collectors.toList());
+        return new FashionProductPage(responses, nextCursor);
+    }
+    
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+    
     /**
      * Get trending products (recently added)
      */
@@ -260,39 +407,35 @@ public class FashionProductService {
     }
     
     /**
-     * Get available sizes for a product
+     * Get available sizes for a product (served from memory, no database access)
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ProductVariant.Size> getAvailableSizes(Long productId) {
-        FashionProduct product = fashionProductRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Fashion product not found with ID: " + productId));
-        return productVariantRepository.findAvailableSizesByProduct(product);
+        return variantAvailabilityIndex.getAvailableSizes(productId);
     }
     
     /**
-     * Get available colors for a product
+     * Get available colors for a product (served from memory, no database access)
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ProductVariant.Color> getAvailableColors(Long productId) {
-        FashionProduct product = fashionProductRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Fashion product not found with ID: " + productId));
-        return productVariantRepository.findAvailableColorsByProduct(product);
+        return variantAvailabilityIndex.getAvailableColors(productId);
     }
     
     /**
-     * Get available colors for a product and size
+     * Get available colors for a product and size (served from memory, no database access)
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ProductVariant.Color> getAvailableColors(Long productId, ProductVariant.Size size) {
-        FashionProduct product = fashionProductRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Fashion product not found with ID: " + productId));
-        return productVariantRepository.findAvailableColorsByProductAndSize(product, size);
+        return variantAvailabilityIndex.getAvailableColors(productId, size);
     }
     
     /**
-     * Get available sizes for a product and color
+     * Get available sizes for a product and color (served from memory, no database access)
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ProductVariant.Size> getAvailableSizes(Long productId, ProductVariant.Color color) {
-        FashionProduct product = fashionProductRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Fashion product not found with ID: " + productId));
-        return productVariantRepository.findAvailableSizesByProductAndColor(product, color);
+        return variantAvailabilityIndex.getAvailableSizes(productId, color);
     }
     
     /**
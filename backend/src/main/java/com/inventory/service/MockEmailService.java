@@ -1,5 +1,7 @@
 package com.inventory.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
@@ -7,38 +9,30 @@ import org.springframework.stereotype.Service;
 @Profile("dev")
 public class MockEmailService {
     
+    private static final Logger logger = LoggerFactory.getLogger(MockEmailService.class);
+    
+    private static final String RULE = "=".repeat(60);
+    
     public void sendOtpEmail(String toEmail, String otp, String userName) {
-        System.out.println("=".repeat(60));
-        System.out.println("📧 MOCK EMAIL SERVICE - OTP EMAIL");
-        System.out.println("=".repeat(60));
-        System.out.println("To: " + toEmail);
-        System.out.println("Subject: Password Reset OTP - Inventory Management System");
-        System.out.println("");
-        System.out.println("Dear " + (userName != null ? userName : "User") + ",");
-        System.out.println("");
-        System.out.println("Your OTP for password reset is: " + otp);
-        System.out.println("");
-        System.out.println("⏰ This OTP is valid for 10 minutes only.");
-        System.out.println("🔒 Do not share this OTP with anyone.");
-        System.out.println("");
-        System.out.println("=".repeat(60));
-        System.out.println("✅ Mock email sent successfully!");
-        System.out.println("=".repeat(60));
+        // One log event per email, so concurrent emails do not interleave
+        logger.info("\n{}\n📧 MOCK EMAIL SERVICE - OTP EMAIL\n{}\n" +
+                "To: {}\n" +
+                "Subject: Password Reset OTP - Inventory Management System\n\n" +
+                "Dear {},\n\n" +
+                "Your OTP for password reset is: {}\n\n" +
+                "⏰ This OTP is valid for 10 minutes only.\n" +
+                "🔒 Do not share this OTP with anyone.\n\n" +
+                "{}\n✅ Mock email sent successfully!\n{}",
+                RULE, RULE, toEmail, userName != null ? userName : "User", otp, RULE, RULE);
     }
     
     public void sendPasswordResetConfirmationEmail(String toEmail, String userName) {
-        System.out.println("=".repeat(60));
-        System.out.println("📧 MOCK EMAIL SERVICE - PASSWORD RESET CONFIRMATION");
-        System.out.println("=".repeat(60));
-        System.out.println("To: " + toEmail);
-        System.out.println("Subject: Password Reset Successful");
-        System.out.println("");
-        System.out.println("Dear " + (userName != null ? userName : "User") + ",");
-        System.out.println("");
-        System.out.println("Your password has been successfully reset!");
-        System.out.println("");
-        System.out.println("=".repeat(60));
-        System.out.println("✅ Mock confirmation email sent!");
-        System.out.println("=".repeat(60));
+        logger.info("\n{}\n📧 MOCK EMAIL SERVICE - PASSWORD RESET CONFIRMATION\n{}\n" +
+                "To: {}\n" +
+                "Subject: Password Reset Successful\n\n" +
+                "Dear {},\n\n" +
+                "Your password has been successfully reset!\n\n" +
+                "{}\n✅ Mock confirmation email sent!\n{}",
+                RULE, RULE, toEmail, userName != null ? userName : "User", RULE, RULE);
     }
 }
\ No newline at end of file
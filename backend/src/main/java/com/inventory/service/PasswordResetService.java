@@ -5,8 +5,10 @@ import com.inventory.model.PasswordResetOtp;
 import com.inventory.model.User;
 import com.inventory.repository.PasswordResetOtpRepository;
 import com.inventory.repository.UserRepository;
+import com.inventory.security.TokenDenyList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,23 +20,25 @@ import java.util.Optional;
 @Service
 public class PasswordResetService {
     
+    private static final Logger logger = LoggerFactory.getLogger(PasswordResetService.class);
+    
     @Autowired
     private PasswordResetOtpRepository otpRepository;
     
     @Autowired
     private UserRepository userRepository;
     
-    @Autowired(required = false)
-    private EmailService emailService;
+    @Autowired
+    private CachingUserDetailsService cachingUserDetailsService;
     
-    @Autowired(required = false)
-    private MockEmailService mockEmailService;
+    @Autowired
+    private TokenDenyList tokenDenyList;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private EmailOutboxService emailOutboxService;
     
-    @Value("${app.email.mock:false}")
-    private boolean useMockEmail;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
     
     private static final int OTP_EXPIRY_MINUTES = 10;
     private static final int MAX_OTP_ATTEMPTS = 3;
@@ -75,37 +79,15 @@ public class PasswordResetService {
             PasswordResetOtp otpEntity = new PasswordResetOtp(email, otp, expiresAt);
             otpRepository.save(otpEntity);
             
-            // Send email
-            try {
-                if (useMockEmail && mockEmailService != null) {
-                    System.out.println("📧 Using Mock Email Service (Development Mode)");
-                    mockEmailService.sendOtpEmail(email, otp, user.getUsername());
-                } else if (emailService != null) {
-                    System.out.println("📧 Using Real Email Service (Production Mode)");
-                    emailService.sendOtpEmail(email, otp, user.getUsername());
-                } else {
-                    throw new RuntimeException("No email service available");
-                }
-            } catch (Exception emailError) {
-                System.err.println("❌ Email sending failed: " + emailError.getMessage());
-                // If real email fails, try mock as fallback
-                if (!useMockEmail && mockEmailService != null) {
-                    System.out.println("📧 Falling back to Mock Email Service");
-                    mockEmailService.sendOtpEmail(email, otp, user.getUsername());
-                } else {
-                    // Clean up the OTP if email sending fails
-                    otpRepository.delete(otpEntity);
-                    return ApiResponse.error("Failed to send OTP email. Please check your email configuration or try again later.");
-                }
-            }
+            // Queue the email; it is sent in the background once this transaction commits
+            emailOutboxService.enqueueOtpEmail(email, otp, user.getUsername(), expiresAt);
             
-            System.out.println("🔐 OTP generated for " + email + ": " + otp + " (expires at " + expiresAt + ")");
+            logger.debug("🔐 OTP generated for {} (expires at {})", email, expiresAt);
             
             return ApiResponse.success("OTP has been sent to your email address. Please check your inbox.");
             
         } catch (Exception e) {
-            System.err.println("❌ Error sending OTP: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("❌ Error sending OTP: {}", e.getMessage(), e);
             return ApiResponse.error("Failed to send OTP. Please try again later.");
         }
     }
@@ -149,12 +131,11 @@ public class PasswordResetService {
                 }
             }
             
-            System.out.println("✅ OTP verified successfully for: " + email);
+            logger.info("✅ OTP verified successfully for: {}", email);
             return ApiResponse.success("OTP verified successfully. You can now reset your password.");
             
         } catch (Exception e) {
-            System.err.println("❌ Error verifying OTP: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("❌ Error verifying OTP: {}", e.getMessage(), e);
             return ApiResponse.error("Failed to verify OTP. Please try again.");
         }
     }
@@ -196,29 +177,21 @@ public class PasswordResetService {
             user.setPassword(encodedPassword);
             user.setUpdatedAt(LocalDateTime.now());
             userRepository.save(user);
+            cachingUserDetailsService.evict(user.getUsername());
+            tokenDenyList.denyUserTokens(user.getUsername());
             
             // Mark OTP as used
             otpEntity.setUsed(true);
             otpRepository.save(otpEntity);
             
-            // Send confirmation email
-            try {
-                if (useMockEmail && mockEmailService != null) {
-                    mockEmailService.sendPasswordResetConfirmationEmail(email, user.getUsername());
-                } else if (emailService != null) {
-                    emailService.sendPasswordResetConfirmationEmail(email, user.getUsername());
-                }
-            } catch (Exception emailError) {
-                System.err.println("⚠️ Failed to send confirmation email: " + emailError.getMessage());
-                // Don't fail the password reset if confirmation email fails
-            }
+            // Queue the confirmation email
+            emailOutboxService.enqueuePasswordResetConfirmationEmail(email, user.getUsername());
             
-            System.out.println("✅ Password reset successfully for: " + email);
+            logger.info("✅ Password reset successfully for: {}", email);
             return ApiResponse.success("Password has been reset successfully. You can now login with your new password.");
             
         } catch (Exception e) {
-            System.err.println("❌ Error resetting password: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("❌ Error resetting password: {}", e.getMessage(), e);
             return ApiResponse.error("Failed to reset password. Please try again.");
         }
     }
@@ -0,0 +1,458 @@
+package com.inventory.service;
+
+import com.inventory.event.FashionProductChangedEvent;
+import com.inventory.model.FashionProduct;
+import com.inventory.model.ProductVariant;
+import com.inventory.repository.FashionProductRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the fashion catalog (name, brand, description, material, SKU and
+ * variant SKUs), used instead of LIKE '%term%' scans for product search.
+ * Every query word must match an indexed word exactly, as a prefix, or within a small edit distance
+ * (found through a trigram index of the vocabulary); hits are ranked by field weight and match quality.
+ * Products whose create/update/delete committed are queued and re-indexed on the task scheduler
+ * (commits arriving while a re-index is pending are coalesced into it), so the committing request
+ * neither waits for the index nor needs a second connection; the whole index is rebuilt from the
+ * database every app.search.rebuild-interval-ms to pick up changes made elsewhere.
+ */
+@Service
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float SKU_WEIGHT = 3.0f;
+    private static final float BRAND_WEIGHT = 2.0f;
+    private static final float MATERIAL_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final float PREFIX_FACTOR = 0.6f;
+    private static final float TYPO_FACTOR = 0.4f;
+
+    @Autowired
+    private FashionProductRepository fashionProductRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private TransactionTemplate readTransaction;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // word -> (product id -> weight of the word in that product)
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // trigram -> words containing it (typo-tolerant lookup)
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    // product id -> its indexed words, needed to remove or replace a product
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+
+    // Products changed by committed transactions and not re-indexed yet
+    private final Set<Long> pendingReindex = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reindexScheduled = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        // Re-indexing runs after the product transaction committed, so it needs a transaction of its own
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFashionProductChanged(FashionProductChangedEvent event) {
+        pendingReindex.add(event.getProductId());
+        // One pending re-index at a time: products queued before it runs are re-indexed together
+        if (reindexScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::reindexPending, Instant.now());
+        }
+    }
+
+    /**
+     * Re-index the queued products. The flag is cleared before the queue is taken, so a product queued
+     * after that point either is taken by this run or schedules the next one.
+     */
+    void reindexPending() {
+        reindexScheduled.set(false);
+        Set<Long> productIds = new HashSet<>();
+        for (Long productId : pendingReindex) {
+            if (pendingReindex.remove(productId)) {
+                productIds.add(productId);
+            }
+        }
+        reindex(productIds);
+    }
+
+    /**
+     * Periodic full rebuild, in case products or variants were changed outside FashionProductService
+     */
+    @Scheduled(initialDelayString = "${app.search.rebuild-interval-ms:600000}",
+               fixedDelayString = "${app.search.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the whole index from the database
+     */
+    public synchronized void rebuild() {
+        try {
+            Map<Long, Map<String, Float>> loaded = readTransaction.execute(status -> {
+                Map<Long, Map<String, Float>> result = new HashMap<>();
+                for (FashionProduct product : fashionProductRepository.findAllWithVariantsOrderByCreatedAtDesc()) {
+                    result.put(product.getId(), extractWords(product));
+                }
+                return result;
+            });
+            int wordCount;
+            lock.writeLock().lock();
+            try {
+                postings.clear();
+                trigrams.clear();
+                documents.clear();
+                loaded.forEach(this::addDocument);
+                wordCount = postings.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("🔎 Product search index rebuilt: {} products, {} words", loaded.size(), wordCount);
+        } catch (RuntimeException e) {
+            logger.error("❌ Product search index rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-index the given products (deleted products are removed).
+     * Re-indexing is serialized with rebuilds, so the last one to run has read the latest committed products.
+     */
+    public synchronized void reindex(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Long, Map<String, Float>> loaded = readTransaction.execute(status -> {
+                Map<Long, Map<String, Float>> result = new HashMap<>();
+                for (FashionProduct product : fashionProductRepository.findAllWithVariantsByIdIn(productIds)) {
+                    result.put(product.getId(), extractWords(product));
+                }
+                return result;
+            });
+            lock.writeLock().lock();
+            try {
+                for (Long productId : productIds) {
+                    removeDocument(productId);
+                    Map<String, Float> words = loaded.get(productId);
+                    if (words != null) {
+                        addDocument(productId, words);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (RuntimeException e) {
+            // The next scheduled rebuild corrects the index
+            logger.error("❌ Product search re-index failed for products {}: {}", productIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Ids of all products matching every word of the query, best match first
+     */
+    public List<Long> search(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Ids of the best maxHits products matching every word of the query, best match first
+     */
+    public List<Long> search(String query, int maxHits) {
+        List<String> queryWords = tokenize(query);
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Float> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String queryWord : queryWords) {
+                Map<Long, Float> wordScores = scoreWord(queryWord);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    // All query words must match: keep only products matched so far
+                    Map<Long, Float> combined = new HashMap<>();
+                    for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                        Float wordScore = wordScores.get(entry.getKey());
+                        if (wordScore != null) {
+                            combined.put(entry.getKey(), entry.getValue() + wordScore);
+                        }
+                    }
+                    scores = combined;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, Float> finalScores = scores;
+        List<Long> ranked = new ArrayList<>(finalScores.keySet());
+        // Best score first, newest product (highest id) first on ties
+        ranked.sort((a, b) -> {
+            int byScore = Float.compare(finalScores.get(b), finalScores.get(a));
+            return byScore != 0 ? byScore : Long.compare(b, a);
+        });
+        return ranked.size() > maxHits ? ranked.subList(0, maxHits) : ranked;
+    }
+
+    /**
+     * Get index size statistics
+     */
+    public Map<String, Object> getStatistics() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("products", documents.size());
+            stats.put("words", postings.size());
+            stats.put("trigrams", trigrams.size());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best score per product for one query word: exact word, then prefix, then typo matches
+     */
+    private Map<Long, Float> scoreWord(String queryWord) {
+        Map<Long, Float> scores = new HashMap<>();
+
+        Map<Long, Float> exact = postings.get(queryWord);
+        if (exact != null) {
+            addScores(scores, exact, 1.0f);
+        }
+
+        // Prefix matches ("jack" -> "jacket"); single characters only match exactly
+        if (queryWord.length() >= 2) {
+            for (Map.Entry<String, Map<Long, Float>> entry :
+                    postings.subMap(queryWord, false, queryWord + Character.MAX_VALUE, false).entrySet()) {
+                float coverage = (float) queryWord.length() / entry.getKey().length();
+                addScores(scores, entry.getValue(), PREFIX_FACTOR * (0.5f + 0.5f * coverage));
+            }
+        }
+
+        // Typo matches ("jaket" -> "jacket"): one edit up to 7 characters, two edits from 8
+        if (queryWord.length() >= 4) {
+            int maxDistance = queryWord.length() >= 8 ? 2 : 1;
+            for (String candidate : typoCandidates(queryWord, maxDistance)) {
+                int distance = editDistance(queryWord, candidate, maxDistance);
+                if (distance > 0 && distance <= maxDistance) {
+                    addScores(scores, postings.get(candidate), TYPO_FACTOR / distance);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static void addScores(Map<Long, Float> scores, Map<Long, Float> postingList, float factor) {
+        for (Map.Entry<Long, Float> posting : postingList.entrySet()) {
+            scores.merge(posting.getKey(), posting.getValue() * factor, Math::max);
+        }
+    }
+
+    /**
+     * Indexed words sharing enough trigrams with the query word to be within maxDistance edits
+     */
+    private Set<String> typoCandidates(String queryWord, int maxDistance) {
+        List<String> grams = trigramsOf(queryWord);
+        // One edit changes at most four trigrams of the padded word (three, or four for a transposition)
+        int required = Math.max(1, grams.size() - 4 * maxDistance);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> words = trigrams.get(gram);
+            if (words != null) {
+                for (String word : words) {
+                    if (Math.abs(word.length() - queryWord.length()) <= maxDistance) {
+                        shared.merge(word, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        Set<String> candidates = new HashSet<>();
+        shared.forEach((word, count) -> {
+            if (count >= required) {
+                candidates.add(word);
+            }
+        });
+        return candidates;
+    }
+
+    private void addDocument(Long productId, Map<String, Float> words) {
+        documents.put(productId, words);
+        for (Map.Entry<String, Float> entry : words.entrySet()) {
+            String word = entry.getKey();
+            Map<Long, Float> postingList = postings.get(word);
+            if (postingList == null) {
+                postingList = new HashMap<>();
+                postings.put(word, postingList);
+                for (String gram : trigramsOf(word)) {
+                    trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(word);
+                }
+            }
+            postingList.put(productId, entry.getValue());
+        }
+    }
+
+    private void removeDocument(Long productId) {
+        Map<String, Float> words = documents.remove(productId);
+        if (words == null) {
+            return;
+        }
+        for (String word : words.keySet()) {
+            Map<Long, Float> postingList = postings.get(word);
+            if (postingList == null) {
+                continue;
+            }
+            postingList.remove(productId);
+            if (postingList.isEmpty()) {
+                // Last product using this word: drop it from the vocabulary as well
+                postings.remove(word);
+                for (String gram : trigramsOf(word)) {
+                    Set<String> gramWords = trigrams.get(gram);
+                    if (gramWords != null) {
+                        gramWords.remove(word);
+                        if (gramWords.isEmpty()) {
+                            trigrams.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Words of a product with their weight (the sum over the fields they appear in)
+     */
+    private Map<String, Float> extractWords(FashionProduct product) {
+        Map<String, Float> words = new HashMap<>();
+        addField(words, product.getName(), NAME_WEIGHT);
+        addField(words, product.getSku(), SKU_WEIGHT);
+        addField(words, product.getBrand(), BRAND_WEIGHT);
+        addField(words, product.getMaterial(), MATERIAL_WEIGHT);
+        addField(words, product.getDescription(), DESCRIPTION_WEIGHT);
+        for (ProductVariant variant : product.getVariants()) {
+            addField(words, variant.getVariantSku(), SKU_WEIGHT);
+        }
+        return words;
+    }
+
+    private static void addField(Map<String, Float> words, String text, float weight) {
+        // A word counts once per field, however often it is repeated
+        for (String word : new HashSet<>(tokenize(text))) {
+            words.merge(word, weight, Float::sum);
+        }
+    }
+
+    /**
+     * Lower-case letter/digit runs ("FP-Denim_01" -> fp, denim, 01)
+     */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                words.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            words.add(current.toString());
+        }
+        return words;
+    }
+
+    private static List<String> trigramsOf(String word) {
+        String padded = "$" + word + "$";
+        List<String> grams = new ArrayList<>(padded.length());
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Levenshtein distance with adjacent transpositions, or maxDistance + 1 as soon as it is exceeded
+     */
+    static int editDistance(String a, String b, int maxDistance) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+}
@@ -5,6 +5,8 @@ import com.inventory.model.Product;
 import com.inventory.model.StockTransaction;
 import com.inventory.repository.ProductRepository;
 import com.inventory.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -15,6 +17,8 @@ import java.util.stream.Collectors;
 @Service
 public class ProductService {
     
+    private static final Logger logger = LoggerFactory.getLogger(ProductService.class);
+    
     @Autowired
     private ProductRepository productRepository;
     
@@ -71,9 +75,9 @@ public class ProductService {
                 transactionRequest.setReason("Initial stock - Product created with " + savedProduct.getQuantity() + " units");
                 
                 stockTransactionService.createStockTransaction(transactionRequest, username);
-                System.out.println("✅ Created transaction for new product: " + savedProduct.getName());
+                logger.debug("✅ Created transaction for new product: {}", savedProduct.getName());
             } catch (Exception e) {
-                System.err.println("⚠️ Failed to create transaction for new product: " + e.getMessage());
+                logger.warn("⚠️ Failed to create transaction for new product: {}", e.getMessage());
                 // Don't fail product creation if transaction fails
             }
         }
@@ -127,9 +131,9 @@ public class ProductService {
                 }
                 
                 stockTransactionService.createStockTransaction(transactionRequest, username);
-                System.out.println("✅ Created transaction for product update: " + savedProduct.getName());
+                logger.debug("✅ Created transaction for product update: {}", savedProduct.getName());
             } catch (Exception e) {
-                System.err.println("⚠️ Failed to create transaction for product update: " + e.getMessage());
+                logger.warn("⚠️ Failed to create transaction for product update: {}", e.getMessage());
                 // Don't fail product update if transaction fails
             }
         }
@@ -0,0 +1,503 @@
+package com.inventory.service;
+
+import com.inventory.dto.VariantForecastResponse;
+import com.inventory.event.StockMovementEvent;
+import com.inventory.model.AlertEvaluationTask;
+import com.inventory.model.JobRun;
+import com.inventory.model.ProductVariant;
+import com.inventory.model.StockTransaction;
+import com.inventory.model.VariantForecast;
+import com.inventory.repository.FashionProductRepository;
+import com.inventory.repository.JobRunRepository;
+import com.inventory.repository.ProductVariantRepository;
+import com.inventory.repository.StockTransactionRepository;
+import com.inventory.repository.VariantForecastRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Sales velocity and dynamic reorder points of fashion product variants. Shortly after stock movements
+ * commit (and on a periodic catch-up run) the STOCK_OUT rows of the stream (StockTransactionStream) are
+ * folded into each variant's exponentially smoothed daily demand, so history is read once and never
+ * rescanned. A day without sales is a zero-demand day, applied in closed form when the variant next
+ * sells or at the nightly recompute, which refreshes every forecast in parallel variant id ranges. The
+ * reorder point is lead-time demand plus safety stock, velocity * L + z * sigma * sqrt(L); once a
+ * variant has app.forecast.min-history-days of history it replaces minStockLevel as its low stock level
+ * (AlertService), and variants whose low stock state flips are queued for alert re-evaluation.
+ */
+@Service
+public class SalesVelocityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesVelocityService.class);
+
+    private static final String WATERMARK = "sales-velocity";
+    private static final String RECOMPUTE_JOB = "sales-velocity-recompute";
+
+    public static final int MAX_REORDER_LIST = 500;
+
+    @Autowired
+    private VariantForecastRepository variantForecastRepository;
+
+    @Autowired
+    private StockTransactionRepository stockTransactionRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private FashionProductRepository fashionProductRepository;
+
+    @Autowired
+    private StockTransactionStream stockTransactionStream;
+
+    @Autowired
+    private JobRunRepository jobRunRepository;
+
+    @Autowired
+    private AlertEvaluationService alertEvaluationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    @Qualifier("salesVelocityExecutor")
+    private ThreadPoolTaskExecutor salesVelocityExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.forecast.smoothing:0.1}")
+    private double smoothing;
+
+    @Value("${app.forecast.lead-time-days:7}")
+    private double leadTimeDays;
+
+    @Value("${app.forecast.service-level-z:1.65}")
+    private double serviceLevelZ;
+
+    @Value("${app.forecast.min-history-days:14}")
+    private long minHistoryDays;
+
+    @Value("${app.forecast.window-ms:1000}")
+    private long windowMs;
+
+    @Value("${app.forecast.partition-size:10000}")
+    private long partitionSize;
+
+    // Held by a fold, or by the recompute until its last partition completes, so no fold interleaves with it
+    // on this instance (a permit, not a lock: the recompute releases it on a worker thread)
+    private final Semaphore permit = new Semaphore(1);
+    private final AtomicBoolean wakeupScheduled = new AtomicBoolean();
+    private final AtomicLong foldedEvents = new AtomicLong();
+    private final AtomicLong recomputedForecasts = new AtomicLong();
+    private Timer foldTimer;
+    private Timer recomputeTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("inventory.forecast.events", foldedEvents, AtomicLong::get)
+                .description("STOCK_OUT transactions folded into the sales velocities")
+                .register(meterRegistry);
+        FunctionCounter.builder("inventory.forecast.recomputed", recomputedForecasts, AtomicLong::get)
+                .description("Variant forecasts refreshed by the nightly recompute")
+                .register(meterRegistry);
+        foldTimer = Timer.builder("inventory.forecast.fold")
+                .description("Time to fold new stock transactions into the sales velocities")
+                .register(meterRegistry);
+        recomputeTimer = Timer.builder("inventory.forecast.recompute")
+                .description("Time to refresh every variant forecast")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockMovement(StockMovementEvent event) {
+        if (event.getTransactionCount() == 0 || event.getFashionProductIds().isEmpty()) {
+            return;
+        }
+        scheduleWakeup(windowMs);
+    }
+
+    private void scheduleWakeup(long delayMs) {
+        // One pending wakeup at a time: later commits before it runs are folded by the same run
+        if (wakeupScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::fold, Instant.now().plusMillis(delayMs));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.forecast.fold-interval-ms:60000}",
+               fixedDelayString = "${app.forecast.fold-interval-ms:60000}")
+    public void scheduledFold() {
+        fold();
+    }
+
+    @Scheduled(cron = "${app.forecast.recompute-cron:0 30 2 * * *}")
+    public void scheduledRecompute() {
+        // Instances share the schedule; the first to claim the day runs it
+        LocalDate today = LocalDate.now();
+        if (Boolean.TRUE.equals(transactionTemplate.execute(status -> claimRecompute(today)))) {
+            recompute();
+        }
+    }
+
+    /**
+     * Fold every stock transaction the stream can hand out past the watermark into the sales velocities,
+     * one chunk per database transaction. Returns the number of transactions read (0 when a fold or
+     * recompute is running).
+     */
+    public long fold() {
+        wakeupScheduled.set(false);
+        if (!permit.tryAcquire()) {
+            return 0;
+        }
+        try {
+            return foldAll();
+        } finally {
+            permit.release();
+        }
+    }
+
+    private long foldAll() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long folded = 0;
+        boolean waiting = false;
+        try {
+            StockTransactionStream.Chunk chunk;
+            do {
+                chunk = stockTransactionStream.consumeNext(WATERMARK, this::foldEvents);
+                folded += chunk.getConsumed();
+                foldedEvents.addAndGet(chunk.getConsumed());
+            } while (chunk.hasMore());
+            waiting = chunk.isWaiting();
+            if (folded > 0) {
+                logger.debug("📉 Folded {} stock transactions into the sales velocities", folded);
+            }
+        } catch (Exception e) {
+            logger.error("❌ Sales velocity fold failed: {}", e.getMessage());
+        } finally {
+            sample.stop(foldTimer);
+        }
+        // Rows behind an id gap that has not settled get a run of their own once it has
+        if (waiting) {
+            scheduleWakeup(stockTransactionStream.getSettleSeconds() * 1000);
+        }
+        return folded;
+    }
+
+    /**
+     * Fold the sales of one chunk of the stream into their variants' forecasts (runs in the chunk's transaction)
+     */
+    private void foldEvents(long afterId, long throughId) {
+        // Sales of variants in id order (regular products have no variant; a sale without a time has no day)
+        Map<Long, List<Object[]>> salesByVariant = new LinkedHashMap<>();
+        for (Object[] event : stockTransactionRepository.findLedgerEventsBetween(afterId, throughId)) {
+            if (event[1] != null && event[2] == StockTransaction.TransactionType.STOCK_OUT && event[4] != null) {
+                salesByVariant.computeIfAbsent((Long) event[1], id -> new ArrayList<>()).add(event);
+            }
+        }
+        if (salesByVariant.isEmpty()) {
+            return;
+        }
+
+        Map<Long, VariantForecast> forecasts = new HashMap<>();
+        for (VariantForecast forecast : variantForecastRepository.findAllById(salesByVariant.keySet())) {
+            forecasts.put(forecast.getProductVariantId(), forecast);
+        }
+
+        LocalDate today = LocalDate.now();
+        List<AlertEvaluationTask> flipped = new ArrayList<>();
+        // Deleted variants are not returned, and their sales are skipped
+        for (Object[] variant : productVariantRepository.findStockLevelsByIds(salesByVariant.keySet())) {
+            Long variantId = (Long) variant[0];
+            List<Object[]> sales = salesByVariant.get(variantId);
+            VariantForecast forecast = forecasts.get(variantId);
+            if (forecast == null) {
+                // Days between the variant's creation and its first sale count as zero-demand days
+                LocalDate firstSaleDay = ((LocalDateTime) sales.get(0)[4]).toLocalDate();
+                LocalDateTime createdAt = (LocalDateTime) variant[4];
+                LocalDate firstDay = createdAt != null && createdAt.toLocalDate().isBefore(firstSaleDay)
+                        ? createdAt.toLocalDate() : firstSaleDay;
+                forecast = new VariantForecast(variantId, firstDay, firstSaleDay);
+                entityManager.persist(forecast);
+            }
+            Integer reorderPointBefore = forecast.getReorderPoint();
+            for (Object[] sale : sales) {
+                recordSale(forecast, ((LocalDateTime) sale[4]).toLocalDate(), (Integer) sale[3]);
+            }
+            refresh(forecast, today);
+            if (lowStockChanged((Integer) variant[2], (Integer) variant[3], reorderPointBefore, forecast.getReorderPoint())) {
+                flipped.add(new AlertEvaluationTask(AlertEvaluationTask.TargetType.VARIANT, variantId, (Long) variant[1]));
+            }
+        }
+        // Forecasts are managed, so their changes are flushed on commit
+        alertEvaluationService.enqueueAll(flipped);
+    }
+
+    private boolean claimRecompute(LocalDate day) {
+        JobRun run = jobRunRepository.findByNameForUpdate(RECOMPUTE_JOB)
+                .orElseGet(() -> jobRunRepository.save(new JobRun(RECOMPUTE_JOB)));
+        if (!run.getLastRunOn().isBefore(day)) {
+            return false;
+        }
+        run.setLastRunOn(day);
+        run.setUpdatedAt(LocalDateTime.now());
+        return true;
+    }
+
+    /**
+     * Refresh every forecast as of today (closing the days without sales since it was last computed),
+     * after folding the stock transactions the stream can hand out. One task per salesVelocityExecutor
+     * worker takes variant id ranges of app.forecast.partition-size in turn, each in its own transaction.
+     * The calling thread only starts the run (if a fold is in progress it starts right after it); the
+     * returned future completes with the number of forecasts refreshed.
+     */
+    public CompletableFuture<Long> recompute() {
+        CompletableFuture<Long> result = new CompletableFuture<>();
+        startRecompute(result);
+        return result;
+    }
+
+    private void startRecompute(CompletableFuture<Long> result) {
+        if (!permit.tryAcquire()) {
+            taskScheduler.schedule(() -> startRecompute(result), Instant.now().plusMillis(windowMs));
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        try {
+            foldAll();
+            List<Object[]> range = variantForecastRepository.findIdRange();
+            if (range.isEmpty() || range.get(0)[0] == null) {
+                sample.stop(recomputeTimer);
+                permit.release();
+                result.complete(0L);
+                return;
+            }
+            long maxId = (Long) range.get(0)[1];
+            AtomicLong nextFromId = new AtomicLong((Long) range.get(0)[0]);
+            LocalDate today = LocalDate.now();
+            AtomicLong refreshed = new AtomicLong();
+            AtomicInteger partitions = new AtomicInteger();
+            AtomicInteger failedPartitions = new AtomicInteger();
+            for (int i = 0; i < salesVelocityExecutor.getMaxPoolSize(); i++) {
+                workers.add(CompletableFuture.runAsync(() ->
+                        recomputePartitions(nextFromId, maxId, today, refreshed, partitions, failedPartitions),
+                        salesVelocityExecutor));
+            }
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, e) -> {
+                sample.stop(recomputeTimer);
+                permit.release();
+                recomputedForecasts.addAndGet(refreshed.get());
+                logger.info("📉 Recomputed {} variant forecasts in {} partitions ({} failed) in {} ms",
+                        refreshed.get(), partitions.get(), failedPartitions.get(), System.currentTimeMillis() - start);
+                result.complete(refreshed.get());
+            });
+        } catch (RuntimeException e) {
+            // Tasks already submitted run to completion before the permit is given back
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, failure) -> {
+                sample.stop(recomputeTimer);
+                permit.release();
+            });
+            logger.error("❌ Sales velocity recompute failed: {}", e.getMessage());
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Recompute variant id ranges until none is left (runs on a salesVelocityExecutor worker)
+     */
+    private void recomputePartitions(AtomicLong nextFromId, long maxId, LocalDate today, AtomicLong refreshed,
+                                     AtomicInteger partitions, AtomicInteger failedPartitions) {
+        for (long from = nextFromId.getAndAdd(partitionSize); from <= maxId; from = nextFromId.getAndAdd(partitionSize)) {
+            long fromId = from;
+            long toId = Math.min(fromId + partitionSize - 1, maxId);
+            partitions.incrementAndGet();
+            try {
+                Integer count = transactionTemplate.execute(status -> recomputePartition(fromId, toId, today));
+                refreshed.addAndGet(count);
+            } catch (Exception e) {
+                // The partition keeps yesterday's forecasts; its variants are refreshed as they sell
+                failedPartitions.incrementAndGet();
+                logger.error("❌ Sales velocity recompute failed for variants {}-{}: {}", fromId, toId, e.getMessage());
+            }
+        }
+    }
+
+    private int recomputePartition(long fromId, long toId, LocalDate today) {
+        List<Object[]> rows = variantForecastRepository.findPartitionWithStockLevels(fromId, toId);
+        List<AlertEvaluationTask> flipped = new ArrayList<>();
+        for (Object[] row : rows) {
+            VariantForecast forecast = (VariantForecast) row[0];
+            Integer reorderPointBefore = forecast.getReorderPoint();
+            refresh(forecast, today);
+            if (lowStockChanged((Integer) row[2], (Integer) row[3], reorderPointBefore, forecast.getReorderPoint())) {
+                flipped.add(new AlertEvaluationTask(AlertEvaluationTask.TargetType.VARIANT,
+                        forecast.getProductVariantId(), (Long) row[1]));
+            }
+        }
+        alertEvaluationService.enqueueAll(flipped);
+        return rows.size();
+    }
+
+    /**
+     * Add a sale to the open day; a sale on a later day first closes the open day and the days without
+     * sales in between. A sale dated before the open day (settled late) counts towards the open day.
+     */
+    private void recordSale(VariantForecast forecast, LocalDate day, int quantity) {
+        if (day.isAfter(forecast.getOpenDay())) {
+            double[] smoothed = smoothedThrough(forecast, day);
+            forecast.setSmoothedOut(smoothed[0]);
+            forecast.setSmoothedOutSq(smoothed[1]);
+            forecast.setOpenDay(day);
+            forecast.setOpenDayOut(0L);
+        }
+        forecast.setOpenDayOut(forecast.getOpenDayOut() + quantity);
+    }
+
+    /**
+     * Smoothed [daily out, daily out squared] over the days before a day: the open day's sales, then a
+     * zero for every day between the open day and that day
+     */
+    private double[] smoothedThrough(VariantForecast forecast, LocalDate day) {
+        double mean = forecast.getSmoothedOut();
+        double meanSq = forecast.getSmoothedOutSq();
+        if (day.isAfter(forecast.getOpenDay())) {
+            double out = forecast.getOpenDayOut();
+            double decay = Math.pow(1 - smoothing, ChronoUnit.DAYS.between(forecast.getOpenDay(), day) - 1);
+            mean = (smoothing * out + (1 - smoothing) * mean) * decay;
+            meanSq = (smoothing * out * out + (1 - smoothing) * meanSq) * decay;
+        }
+        return new double[] {mean, meanSq};
+    }
+
+    /**
+     * Derive velocity, deviation and reorder point from the complete days before a day. The smoothed
+     * values started from zero, so they are divided by the weight their days carry (1 - (1 - alpha)^days).
+     */
+    private void refresh(VariantForecast forecast, LocalDate day) {
+        double[] smoothed = smoothedThrough(forecast, day);
+        LocalDate through = day.isAfter(forecast.getOpenDay()) ? day : forecast.getOpenDay();
+        long historyDays = ChronoUnit.DAYS.between(forecast.getFirstDay(), through);
+        double weight = 1 - Math.pow(1 - smoothing, historyDays);
+        double velocity = weight > 0 ? smoothed[0] / weight : 0;
+        double stdDev = weight > 0 ? Math.sqrt(Math.max(0, smoothed[1] / weight - velocity * velocity)) : 0;
+
+        forecast.setDailyVelocity(velocity);
+        forecast.setVelocityStdDev(stdDev);
+        forecast.setReorderPoint(historyDays >= minHistoryDays
+                ? (int) Math.ceil(velocity * leadTimeDays + serviceLevelZ * stdDev * Math.sqrt(leadTimeDays))
+                : null);
+        forecast.setComputedOn(day);
+        forecast.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Whether a variant's low stock state (quantity at or below the reorder point, or minStockLevel while
+     * there is none) differs between two reorder points
+     */
+    static boolean lowStockChanged(int quantity, int minStockLevel, Integer reorderPointBefore, Integer reorderPointAfter) {
+        int before = reorderPointBefore != null ? reorderPointBefore : minStockLevel;
+        int after = reorderPointAfter != null ? reorderPointAfter : minStockLevel;
+        return (quantity <= before) != (quantity <= after);
+    }
+
+    /**
+     * Forecast of one variant
+     */
+    @Transactional(readOnly = true)
+    public VariantForecastResponse getVariantForecast(Long variantId) {
+        List<Object[]> rows = variantForecastRepository.findVariantWithForecast(variantId);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Product variant not found with ID: " + variantId);
+        }
+        return toResponse(rows.get(0));
+    }
+
+    /**
+     * Forecasts of every variant of a fashion product
+     */
+    @Transactional(readOnly = true)
+    public List<VariantForecastResponse> getProductForecasts(Long productId) {
+        if (!fashionProductRepository.existsById(productId)) {
+            throw new RuntimeException("Fashion product not found with ID: " + productId);
+        }
+        return variantForecastRepository.findVariantsWithForecastByProductId(productId).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Variants at or below their dynamic reorder point, fewest days of cover first
+     */
+    @Transactional(readOnly = true)
+    public List<VariantForecastResponse> getReorderList(int limit) {
+        if (limit < 1 || limit > MAX_REORDER_LIST) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_REORDER_LIST);
+        }
+        return variantForecastRepository.findAtOrBelowReorderPoint(PageRequest.of(0, limit)).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    private VariantForecastResponse toResponse(Object[] row) {
+        ProductVariant variant = (ProductVariant) row[0];
+        VariantForecast forecast = (VariantForecast) row[1];
+        if (forecast == null) {
+            return new VariantForecastResponse(variant, LocalDate.now());
+        }
+        VariantForecastResponse response = new VariantForecastResponse(variant, forecast.getComputedOn());
+        response.setDailyVelocity(forecast.getDailyVelocity());
+        response.setVelocityStdDev(forecast.getVelocityStdDev());
+        LocalDate through = forecast.getComputedOn().isAfter(forecast.getOpenDay()) ? forecast.getComputedOn() : forecast.getOpenDay();
+        response.setHistoryDays(ChronoUnit.DAYS.between(forecast.getFirstDay(), through));
+        response.setReorderPoint(forecast.getReorderPoint());
+        if (forecast.getReorderPoint() != null) {
+            response.setReorderLevel(forecast.getReorderPoint());
+            response.setLowStock(variant.getQuantity() <= forecast.getReorderPoint());
+        }
+        if (forecast.getDailyVelocity() > 0) {
+            response.setDaysOfCover(variant.getQuantity() / forecast.getDailyVelocity());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,81 @@
+package com.inventory.service;
+
+import com.inventory.dto.FashionProductStockAt;
+import com.inventory.dto.VariantStockAt;
+import com.inventory.model.ProductVariant;
+import com.inventory.repository.FashionProductRepository;
+import com.inventory.repository.StockHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Point-in-time stock of fashion products, read from the stock ledger snapshots (StockLedgerService):
+ * the nearest snapshot of each variant plus an indexed range sum of the movements after it, one query
+ * for any number of products however long the history is.
+ */
+@Service
+public class StockHistoryService {
+
+    public static final int MAX_BULK_PRODUCTS = 200;
+
+    @Autowired
+    private StockHistoryRepository stockHistoryRepository;
+
+    @Autowired
+    private FashionProductRepository fashionProductRepository;
+
+    /**
+     * Stock of one fashion product's variants at a point in time
+     */
+    @Transactional(readOnly = true)
+    public FashionProductStockAt getStockAt(Long productId, LocalDateTime at) {
+        List<FashionProductStockAt> stock = getStockAt(List.of(productId), at);
+        if (stock.isEmpty()) {
+            throw new RuntimeException("Fashion product not found with ID: " + productId);
+        }
+        return stock.get(0);
+    }
+
+    /**
+     * Stock of several fashion products at a point in time, in the order requested (unknown ids are left out)
+     */
+    @Transactional(readOnly = true)
+    public List<FashionProductStockAt> getStockAt(Collection<Long> productIds, LocalDateTime at) {
+        Set<Long> requested = new LinkedHashSet<>(productIds);
+        if (requested.size() > MAX_BULK_PRODUCTS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_PRODUCTS + " products per request");
+        }
+        if (requested.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, FashionProductStockAt> stock = new LinkedHashMap<>();
+        requested.retainAll(fashionProductRepository.findExistingIds(requested));
+        for (Long productId : requested) {
+            stock.put(productId, new FashionProductStockAt(productId, at));
+        }
+        if (stock.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        for (Object[] row : stockHistoryRepository.findQuantitiesAt(stock.keySet(), at)) {
+            FashionProductStockAt product = stock.get((Long) row[1]);
+            if (product != null) {
+                product.addVariant(new VariantStockAt((Long) row[0], (String) row[2],
+                        ProductVariant.Size.valueOf((String) row[3]), ProductVariant.Color.valueOf((String) row[4]),
+                        (Integer) row[5]));
+            }
+        }
+        return new ArrayList<>(stock.values());
+    }
+}
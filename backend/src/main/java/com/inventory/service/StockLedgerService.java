@@ -0,0 +1,335 @@
+package com.inventory.service;
+
+import com.inventory.dto.StockLedgerDrift;
+import com.inventory.event.StockMovementEvent;
+import com.inventory.model.JobWatermark;
+import com.inventory.model.ProductVariant;
+import com.inventory.model.StockLedgerHead;
+import com.inventory.model.StockSnapshot;
+import com.inventory.model.StockTransaction;
+import com.inventory.repository.FashionProductRepository;
+import com.inventory.repository.JobWatermarkRepository;
+import com.inventory.repository.ProductVariantRepository;
+import com.inventory.repository.StockLevelRepository;
+import com.inventory.repository.StockLedgerHeadRepository;
+import com.inventory.repository.StockSnapshotRepository;
+import com.inventory.repository.StockTransactionRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Stock ledger over the append-only stock_transactions stream, which is treated as the source of truth
+ * for variant quantities. A background fold consumes the stream (StockTransactionStream) and keeps one
+ * running head per variant. When a variant is first seen its opening quantity (recorded quantity minus
+ * all of its movements) is stored as a snapshot, and every app.ledger.snapshot-every movements the head
+ * is snapshotted again, so the quantity at any time is replayed from the nearest earlier snapshot.
+ * Comparing the ledger with ProductVariant.quantity shows where the mutable column has drifted.
+ */
+@Service
+public class StockLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedgerService.class);
+
+    private static final String WATERMARK = "stock-ledger";
+
+    @Autowired
+    private StockTransactionRepository stockTransactionRepository;
+
+    @Autowired
+    private StockLedgerHeadRepository stockLedgerHeadRepository;
+
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    @Autowired
+    private StockTransactionStream stockTransactionStream;
+
+    @Autowired
+    private JobWatermarkRepository jobWatermarkRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private FashionProductRepository fashionProductRepository;
+
+    @Autowired
+    private StockLevelRepository stockLevelRepository;
+
+    @Autowired
+    private AlertEvaluationService alertEvaluationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.ledger.snapshot-every:100}")
+    private int snapshotEvery;
+
+    private final AtomicBoolean folding = new AtomicBoolean();
+    private final AtomicLong foldedEvents = new AtomicLong();
+    private final AtomicLong snapshotsWritten = new AtomicLong();
+    private volatile LocalDateTime lastFoldAt;
+    private volatile long lastFoldDurationMs;
+    private Timer foldTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("inventory.ledger.lag", this, StockLedgerService::getPendingEvents)
+                .description("Stock transactions not folded into the ledger yet")
+                .register(meterRegistry);
+        FunctionCounter.builder("inventory.ledger.events", foldedEvents, AtomicLong::get)
+                .description("Stock transactions folded into the ledger")
+                .register(meterRegistry);
+        FunctionCounter.builder("inventory.ledger.snapshots", snapshotsWritten, AtomicLong::get)
+                .description("Ledger snapshots written")
+                .register(meterRegistry);
+        foldTimer = Timer.builder("inventory.ledger.fold")
+                .description("Time to fold new stock transactions into the ledger")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.ledger.fold-interval-ms:60000}",
+               fixedDelayString = "${app.ledger.fold-interval-ms:60000}")
+    public void scheduledFold() {
+        fold();
+    }
+
+    /**
+     * Fold every stock transaction the stream can hand out past the watermark, one chunk per database
+     * transaction. Returns the number of transactions folded (0 when another fold is running).
+     */
+    public long fold() {
+        if (!folding.compareAndSet(false, true)) {
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long folded = 0;
+        try {
+            StockTransactionStream.Chunk chunk;
+            do {
+                chunk = stockTransactionStream.consumeNext(WATERMARK, this::foldEvents);
+                folded += chunk.getConsumed();
+                foldedEvents.addAndGet(chunk.getConsumed());
+            } while (chunk.hasMore());
+            if (folded > 0) {
+                logger.debug("📒 Folded {} stock transactions into the ledger", folded);
+            }
+        } catch (Exception e) {
+            logger.error("❌ Stock ledger fold failed: {}", e.getMessage());
+        } finally {
+            lastFoldAt = LocalDateTime.now();
+            lastFoldDurationMs = System.currentTimeMillis() - start;
+            sample.stop(foldTimer);
+            folding.set(false);
+        }
+        return folded;
+    }
+
+    /**
+     * Fold one chunk of the stream into the variant heads (runs in the chunk's transaction)
+     */
+    private void foldEvents(long afterId, long throughId) {
+        List<Object[]> events = stockTransactionRepository.findLedgerEventsBetween(afterId, throughId);
+
+        // First movement time of every variant in the chunk (regular products have no variant)
+        Map<Long, LocalDateTime> firstEventAt = new LinkedHashMap<>();
+        for (Object[] event : events) {
+            if (event[1] != null) {
+                firstEventAt.putIfAbsent((Long) event[1], (LocalDateTime) event[4]);
+            }
+        }
+
+        Map<Long, StockLedgerHead> heads = new HashMap<>();
+        List<StockSnapshot> snapshots = new ArrayList<>();
+        if (!firstEventAt.isEmpty()) {
+            for (StockLedgerHead head : stockLedgerHeadRepository.findAllById(firstEventAt.keySet())) {
+                heads.put(head.getProductVariantId(), head);
+            }
+            Set<Long> unseen = new TreeSet<>(firstEventAt.keySet());
+            unseen.removeAll(heads.keySet());
+            if (!unseen.isEmpty()) {
+                openHeads(unseen, afterId, firstEventAt, heads, snapshots);
+            }
+        }
+
+        for (Object[] event : events) {
+            StockLedgerHead head = event[1] != null ? heads.get((Long) event[1]) : null;
+            if (head == null) {
+                continue;
+            }
+            head.setQuantity(head.getQuantity() + signedQuantity((StockTransaction.TransactionType) event[2], (Integer) event[3]));
+            head.setLastTransactionId((Long) event[0]);
+            head.setEventsSinceSnapshot(head.getEventsSinceSnapshot() + 1);
+            // A snapshot needs a point in time, so a movement without one leaves it to the next movement
+            LocalDateTime createdAt = (LocalDateTime) event[4];
+            if (head.getEventsSinceSnapshot() >= snapshotEvery && createdAt != null) {
+                snapshots.add(new StockSnapshot(head.getProductVariantId(), head.getLastTransactionId(),
+                        head.getQuantity(), createdAt));
+                head.setEventsSinceSnapshot(0);
+            }
+        }
+
+        // Heads are managed, so their changes are flushed on commit
+        LocalDateTime now = LocalDateTime.now();
+        heads.values().forEach(head -> head.setUpdatedAt(now));
+        stockSnapshotRepository.saveAll(snapshots);
+        snapshotsWritten.addAndGet(snapshots.size());
+    }
+
+    /**
+     * Start the ledger of variants seen for the first time. None of their movements has been folded,
+     * so the opening quantity is the recorded quantity minus every movement past the watermark (read in
+     * the same transaction, so both include exactly the same committed movements).
+     */
+    private void openHeads(Set<Long> variantIds, Long watermarkId, Map<Long, LocalDateTime> firstEventAt,
+                           Map<Long, StockLedgerHead> heads, List<StockSnapshot> snapshots) {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Object[] row : stockTransactionRepository.sumQuantityDeltaByVariantAfter(variantIds, watermarkId)) {
+            deltas.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        for (Object[] row : productVariantRepository.findQuantityAndCreatedAtByIds(variantIds)) {
+            Long variantId = (Long) row[0];
+            int opening = (int) ((Integer) row[1] - deltas.getOrDefault(variantId, 0L));
+            StockLedgerHead head = new StockLedgerHead(variantId, watermarkId, opening);
+            entityManager.persist(head);
+            heads.put(variantId, head);
+
+            LocalDateTime createdAt = (LocalDateTime) row[2];
+            LocalDateTime openedAt = createdAt != null ? createdAt : firstEventAt.get(variantId);
+            if (openedAt == null) {
+                // Neither the variant nor its first movement has a time: it was there from the start
+                openedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+            }
+            snapshots.add(new StockSnapshot(variantId, watermarkId, opening, openedAt));
+        }
+    }
+
+    /**
+     * Quantity of a variant at a point in time: the nearest earlier snapshot plus the movements after it.
+     * Before the variant's opening snapshot (not folded yet) the movements since then are undone from
+     * the recorded quantity instead.
+     */
+    @Transactional(readOnly = true)
+    public int getQuantityAt(Long variantId, LocalDateTime at) {
+        List<StockSnapshot> nearest = stockSnapshotRepository.findLatestAtOrBefore(variantId, at, PageRequest.of(0, 1));
+        if (!nearest.isEmpty()) {
+            StockSnapshot snapshot = nearest.get(0);
+            return (int) (snapshot.getQuantity()
+                    + stockTransactionRepository.sumQuantityDeltaAfter(variantId, snapshot.getLastTransactionId(), at));
+        }
+
+        ProductVariant variant = productVariantRepository.findById(variantId)
+                .orElseThrow(() -> new RuntimeException("Product variant not found with ID: " + variantId));
+        if (variant.getCreatedAt() != null && variant.getCreatedAt().isAfter(at)) {
+            return 0;
+        }
+        return (int) (variant.getQuantity() - stockTransactionRepository.sumQuantityDeltaSince(variantId, at));
+    }
+
+    /**
+     * Variants whose recorded quantity differs from their ledger quantity
+     */
+    @Transactional(readOnly = true)
+    public List<StockLedgerDrift> getDrift() {
+        return stockLedgerHeadRepository.findLedgerDrift().stream()
+                .map(row -> new StockLedgerDrift((Long) row[0], (Long) row[1], (String) row[2],
+                        (Integer) row[3], ((Number) row[4]).intValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reset the recorded quantity of every drifting variant to its ledger quantity. A variant moved since
+     * the report was read is left alone (it is reported again if it still drifts). Product totals,
+     * alerts and the availability index follow the corrected quantities.
+     */
+    public List<StockLedgerDrift> repairDrift() {
+        List<StockLedgerDrift> drift = getDrift();
+        List<StockLedgerDrift> repaired = transactionTemplate.execute(status -> {
+            List<StockLedgerDrift> updated = new ArrayList<>();
+            Set<Long> fashionProductIds = new TreeSet<>();
+            for (StockLedgerDrift variant : drift) {
+                if (stockLevelRepository.setQuantityIfUnchanged(variant.getVariantId(),
+                        variant.getRecordedQuantity(), variant.getLedgerQuantity()) == 1) {
+                    alertEvaluationService.enqueueVariant(variant.getVariantId(), variant.getFashionProductId());
+                    fashionProductIds.add(variant.getFashionProductId());
+                    updated.add(variant);
+                }
+            }
+            fashionProductIds.forEach(stockLevelRepository::recalculateStockTotals);
+            eventPublisher.publishEvent(new StockMovementEvent(Set.copyOf(fashionProductIds), 0));
+            return updated;
+        });
+        if (!repaired.isEmpty()) {
+            logger.warn("🛠️ Reset {} variant quantities to the stock ledger", repaired.size());
+        }
+        return repaired;
+    }
+
+    /**
+     * Stock transactions past the watermark
+     */
+    public long getPendingEvents() {
+        return stockTransactionRepository.countByIdGreaterThan(stockTransactionStream.getWatermark(WATERMARK));
+    }
+
+    /**
+     * Ledger position, size and fold activity since startup
+     */
+    public Map<String, Object> getStatistics() {
+        JobWatermark watermark = jobWatermarkRepository.findById(WATERMARK).orElse(null);
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("watermark", watermark != null ? watermark.getLastId() : 0L);
+        statistics.put("watermarkUpdatedAt", watermark != null ? watermark.getUpdatedAt() : null);
+        statistics.put("pendingEvents", getPendingEvents());
+        statistics.put("trackedVariants", stockLedgerHeadRepository.count());
+        statistics.put("snapshots", stockSnapshotRepository.count());
+        statistics.put("foldedEvents", foldedEvents.get());
+        statistics.put("snapshotsWritten", snapshotsWritten.get());
+        statistics.put("lastFoldAt", lastFoldAt);
+        statistics.put("lastFoldDurationMs", lastFoldDurationMs);
+        statistics.put("snapshotEvery", snapshotEvery);
+        statistics.put("settleSeconds", stockTransactionStream.getSettleSeconds());
+        return statistics;
+    }
+
+    private static int signedQuantity(StockTransaction.TransactionType type, int quantity) {
+        return type == StockTransaction.TransactionType.STOCK_IN ? quantity : -quantity;
+    }
+}
@@ -0,0 +1,297 @@
+package com.inventory.service;
+
+import com.inventory.dto.StockMovementBucket;
+import com.inventory.event.StockMovementEvent;
+import com.inventory.model.StockTransaction;
+import com.inventory.repository.StockMovementRollupRepository;
+import com.inventory.repository.StockTransactionRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hourly and daily stock movement volume per product, fashion product, category, brand and user, kept in
+ * stock_movement_rollups so statistics never scan stock_transactions. Shortly after a stock movement
+ * commits (and on a periodic catch-up run) the next chunks of the stream (StockTransactionStream) are
+ * aggregated in memory and added to their buckets with one batched upsert, in the transaction that
+ * advances the watermark, so each row is counted exactly once. Rows the stream cannot hand out yet are
+ * left to a later run; queries add them from stock_transactions. Rows without a creation time are
+ * counted in the 1970-01-01 buckets.
+ */
+@Service
+public class StockMovementRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockMovementRollupService.class);
+
+    private static final String WATERMARK = "stock-movement-rollups";
+
+    private static final Duration MAX_HOURLY_RANGE = Duration.ofDays(31);
+    private static final Duration MAX_DAILY_RANGE = Duration.ofDays(3660);
+
+    // Bucket time of rows without a creation time
+    private static final LocalDateTime UNDATED = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private StockTransactionRepository stockTransactionRepository;
+
+    @Autowired
+    private StockMovementRollupRepository stockMovementRollupRepository;
+
+    @Autowired
+    private StockTransactionStream stockTransactionStream;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rollups.window-ms:1000}")
+    private long windowMs;
+
+    private final AtomicBoolean wakeupScheduled = new AtomicBoolean();
+    private final AtomicBoolean folding = new AtomicBoolean();
+    private final AtomicLong foldedEvents = new AtomicLong();
+    private Timer foldTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("inventory.rollups.events", foldedEvents, AtomicLong::get)
+                .description("Stock transactions folded into the movement rollups")
+                .register(meterRegistry);
+        foldTimer = Timer.builder("inventory.rollups.fold")
+                .description("Time to fold new stock transactions into the movement rollups")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockMovement(StockMovementEvent event) {
+        if (event.getTransactionCount() == 0) {
+            return;
+        }
+        scheduleWakeup(windowMs);
+    }
+
+    private void scheduleWakeup(long delayMs) {
+        // One pending wakeup at a time: later commits before it runs are folded by the same run
+        if (wakeupScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::fold, Instant.now().plusMillis(delayMs));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.rollups.catch-up-interval-ms:60000}",
+               fixedDelayString = "${app.rollups.catch-up-interval-ms:60000}")
+    public void scheduledFold() {
+        fold();
+    }
+
+    /**
+     * Fold every stock transaction the stream can hand out past the watermark into the rollups, one chunk
+     * per database transaction. Returns the number of transactions folded (0 when another fold is running).
+     */
+    public long fold() {
+        wakeupScheduled.set(false);
+        if (!folding.compareAndSet(false, true)) {
+            return 0;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long folded = 0;
+        boolean waiting = false;
+        try {
+            StockTransactionStream.Chunk chunk;
+            do {
+                chunk = stockTransactionStream.consumeNext(WATERMARK, this::foldEvents);
+                folded += chunk.getConsumed();
+                foldedEvents.addAndGet(chunk.getConsumed());
+            } while (chunk.hasMore());
+            waiting = chunk.isWaiting();
+            if (folded > 0) {
+                logger.debug("📈 Folded {} stock transactions into the movement rollups", folded);
+            }
+        } catch (Exception e) {
+            logger.error("❌ Stock movement rollup fold failed: {}", e.getMessage());
+        } finally {
+            sample.stop(foldTimer);
+            folding.set(false);
+        }
+        // Rows behind an id gap that has not settled get a run of their own once it has
+        if (waiting) {
+            scheduleWakeup(stockTransactionStream.getSettleSeconds() * 1000);
+        }
+        return folded;
+    }
+
+    /**
+     * Add one chunk of the stream to its buckets (runs in the chunk's transaction)
+     */
+    private void foldEvents(long afterId, long throughId) {
+        Map<String, StockMovementBucket> buckets = new HashMap<>();
+        for (Object[] event : stockTransactionRepository.findRollupEventsBetween(afterId, throughId)) {
+            for (StockMovementBucket.Granularity granularity : StockMovementBucket.Granularity.values()) {
+                accumulate(buckets, event, granularity, null);
+            }
+        }
+        stockMovementRollupRepository.addAll(buckets.values());
+    }
+
+    /**
+     * Movement volume of one dimension (one key, or every key when null) in the buckets starting in
+     * [from, to) with from aligned down to its bucket, oldest first. Transactions not folded yet are added
+     * from stock_transactions; upToDate is false when more of them are pending than one chunk.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSeries(StockMovementBucket.Granularity granularity,
+                                         StockMovementBucket.Dimension dimension, String key,
+                                         LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        Duration maxRange = granularity == StockMovementBucket.Granularity.HOUR ? MAX_HOURLY_RANGE : MAX_DAILY_RANGE;
+        if (Duration.between(from, to).compareTo(maxRange) > 0) {
+            throw new IllegalArgumentException("At most " + maxRange.toDays() + " days of " +
+                    granularity.name().toLowerCase() + "ly buckets per request");
+        }
+        if (dimension == StockMovementBucket.Dimension.TOTAL) {
+            key = "";
+        }
+        LocalDateTime start = granularity.bucketStart(from);
+
+        Map<String, StockMovementBucket> series = new LinkedHashMap<>();
+        for (StockMovementBucket bucket : stockMovementRollupRepository.findSeries(granularity, dimension, key, start, to)) {
+            series.put(bucketId(bucket.getGranularity(), bucket.getDimension(), bucket.getKey(), bucket.getBucketStart()), bucket);
+        }
+
+        int chunkSize = stockTransactionStream.getChunkSize();
+        List<Object[]> pending = stockTransactionRepository.findRollupEventsAfter(
+                getWatermark(), PageRequest.of(0, chunkSize));
+        Map<String, StockMovementBucket> tail = new HashMap<>();
+        for (Object[] event : pending) {
+            LocalDateTime createdAt = (LocalDateTime) event[1];
+            if (createdAt != null && !createdAt.isBefore(start) && createdAt.isBefore(to)) {
+                accumulate(tail, event, granularity, dimension);
+            }
+        }
+        for (Map.Entry<String, StockMovementBucket> entry : tail.entrySet()) {
+            if (key == null || key.equals(entry.getValue().getKey())) {
+                series.merge(entry.getKey(), entry.getValue(), (folded, live) -> {
+                    folded.add(live);
+                    return folded;
+                });
+            }
+        }
+
+        List<StockMovementBucket> buckets = new ArrayList<>(series.values());
+        buckets.sort(Comparator.comparing(StockMovementBucket::getBucketStart).thenComparing(StockMovementBucket::getKey));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("granularity", granularity);
+        result.put("dimension", dimension);
+        result.put("key", key);
+        result.put("from", start);
+        result.put("to", to);
+        result.put("upToDate", pending.size() < chunkSize);
+        result.put("series", buckets);
+        return result;
+    }
+
+    /**
+     * Number of stock transactions created at or after a time: the hourly buckets from the next full hour,
+     * the transactions between the time and that hour counted directly, and those not folded yet
+     */
+    @Transactional(readOnly = true)
+    public long countSince(LocalDateTime since) {
+        LocalDateTime hourStart = StockMovementBucket.Granularity.HOUR.bucketStart(since);
+        LocalDateTime nextHour = hourStart.equals(since) ? since : hourStart.plusHours(1);
+        long partialHour = nextHour.isAfter(since)
+                ? stockTransactionRepository.countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(since, nextHour) : 0;
+        return partialHour
+                + stockMovementRollupRepository.sumCount(StockMovementBucket.Granularity.HOUR,
+                        StockMovementBucket.Dimension.TOTAL, "", nextHour)
+                + stockTransactionRepository.countByIdGreaterThanAndCreatedAtGreaterThanEqual(getWatermark(), nextHour);
+    }
+
+    /**
+     * Number of stock transactions recorded
+     */
+    @Transactional(readOnly = true)
+    public long countAll() {
+        return stockMovementRollupRepository.sumCount(StockMovementBucket.Granularity.DAY,
+                        StockMovementBucket.Dimension.TOTAL, "", UNDATED)
+                + stockTransactionRepository.countByIdGreaterThan(getWatermark());
+    }
+
+    private long getWatermark() {
+        return stockTransactionStream.getWatermark(WATERMARK);
+    }
+
+    /**
+     * Count one [id, createdAt, type, quantity, productId, productCategory, fashionProductId,
+     * fashionCategory, brand, userId] row into its buckets of one granularity (of one dimension, or all when null)
+     */
+    private static void accumulate(Map<String, StockMovementBucket> buckets, Object[] event,
+                                   StockMovementBucket.Granularity granularity,
+                                   StockMovementBucket.Dimension onlyDimension) {
+        StockTransaction.TransactionType type = (StockTransaction.TransactionType) event[2];
+        int quantity = (Integer) event[3];
+        LocalDateTime createdAt = event[1] != null ? (LocalDateTime) event[1] : UNDATED;
+        LocalDateTime start = granularity.bucketStart(createdAt);
+
+        Map<StockMovementBucket.Dimension, String> keys = new EnumMap<>(StockMovementBucket.Dimension.class);
+        keys.put(StockMovementBucket.Dimension.TOTAL, "");
+        if (event[4] != null) {
+            keys.put(StockMovementBucket.Dimension.PRODUCT, event[4].toString());
+            if (event[5] != null) {
+                keys.put(StockMovementBucket.Dimension.CATEGORY, (String) event[5]);
+            }
+        }
+        if (event[6] != null) {
+            keys.put(StockMovementBucket.Dimension.FASHION_PRODUCT, event[6].toString());
+            if (event[7] != null) {
+                keys.put(StockMovementBucket.Dimension.CATEGORY, ((Enum<?>) event[7]).name());
+            }
+            if (event[8] != null) {
+                keys.put(StockMovementBucket.Dimension.BRAND, (String) event[8]);
+            }
+        }
+        keys.put(StockMovementBucket.Dimension.USER, event[9].toString());
+
+        for (Map.Entry<StockMovementBucket.Dimension, String> entry : keys.entrySet()) {
+            if (onlyDimension != null && entry.getKey() != onlyDimension) {
+                continue;
+            }
+            buckets.computeIfAbsent(bucketId(granularity, entry.getKey(), entry.getValue(), start),
+                    id -> new StockMovementBucket(granularity, entry.getKey(), entry.getValue(), start))
+                    .add(type, quantity);
+        }
+    }
+
+    private static String bucketId(StockMovementBucket.Granularity granularity, StockMovementBucket.Dimension dimension,
+                                   String key, LocalDateTime bucketStart) {
+        return granularity + "|" + dimension + "|" + key + "|" + bucketStart;
+    }
+}
@@ -1,7 +1,12 @@
 package com.inventory.service;
 
+import com.inventory.dto.StockTransactionBatchRequest;
+import com.inventory.dto.StockTransactionBatchResponse;
 import com.inventory.dto.StockTransactionRequest;
 import com.inventory.dto.StockTransactionResponse;
+import com.inventory.event.StockMovementEvent;
+import com.inventory.export.CsvWriter;
+import com.inventory.model.AlertEvaluationTask;
 import com.inventory.model.FashionProduct;
 import com.inventory.model.Product;
 import com.inventory.model.ProductVariant;
@@ -11,24 +16,52 @@ import com.inventory.repository.AlertRepository;
 import com.inventory.repository.FashionProductRepository;
 import com.inventory.repository.ProductRepository;
 import com.inventory.repository.ProductVariantRepository;
+import com.inventory.repository.StockLevelRepository;
+import com.inventory.repository.StockTransactionBatchRepository;
 import com.inventory.repository.StockTransactionRepository;
 import com.inventory.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class StockTransactionService {
 
+    private static final Logger logger = LoggerFactory.getLogger(StockTransactionService.class);
+
+    private static final int EXPORT_CLEAR_INTERVAL = 1000;
+
     @Autowired
     private StockTransactionRepository stockTransactionRepository;
 
+    @Autowired
+    private StockTransactionBatchRepository stockTransactionBatchRepository;
+
     @Autowired
     private ProductRepository productRepository;
     
@@ -37,18 +70,50 @@ public class StockTransactionService {
     
     @Autowired
     private ProductVariantRepository productVariantRepository;
+    
+    @Autowired
+    private StockLevelRepository stockLevelRepository;
 
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private AlertService alertService;
+    private AlertEvaluationService alertEvaluationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
-     * Create a new stock transaction - supports both regular products and fashion products
+     * Create a new stock transaction - supports both regular products and fashion products.
+     * Runs in its own transaction (or joins the caller's); a variant's quantity changes through a single
+     * conditional UPDATE, so there is no version conflict to retry.
      */
-    @Transactional
     public StockTransactionResponse createStockTransaction(StockTransactionRequest request, String username) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            StockTransactionResponse response = transactionTemplate.execute(status -> doCreateStockTransaction(request, username));
+            outcome = "success";
+            return response;
+        } finally {
+            sample.stop(Timer.builder("inventory.stock.transactions.create")
+                    .description("Single stock movement, including its commit")
+                    .tag("product", request.isFashionProduct() ? "fashion" : "regular")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+    
+    private StockTransactionResponse doCreateStockTransaction(StockTransactionRequest request, String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -66,6 +131,8 @@ public class StockTransactionService {
         }
 
         StockTransaction savedTransaction = stockTransactionRepository.save(transaction);
+        eventPublisher.publishEvent(new StockMovementEvent(
+                request.isFashionProduct() ? Set.of(request.getFashionProductId()) : Set.of(), 1));
         return new StockTransactionResponse(savedTransaction);
     }
     
@@ -90,8 +157,8 @@ public class StockTransactionService {
         // Save updated product
         productRepository.save(product);
 
-        // Check for alerts after stock change
-        alertService.checkAndCreateAlerts(product);
+        // Queue the alert check; it runs after commit, off the write path
+        alertEvaluationService.enqueueProduct(product.getId());
 
         return new StockTransaction(product, type, request.getQuantity(), request.getReason(), user);
     }
@@ -112,39 +179,213 @@ public class StockTransactionService {
             throw new RuntimeException("Variant does not belong to the specified fashion product");
         }
 
-        // Update variant quantity
+        // Update variant quantity with a single conditional UPDATE so concurrent movements
+        // can neither lose updates nor oversell
+        int updatedRows;
         if (type == StockTransaction.TransactionType.STOCK_IN) {
-            variant.setQuantity(variant.getQuantity() + request.getQuantity());
+            updatedRows = stockLevelRepository.incrementQuantity(variant.getId(), request.getQuantity());
         } else {
-            if (variant.getQuantity() < request.getQuantity()) {
-                throw new RuntimeException("Insufficient stock. Available: " + variant.getQuantity() + 
-                                         " for " + variant.getSizeDisplayName() + "/" + variant.getColorDisplayName());
-            }
-            variant.setQuantity(variant.getQuantity() - request.getQuantity());
+            updatedRows = stockLevelRepository.decrementQuantityIfAvailable(variant.getId(), request.getQuantity());
+        }
+
+        // Reload the row so the alert check and the response see the committed quantity
+        entityManager.refresh(variant);
+        if (updatedRows == 0) {
+            throw new RuntimeException("Insufficient stock. Available: " + variant.getQuantity() + 
+                                     " for " + variant.getSizeDisplayName() + "/" + variant.getColorDisplayName());
         }
 
-        // Save updated variant
-        productVariantRepository.save(variant);
+        // Keep the product's pre-aggregated totals in step with the variant
+        int signedQuantity = type == StockTransaction.TransactionType.STOCK_IN ? request.getQuantity() : -request.getQuantity();
+        adjustFashionProductTotals(fashionProduct.getId(), variant.getMinStockLevel(),
+                variant.getQuantity() - signedQuantity, variant.getQuantity());
 
-        // Check for alerts after stock change
-        alertService.checkAndCreateVariantAlerts(variant);
+        // Queue the alert check; it runs after commit, off the write path
+        alertEvaluationService.enqueueVariant(variant.getId(), fashionProduct.getId());
 
         return new StockTransaction(fashionProduct, variant, type, request.getQuantity(), request.getReason(), user);
     }
 
+    /**
+     * Apply a batch of stock movements in a single database transaction.
+     * The user is resolved once, every referenced variant/product is loaded and locked in one query
+     * (ascending id order, so concurrent batches cannot deadlock; a contended batch waits instead of
+     * failing) and the transaction rows are written with a JDBC batch insert. The variant @Version is
+     * only a safety net here. Any invalid line rolls back the whole batch.
+     */
+    @Transactional
+    public StockTransactionBatchResponse createStockTransactionsBatch(StockTransactionBatchRequest batchRequest, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        List<StockTransactionRequest> lines = batchRequest.getTransactions();
+        Set<Long> variantIds = new TreeSet<>();
+        Set<Long> productIds = new TreeSet<>();
+        for (int i = 0; i < lines.size(); i++) {
+            StockTransactionRequest line = lines.get(i);
+            if (line.isFashionProduct()) {
+                variantIds.add(line.getVariantId());
+            } else if (line.isRegularProduct()) {
+                productIds.add(line.getProductId());
+            } else {
+                throw new RuntimeException("Line " + (i + 1) + ": either productId or (fashionProductId + variantId) must be provided");
+            }
+        }
+
+        Map<Long, ProductVariant> variants = new LinkedHashMap<>();
+        Map<Long, Integer> originalVariantQuantities = new HashMap<>();
+        if (!variantIds.isEmpty()) {
+            for (ProductVariant variant : productVariantRepository.findAllByIdInOrderByIdForUpdate(variantIds)) {
+                variants.put(variant.getId(), variant);
+                originalVariantQuantities.put(variant.getId(), variant.getQuantity());
+            }
+            // Load the owning fashion products in one query so variant.getProduct() does not hit the database per row
+            Set<Long> fashionProductIds = new HashSet<>();
+            for (StockTransactionRequest line : lines) {
+                if (line.isFashionProduct()) {
+                    fashionProductIds.add(line.getFashionProductId());
+                }
+            }
+            fashionProductRepository.findAllById(fashionProductIds);
+        }
+
+        Map<Long, Product> products = new LinkedHashMap<>();
+        if (!productIds.isEmpty()) {
+            for (Product product : productRepository.findAllByIdInOrderByIdForUpdate(productIds)) {
+                products.put(product.getId(), product);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StockTransaction> transactions = new ArrayList<>(lines.size());
+        long stockIn = 0;
+        long stockOut = 0;
+
+        for (int i = 0; i < lines.size(); i++) {
+            StockTransactionRequest line = lines.get(i);
+            String linePrefix = "Line " + (i + 1) + ": ";
+            StockTransaction.TransactionType type = parseType(line.getType(), linePrefix);
+            int quantity = line.getQuantity();
+            String reason = line.getReason() != null ? line.getReason() : batchRequest.getReason();
+
+            StockTransaction transaction;
+            if (line.isFashionProduct()) {
+                ProductVariant variant = variants.get(line.getVariantId());
+                if (variant == null) {
+                    throw new RuntimeException(linePrefix + "Product variant not found");
+                }
+                FashionProduct fashionProduct = variant.getProduct();
+                if (!fashionProduct.getId().equals(line.getFashionProductId())) {
+                    throw new RuntimeException(linePrefix + "Variant does not belong to the specified fashion product");
+                }
+                variant.setQuantity(applyMovement(variant.getQuantity(), type, quantity, linePrefix,
+                        " for " + variant.getSizeDisplayName() + "/" + variant.getColorDisplayName()));
+                transaction = new StockTransaction(fashionProduct, variant, type, quantity, reason, user);
+            } else {
+                Product product = products.get(line.getProductId());
+                if (product == null) {
+                    throw new RuntimeException(linePrefix + "Product not found");
+                }
+                product.setQuantity(applyMovement(product.getQuantity(), type, quantity, linePrefix, ""));
+                transaction = new StockTransaction(product, type, quantity, reason, user);
+            }
+
+            if (type == StockTransaction.TransactionType.STOCK_IN) {
+                stockIn += quantity;
+            } else {
+                stockOut += quantity;
+            }
+            transaction.setCreatedAt(now);
+            transactions.add(transaction);
+        }
+
+        // Fold the net change of every touched variant into one totals update per fashion product
+        // (ascending product id, same lock order as the variants)
+        Map<Long, int[]> totalsDeltas = new TreeMap<>();
+        for (ProductVariant variant : variants.values()) {
+            int oldQuantity = originalVariantQuantities.get(variant.getId());
+            int[] delta = totalsDeltas.computeIfAbsent(variant.getProduct().getId(), id -> new int[3]);
+            delta[0] += variant.getQuantity() - oldQuantity;
+            delta[1] += lowStockFlag(variant.getQuantity(), variant.getMinStockLevel()) - lowStockFlag(oldQuantity, variant.getMinStockLevel());
+            delta[2] += outOfStockFlag(variant.getQuantity()) - outOfStockFlag(oldQuantity);
+        }
+        for (Map.Entry<Long, int[]> entry : totalsDeltas.entrySet()) {
+            int[] delta = entry.getValue();
+            if (delta[0] != 0 || delta[1] != 0 || delta[2] != 0) {
+                stockLevelRepository.adjustStockTotals(entry.getKey(), delta[0], delta[1], delta[2]);
+            }
+        }
+
+        // Locked entities are managed, so the quantity changes are flushed on commit; one alert check
+        // per touched row is queued and evaluated after commit.
+        List<AlertEvaluationTask> alertTasks = new ArrayList<>(variants.size() + products.size());
+        for (ProductVariant variant : variants.values()) {
+            alertTasks.add(new AlertEvaluationTask(AlertEvaluationTask.TargetType.VARIANT,
+                    variant.getId(), variant.getProduct().getId()));
+        }
+        for (Product product : products.values()) {
+            alertTasks.add(new AlertEvaluationTask(AlertEvaluationTask.TargetType.PRODUCT, product.getId(), null));
+        }
+        alertEvaluationService.enqueueAll(alertTasks);
+
+        stockTransactionBatchRepository.insertAll(transactions);
+        eventPublisher.publishEvent(new StockMovementEvent(Set.copyOf(totalsDeltas.keySet()), transactions.size()));
+
+        logger.debug("✅ Batch applied: {} lines, {} variants, {} products",
+                transactions.size(), variants.size(), products.size());
+        return new StockTransactionBatchResponse(transactions.size(), variants.size(), products.size(), stockIn, stockOut);
+    }
+
+    /**
+     * Apply a single variant's quantity change to its product's pre-aggregated totals
+     */
+    private void adjustFashionProductTotals(Long fashionProductId, int minStockLevel, int oldQuantity, int newQuantity) {
+        stockLevelRepository.adjustStockTotals(fashionProductId,
+                newQuantity - oldQuantity,
+                lowStockFlag(newQuantity, minStockLevel) - lowStockFlag(oldQuantity, minStockLevel),
+                outOfStockFlag(newQuantity) - outOfStockFlag(oldQuantity));
+    }
+
+    private int lowStockFlag(int quantity, int minStockLevel) {
+        return quantity <= minStockLevel ? 1 : 0;
+    }
+
+    private int outOfStockFlag(int quantity) {
+        return quantity == 0 ? 1 : 0;
+    }
+
+    private StockTransaction.TransactionType parseType(String type, String linePrefix) {
+        try {
+            return StockTransaction.TransactionType.valueOf(type);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException(linePrefix + "Invalid transaction type: " + type);
+        }
+    }
+
+    private int applyMovement(int available, StockTransaction.TransactionType type, int quantity,
+                              String linePrefix, String itemDescription) {
+        if (type == StockTransaction.TransactionType.STOCK_IN) {
+            return available + quantity;
+        }
+        if (available < quantity) {
+            throw new RuntimeException(linePrefix + "Insufficient stock. Available: " + available + itemDescription);
+        }
+        return available - quantity;
+    }
+
     /**
      * Get all transactions
      */
     public List<StockTransactionResponse> getAllTransactions() {
-        System.out.println("🔍 Fetching all transactions from database...");
+        logger.debug("🔍 Fetching all transactions from database...");
         List<StockTransaction> transactions = stockTransactionRepository.findAll();
-        System.out.println("📊 Database returned " + transactions.size() + " transactions");
+        logger.debug("📊 Database returned {} transactions", transactions.size());
         
         List<StockTransactionResponse> response = transactions.stream()
                 .map(StockTransactionResponse::new)
                 .collect(Collectors.toList());
         
-        System.out.println("✅ Returning " + response.size() + " mapped responses");
+        logger.debug("✅ Returning {} mapped responses", response.size());
         return response;
     }
 
@@ -153,20 +394,20 @@ public class StockTransactionService {
      */
     public List<StockTransactionResponse> getTransactionsByType(String type) {
         try {
-            System.out.println("🔍 Fetching " + type + " transactions...");
+            logger.debug("🔍 Fetching {} transactions...", type);
             StockTransaction.TransactionType transactionType = 
                     StockTransaction.TransactionType.valueOf(type.toUpperCase());
             
             List<StockTransaction> transactions = stockTransactionRepository
                     .findByTypeOrderByCreatedAtDesc(transactionType);
             
-            System.out.println("📊 Found " + transactions.size() + " " + type + " transactions");
+            logger.debug("📊 Found {} {} transactions", transactions.size(), type);
             
             return transactions.stream()
                     .map(StockTransactionResponse::new)
                     .collect(Collectors.toList());
         } catch (IllegalArgumentException e) {
-            System.err.println("❌ Invalid type: " + type);
+            logger.warn("❌ Invalid type: {}", type);
             throw new RuntimeException("Invalid transaction type: " + type);
         }
     }
@@ -175,7 +416,7 @@ public class StockTransactionService {
      * Get transactions by product
      */
     public List<StockTransactionResponse> getTransactionsByProduct(Long productId) {
-        System.out.println("🔍 Fetching transactions for product: " + productId);
+        logger.debug("🔍 Fetching transactions for product: {}", productId);
         return stockTransactionRepository.findByProductIdOrderByCreatedAtDesc(productId)
                 .stream()
                 .map(StockTransactionResponse::new)
@@ -186,7 +427,7 @@ public class StockTransactionService {
      * Get transactions by fashion product
      */
     public List<StockTransactionResponse> getTransactionsByFashionProduct(Long fashionProductId) {
-        System.out.println("🔍 Fetching transactions for fashion product: " + fashionProductId);
+        logger.debug("🔍 Fetching transactions for fashion product: {}", fashionProductId);
         return stockTransactionRepository.findByFashionProductIdOrderByCreatedAtDesc(fashionProductId)
                 .stream()
                 .map(StockTransactionResponse::new)
@@ -197,7 +438,7 @@ public class StockTransactionService {
      * Get recent transactions (top 10)
      */
     public List<StockTransactionResponse> getRecentTransactions() {
-        System.out.println("🔍 Fetching recent transactions...");
+        logger.debug("🔍 Fetching recent transactions...");
         return stockTransactionRepository.findTop10ByOrderByCreatedAtDesc()
                 .stream()
                 .map(StockTransactionResponse::new)
@@ -205,91 +446,71 @@ public class StockTransactionService {
     }
     
     /**
-     * Export all transactions to CSV format
-     */
-    public String exportTransactionsToCSV() {
-        return exportTransactionsToCSV(null, null);
-    }
-    
-    /**
-     * Export transactions to CSV format with optional date filtering
+     * Stream transactions as CSV with optional date filtering (yyyy-MM-dd, both inclusive).
+     * Rows come from a forward-only cursor and the persistence context is cleared every
+     * EXPORT_CLEAR_INTERVAL rows, so memory use stays flat however large the table is.
      */
-    public String exportTransactionsToCSV(String startDate, String endDate) {
-        System.out.println("📊 Exporting transactions to CSV...");
-        
-        List<StockTransaction> transactions;
+    @Transactional(readOnly = true)
+    public long exportTransactionsToCSV(String startDate, String endDate, CsvWriter csv) throws IOException {
+        logger.info("📊 Exporting transactions to CSV...");
         
+        LocalDateTime start = null;
+        LocalDateTime end = null;
         if (startDate != null && endDate != null) {
             try {
-                LocalDateTime start = LocalDate.parse(startDate).atStartOfDay();
-                LocalDateTime end = LocalDate.parse(endDate).atTime(23, 59, 59);
-                transactions = stockTransactionRepository.findByCreatedAtBetweenOrderByCreatedAtDesc(start, end);
-                System.out.println("📅 Filtering transactions from " + startDate + " to " + endDate);
+                start = LocalDate.parse(startDate).atStartOfDay();
+                end = LocalDate.parse(endDate).atTime(23, 59, 59);
+                logger.debug("📅 Filtering transactions from {} to {}", startDate, endDate);
             } catch (Exception e) {
-                System.err.println("❌ Error parsing dates, exporting all transactions");
-                transactions = stockTransactionRepository.findAll();
+                logger.warn("❌ Error parsing dates, exporting all transactions");
+                start = null;
+                end = null;
             }
-        } else {
-            transactions = stockTransactionRepository.findAll();
         }
         
-        StringBuilder csv = new StringBuilder();
-        
         // CSV Headers
-        csv.append("Date,Product Name,Product Details,Transaction Type,Quantity,User,Reason,Product ID,Transaction ID\n");
+        csv.row("Date", "Product Name", "Product Details", "Transaction Type", "Quantity", "User", "Reason", "Product ID", "Transaction ID");
         
-        // CSV Data
-        for (StockTransaction transaction : transactions) {
-            csv.append(formatCSVField(transaction.getCreatedAt().toString())).append(",");
-            
-            // Handle both regular products and fashion products
-            String productName = transaction.getEntityName();
-            if (productName == null) {
-                productName = transaction.getProduct() != null ? 
-                    transaction.getProduct().getName() : 
-                    (transaction.getFashionProduct() != null ? transaction.getFashionProduct().getName() : "Unknown");
-            }
-            
-            csv.append(formatCSVField(productName)).append(",");
-            
-            // Add variant details for fashion products
-            if (transaction.getVariantDetails() != null) {
-                csv.append(formatCSVField(productName + " (" + transaction.getVariantDetails() + ")")).append(",");
-            } else {
-                csv.append(formatCSVField(productName)).append(",");
+        long count = 0;
+        try (Stream<StockTransaction> transactions = stockTransactionRepository.streamForExport(start, end)) {
+            Iterator<StockTransaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                writeTransactionRow(csv, iterator.next());
+                if (++count % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
             }
-            
-            csv.append(formatCSVField(transaction.getType().toString())).append(",");
-            csv.append(transaction.getQuantity()).append(",");
-            csv.append(formatCSVField(transaction.getUser().getUsername())).append(",");
-            csv.append(formatCSVField(transaction.getReason() != null ? transaction.getReason() : "")).append(",");
-            
-            // Product ID (regular or fashion)
-            Long productId = transaction.getProduct() != null ? 
-                transaction.getProduct().getId() : 
-                (transaction.getFashionProduct() != null ? transaction.getFashionProduct().getId() : 0L);
-            csv.append(productId).append(",");
-            
-            csv.append(transaction.getId()).append("\n");
         }
+        csv.flush();
         
-        System.out.println("✅ CSV export completed with " + transactions.size() + " transactions");
-        return csv.toString();
+        logger.info("✅ CSV export completed with {} transactions", count);
+        return count;
     }
     
-    /**
-     * Format CSV field to handle commas and quotes
-     */
-    private String formatCSVField(String field) {
-        if (field == null) {
-            return "";
+    private void writeTransactionRow(CsvWriter csv, StockTransaction transaction) throws IOException {
+        // Handle both regular products and fashion products
+        String productName = transaction.getEntityName();
+        if (productName == null) {
+            productName = transaction.getProduct() != null ? 
+                transaction.getProduct().getName() : 
+                (transaction.getFashionProduct() != null ? transaction.getFashionProduct().getName() : "Unknown");
         }
         
-        // Escape quotes and wrap in quotes if contains comma or quote
-        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
-            return "\"" + field.replace("\"", "\"\"") + "\"";
-        }
+        // Product ID (regular or fashion)
+        Long productId = transaction.getProduct() != null ? 
+            transaction.getProduct().getId() : 
+            (transaction.getFashionProduct() != null ? transaction.getFashionProduct().getId() : 0L);
         
-        return field;
+        csv.field(transaction.getCreatedAt())
+           .field(productName)
+           // Add variant details for fashion products
+           .field(transaction.getVariantDetails() != null ? productName + " (" + transaction.getVariantDetails() + ")" : productName)
+           .field(transaction.getType())
+           .field(transaction.getQuantity())
+           .field(transaction.getUser().getUsername())
+           .field(transaction.getReason())
+           .field(productId)
+           .field(transaction.getId());
+        csv.endRow();
     }
 }
@@ -0,0 +1,136 @@
+package com.inventory.service;
+
+import com.inventory.model.JobWatermark;
+import com.inventory.repository.JobWatermarkRepository;
+import com.inventory.repository.StockTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The append-only stock_transactions table read as a stream in id order by background consumers (stock
+ * ledger, movement rollups, sales velocity), each behind its own watermark in job_watermarks. A chunk runs
+ * in one transaction that locks the watermark, hands the consumer the id range it may read and advances
+ * the watermark, so every transaction is consumed exactly once.
+ *
+ * Ids are handed out before the inserting transaction commits, so a missing id may still appear. Rows
+ * are consumed while their ids are consecutive; at a gap the stream waits until the row after it is
+ * app.stream.settle-seconds old, then re-checks the missing ids with a locking read (which waits for an
+ * insert still in flight) and only moves past them when they are still absent (rolled back).
+ */
+@Service
+public class StockTransactionStream {
+
+    @Autowired
+    private StockTransactionRepository stockTransactionRepository;
+
+    @Autowired
+    private JobWatermarkRepository jobWatermarkRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.stream.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.stream.settle-seconds:30}")
+    private long settleSeconds;
+
+    /**
+     * Reads the stock transactions with afterId < id <= throughId, in the chunk's transaction
+     */
+    @FunctionalInterface
+    public interface Consumer {
+        void consume(long afterId, long throughId);
+    }
+
+    /**
+     * Outcome of one chunk: how many transactions were consumed, whether more can be read right away,
+     * and whether the stream is waiting at a gap that has not settled yet
+     */
+    public static class Chunk {
+
+        private final int consumed;
+        private final boolean more;
+        private final boolean waiting;
+
+        Chunk(int consumed, boolean more, boolean waiting) {
+            this.consumed = consumed;
+            this.more = more;
+            this.waiting = waiting;
+        }
+
+        public int getConsumed() { return consumed; }
+
+        public boolean hasMore() { return more; }
+
+        public boolean isWaiting() { return waiting; }
+    }
+
+    /**
+     * Hand the next chunk past a consumer's watermark to it and advance the watermark, in one transaction
+     */
+    public Chunk consumeNext(String watermarkName, Consumer consumer) {
+        return transactionTemplate.execute(status -> {
+            JobWatermark watermark = jobWatermarkRepository.findByNameForUpdate(watermarkName)
+                    .orElseGet(() -> jobWatermarkRepository.save(new JobWatermark(watermarkName)));
+            long afterId = watermark.getLastId();
+
+            List<Object[]> positions = stockTransactionRepository.findStreamPositionsAfter(
+                    afterId, PageRequest.of(0, chunkSize));
+            LocalDateTime settledBefore = LocalDateTime.now().minusSeconds(settleSeconds);
+            long throughId = afterId;
+            int consumed = 0;
+            boolean more = positions.size() == chunkSize;
+            boolean waiting = false;
+            for (Object[] position : positions) {
+                long id = (Long) position[0];
+                if (id != throughId + 1) {
+                    // Rows without a creation time predate the stream consumers and count as settled
+                    LocalDateTime createdAt = (LocalDateTime) position[1];
+                    if (createdAt != null && createdAt.isAfter(settledBefore)) {
+                        waiting = true;
+                        more = false;
+                        break;
+                    }
+                    if (!stockTransactionRepository.findIdsBetweenForShare(throughId, id).isEmpty()) {
+                        // Committed since the positions were read: the next chunk sees them
+                        more = true;
+                        break;
+                    }
+                }
+                throughId = id;
+                consumed++;
+            }
+            if (consumed == 0) {
+                return new Chunk(0, more, waiting);
+            }
+
+            consumer.consume(afterId, throughId);
+            watermark.setLastId(throughId);
+            watermark.setUpdatedAt(LocalDateTime.now());
+            jobWatermarkRepository.save(watermark);
+            return new Chunk(consumed, more, waiting);
+        });
+    }
+
+    /**
+     * Position of a consumer: the highest transaction id it has consumed
+     */
+    public long getWatermark(String watermarkName) {
+        return jobWatermarkRepository.findById(watermarkName).map(JobWatermark::getLastId).orElse(0L);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public long getSettleSeconds() {
+        return settleSeconds;
+    }
+}
@@ -16,6 +16,9 @@ public class TransactionService {
     @Autowired
     private StockTransactionRepository stockTransactionRepository;
 
+    @Autowired
+    private StockMovementRollupService stockMovementRollupService;
+
     // Get all transactions
     public List<StockTransactionResponse> getAllTransactions() {
         return stockTransactionRepository.findAll().stream()
@@ -49,8 +52,8 @@ public class TransactionService {
                 .collect(Collectors.toList());
     }
 
-    // Get transaction statistics
+    // Get transaction statistics (from the daily movement rollups)
     public long getTotalTransactions() {
-        return stockTransactionRepository.count();
+        return stockMovementRollupService.countAll();
     }
 }
@@ -0,0 +1,266 @@
+package com.inventory.service;
+
+import com.inventory.event.FashionProductChangedEvent;
+import com.inventory.event.StockMovementEvent;
+import com.inventory.model.ProductVariant;
+import com.inventory.repository.FashionProductRepository;
+import com.inventory.repository.ProductVariantRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory size x color availability of every fashion product, so the size/color picker endpoints
+ * do not query the database. Each product has one bitset with a bit per (Size, Color) pair that is
+ * set while a variant of that size and color has stock. Bitsets are never modified once published:
+ * after a stock movement or product change commits, the affected products are queued and reloaded on the
+ * task scheduler (commits arriving while a reload is pending are coalesced into it), so the committing
+ * request neither waits for the reload nor needs a second connection; a periodic rebuild corrects
+ * changes made outside the application.
+ */
+@Service
+public class VariantAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(VariantAvailabilityIndex.class);
+
+    private static final ProductVariant.Size[] SIZES = ProductVariant.Size.values();
+    private static final ProductVariant.Color[] COLORS = ProductVariant.Color.values();
+
+    @Autowired
+    private FashionProductRepository fashionProductRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private TransactionTemplate readTransaction;
+
+    // product id -> in-stock bits (index size.ordinal() * COLORS.length + color.ordinal())
+    private final Map<Long, BitSet> availability = new ConcurrentHashMap<>();
+
+    // Products changed by committed transactions and not reloaded yet
+    private final Set<Long> pendingReloads = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reloadScheduled = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        // Reloads run after the triggering transaction committed, so they need a transaction of their own
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockMovement(StockMovementEvent event) {
+        scheduleReload(event.getFashionProductIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFashionProductChanged(FashionProductChangedEvent event) {
+        scheduleReload(Set.of(event.getProductId()));
+    }
+
+    private void scheduleReload(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        pendingReloads.addAll(productIds);
+        // One pending reload at a time: products queued before it runs are reloaded together
+        if (reloadScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::reloadPending, Instant.now());
+        }
+    }
+
+    /**
+     * Reload the queued products. The flag is cleared before the queue is taken, so a product queued
+     * after that point either is taken by this run or schedules the next one.
+     */
+    void reloadPending() {
+        reloadScheduled.set(false);
+        Set<Long> productIds = new HashSet<>();
+        for (Long productId : pendingReloads) {
+            if (pendingReloads.remove(productId)) {
+                productIds.add(productId);
+            }
+        }
+        reload(productIds);
+    }
+
+    /**
+     * Periodic full rebuild, in case variants were changed outside the application
+     */
+    @Scheduled(initialDelayString = "${app.availability.rebuild-interval-ms:300000}",
+               fixedDelayString = "${app.availability.rebuild-interval-ms:300000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the availability of every product from the database
+     */
+    public synchronized void rebuild() {
+        try {
+            Map<Long, BitSet> loaded = readTransaction.execute(status -> toBitSets(
+                    fashionProductRepository.findAllIds(), productVariantRepository.findAllInStockSizeColor()));
+            availability.putAll(loaded);
+            availability.keySet().retainAll(loaded.keySet());
+        } catch (RuntimeException e) {
+            logger.error("❌ Variant availability rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload the availability of the given products (deleted products are dropped).
+     * Reloads are serialized, so the last one to run has read the latest committed stock.
+     */
+    public synchronized void reload(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Long, BitSet> loaded = readTransaction.execute(status -> toBitSets(
+                    fashionProductRepository.findExistingIds(productIds),
+                    productVariantRepository.findInStockSizeColorByProductIds(productIds)));
+            for (Long productId : productIds) {
+                BitSet bits = loaded.get(productId);
+                if (bits != null) {
+                    availability.put(productId, bits);
+                } else {
+                    availability.remove(productId);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Drop the entries: they are loaded again on the next request
+            productIds.forEach(availability::remove);
+            logger.error("❌ Variant availability reload failed for products {}: {}", productIds, e.getMessage());
+        }
+    }
+
+    /**
+     * Sizes with stock in at least one color
+     */
+    public List<ProductVariant.Size> getAvailableSizes(Long productId) {
+        BitSet bits = getBits(productId);
+        List<ProductVariant.Size> sizes = new ArrayList<>();
+        for (ProductVariant.Size size : SIZES) {
+            int rowStart = size.ordinal() * COLORS.length;
+            int next = bits.nextSetBit(rowStart);
+            if (next >= 0 && next < rowStart + COLORS.length) {
+                sizes.add(size);
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * Colors with stock in at least one size
+     */
+    public List<ProductVariant.Color> getAvailableColors(Long productId) {
+        BitSet bits = getBits(productId);
+        boolean[] inStock = new boolean[COLORS.length];
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            inStock[i % COLORS.length] = true;
+        }
+        List<ProductVariant.Color> colors = new ArrayList<>();
+        for (ProductVariant.Color color : COLORS) {
+            if (inStock[color.ordinal()]) {
+                colors.add(color);
+            }
+        }
+        return colors;
+    }
+
+    /**
+     * Colors with stock in the given size
+     */
+    public List<ProductVariant.Color> getAvailableColors(Long productId, ProductVariant.Size size) {
+        BitSet bits = getBits(productId);
+        List<ProductVariant.Color> colors = new ArrayList<>();
+        for (ProductVariant.Color color : COLORS) {
+            if (bits.get(bitIndex(size, color))) {
+                colors.add(color);
+            }
+        }
+        return colors;
+    }
+
+    /**
+     * Sizes with stock in the given color
+     */
+    public List<ProductVariant.Size> getAvailableSizes(Long productId, ProductVariant.Color color) {
+        BitSet bits = getBits(productId);
+        List<ProductVariant.Size> sizes = new ArrayList<>();
+        for (ProductVariant.Size size : SIZES) {
+            if (bits.get(bitIndex(size, color))) {
+                sizes.add(size);
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * The product's bitset; loaded from the database only when it is not in memory yet
+     */
+    private BitSet getBits(Long productId) {
+        BitSet bits = availability.get(productId);
+        if (bits == null) {
+            reload(Set.of(productId));
+            bits = availability.get(productId);
+            if (bits == null) {
+                throw new RuntimeException("Fashion product not found with ID: " + productId);
+            }
+        }
+        return bits;
+    }
+
+    private static Map<Long, BitSet> toBitSets(List<Long> productIds, List<Object[]> inStockPairs) {
+        Map<Long, BitSet> result = new HashMap<>();
+        for (Long productId : productIds) {
+            result.put(productId, new BitSet(SIZES.length * COLORS.length));
+        }
+        for (Object[] row : inStockPairs) {
+            BitSet bits = result.get((Long) row[0]);
+            if (bits != null) {
+                bits.set(bitIndex((ProductVariant.Size) row[1], (ProductVariant.Color) row[2]));
+            }
+        }
+        return result;
+    }
+
+    private static int bitIndex(ProductVariant.Size size, ProductVariant.Color color) {
+        return size.ordinal() * COLORS.length + color.ordinal();
+    }
+}
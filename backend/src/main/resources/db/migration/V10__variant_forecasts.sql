@@ -0,0 +1,23 @@
+-- Sales velocity of each variant that has sold: exponentially smoothed daily STOCK_OUT quantity (and
+-- its square, for the variance) folded incrementally from stock_transactions by SalesVelocityService,
+-- with the reorder point derived from it. The day being filled is kept apart in open_day/open_day_out
+-- until a later movement or the nightly recompute closes it.
+create table variant_forecasts (
+    reorder_point integer,
+    computed_on date not null,
+    daily_velocity double precision not null,
+    first_day date not null,
+    open_day date not null,
+    open_day_out bigint not null,
+    smoothed_out double precision not null,
+    smoothed_out_sq double precision not null,
+    velocity_std_dev double precision not null,
+    product_variant_id bigint not null,
+    updated_at datetime(6) not null,
+    primary key (product_variant_id)
+) engine=InnoDB;
+
+alter table variant_forecasts
+   add constraint fk_variant_forecasts_variant
+   foreign key (product_variant_id)
+   references product_variants (id);
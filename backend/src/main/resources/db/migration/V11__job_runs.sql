@@ -0,0 +1,8 @@
+-- Last run date of jobs that run once a day across all instances (the nightly forecast recompute): an
+-- instance claims the day by locking the row and moving last_run_on forward
+create table job_runs (
+    last_run_on date not null,
+    updated_at datetime(6) not null,
+    name varchar(50) not null,
+    primary key (name)
+) engine=InnoDB;
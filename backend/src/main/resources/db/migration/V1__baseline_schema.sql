@@ -0,0 +1,168 @@
+-- Baseline schema, as created by Hibernate (ddl-auto=update) before migrations were introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and skip it.
+
+create table alerts (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    message varchar(255),
+    status enum ('ACTIVE','RESOLVED'),
+    type enum ('LOW_STOCK','OUT_OF_STOCK'),
+    primary key (id)
+) engine=InnoDB;
+
+create table fashion_products (
+    base_price decimal(38,2) not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    brand varchar(255),
+    care_instructions varchar(255),
+    description varchar(255),
+    material varchar(255),
+    name varchar(255),
+    sku varchar(255),
+    category enum ('CLOTHING_MENS','CLOTHING_WOMENS','CLOTHING_KIDS','FOOTWEAR_MENS','FOOTWEAR_WOMENS','FOOTWEAR_KIDS','ACCESSORIES_BAGS','ACCESSORIES_JEWELRY','ACCESSORIES_WATCHES','ACCESSORIES_BELTS','ACCESSORIES_HATS','ACCESSORIES_SUNGLASSES','ACCESSORIES_SCARVES') not null,
+    season enum ('SPRING','SUMMER','AUTUMN','WINTER','ALL_SEASON'),
+    target_gender enum ('MALE','FEMALE','UNISEX','KIDS'),
+    primary key (id)
+) engine=InnoDB;
+
+create table password_reset_otps (
+    attempts integer not null,
+    used bit not null,
+    created_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    otp varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table product_variants (
+    min_stock_level integer not null,
+    price_adjustment decimal(38,2),
+    quantity integer not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    updated_at datetime(6),
+    variant_sku varchar(255),
+    color enum ('BLACK','WHITE','GRAY','NAVY','BROWN','RED','BLUE','GREEN','YELLOW','ORANGE','PURPLE','PINK','TURQUOISE','BEIGE','CREAM','IVORY','KHAKI','OLIVE','BURGUNDY','MAROON','TEAL','CORAL','GOLD','SILVER','ROSE_GOLD','FLORAL','STRIPED','POLKA_DOT','PLAID','LEOPARD','ZEBRA','MULTICOLOR','RAINBOW') not null,
+    size enum ('XXS','XS','S','M','L','XL','XXL','XXXL','SIZE_5','SIZE_5_5','SIZE_6','SIZE_6_5','SIZE_7','SIZE_7_5','SIZE_8','SIZE_8_5','SIZE_9','SIZE_9_5','SIZE_10','SIZE_10_5','SIZE_11','SIZE_11_5','SIZE_12','SIZE_13','SIZE_14','KIDS_2T','KIDS_3T','KIDS_4T','KIDS_5T','KIDS_XS','KIDS_S','KIDS_M','KIDS_L','KIDS_XL','ONE_SIZE','SMALL','MEDIUM','LARGE') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table products (
+    min_stock_level integer not null,
+    price decimal(38,2) not null,
+    quantity integer not null,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    category varchar(255),
+    description varchar(255),
+    name varchar(255),
+    sku varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table stock_transactions (
+    quantity integer not null,
+    created_at datetime(6),
+    fashion_product_id bigint,
+    id bigint not null auto_increment,
+    product_id bigint,
+    product_variant_id bigint,
+    user_id bigint not null,
+    entity_name varchar(255),
+    reason varchar(255),
+    variant_details varchar(255),
+    entity_type enum ('REGULAR_PRODUCT','FASHION_PRODUCT'),
+    type enum ('STOCK_IN','STOCK_OUT'),
+    primary key (id)
+) engine=InnoDB;
+
+create table transactions (
+    quantity integer,
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    product_id bigint not null,
+    user_id bigint not null,
+    notes TEXT,
+    type enum ('IN','OUT'),
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    updated_at datetime(6),
+    username varchar(50),
+    email varchar(255),
+    password varchar(255),
+    role enum ('ADMIN','MANAGER','STAFF'),
+    status enum ('PENDING','APPROVED','REJECTED'),
+    primary key (id)
+) engine=InnoDB;
+
+alter table fashion_products
+   add constraint UK_klfaluesmonai0uqi0ebyal32 unique (name);
+
+alter table fashion_products
+   add constraint UK_teil4ucso6c2ef1l48lrcl36a unique (sku);
+
+alter table product_variants
+   add constraint UK_5mdrotbcm3aj7ckro5sikwya8 unique (variant_sku);
+
+alter table products
+   add constraint UK_o61fmio5yukmmiqgnxf8pnavn unique (name);
+
+alter table products
+   add constraint UK_fhmd06dsmj6k0n90swsh8ie9g unique (sku);
+
+alter table users
+   add constraint UK_r43af9ap4edm43mmtq01oddj6 unique (username);
+
+alter table users
+   add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email);
+
+alter table alerts
+   add constraint FKcrnh5tx6oc6pfqvuhxo48fsan
+   foreign key (product_id)
+   references products (id);
+
+alter table product_variants
+   add constraint FKo52x4lc7lxwok1ts0heknb0tf
+   foreign key (product_id)
+   references fashion_products (id);
+
+alter table stock_transactions
+   add constraint FKhb1ic8sn35sgpvnhyhf8uso2q
+   foreign key (fashion_product_id)
+   references fashion_products (id);
+
+alter table stock_transactions
+   add constraint FK9qbjlda0gjdsmqn7bkhii6bb0
+   foreign key (product_id)
+   references products (id);
+
+alter table stock_transactions
+   add constraint FKhisuvq33hlmot99n0kut5b69a
+   foreign key (product_variant_id)
+   references product_variants (id);
+
+alter table stock_transactions
+   add constraint FK22636p8lnuf1dl7tvet5dnjfs
+   foreign key (user_id)
+   references users (id);
+
+alter table transactions
+   add constraint FKcdpkn7bkq15bjvlw9mo46l9ft
+   foreign key (product_id)
+   references products (id);
+
+alter table transactions
+   add constraint FKqwv7rmvc8va8rep7piikrojds
+   foreign key (user_id)
+   references users (id);
@@ -0,0 +1,2 @@
+-- Optimistic locking on variants: the read-modify-write stock paths retry on a stale version.
+alter table product_variants add column version bigint not null default 0;
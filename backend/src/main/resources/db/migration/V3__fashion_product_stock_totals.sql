@@ -0,0 +1,13 @@
+-- Pre-aggregated stock totals of each fashion product, kept in step with its variants by the stock
+-- write paths (StockLevelRepository.adjustStockTotals / recalculateStockTotals).
+alter table fashion_products add column total_stock integer not null default 0;
+alter table fashion_products add column total_min_stock integer not null default 0;
+alter table fashion_products add column low_variant_count integer not null default 0;
+alter table fashion_products add column out_of_stock_variant_count integer not null default 0;
+
+-- Backfill from the existing variants (FashionProductStockTotalsReconciler repeats this at startup)
+update fashion_products p set
+    total_stock = (select coalesce(sum(v.quantity), 0) from product_variants v where v.product_id = p.id),
+    total_min_stock = (select coalesce(sum(v.min_stock_level), 0) from product_variants v where v.product_id = p.id),
+    low_variant_count = (select count(*) from product_variants v where v.product_id = p.id and v.quantity <= v.min_stock_level),
+    out_of_stock_variant_count = (select count(*) from product_variants v where v.product_id = p.id and v.quantity = 0);
@@ -0,0 +1,2 @@
+-- FashionProductRepository keyset pages: ORDER BY created_at DESC, id DESC seeking past the last row
+create index idx_fashion_products_created_at_id on fashion_products (created_at desc, id desc);
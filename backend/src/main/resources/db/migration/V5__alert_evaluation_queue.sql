@@ -0,0 +1,13 @@
+-- Durable queue of pending alert evaluations: a row per stock movement, written in the movement's
+-- transaction and deleted once AlertEvaluationService has evaluated its target.
+create table alert_evaluation_queue (
+    created_at datetime(6) not null,
+    fashion_product_id bigint,
+    id bigint not null auto_increment,
+    target_id bigint not null,
+    target_type enum ('VARIANT','PRODUCT') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_alert_evaluation_queue_target
+   on alert_evaluation_queue (target_type, target_id);
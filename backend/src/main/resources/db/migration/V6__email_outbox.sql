@@ -0,0 +1,20 @@
+-- Outbox of emails to send: written by PasswordResetService in the request transaction and
+-- delivered in batches by EmailOutboxService with retry and backoff.
+create table email_outbox (
+    attempts integer not null,
+    created_at datetime(6) not null,
+    expires_at datetime(6),
+    id bigint not null auto_increment,
+    next_attempt_at datetime(6) not null,
+    sent_at datetime(6),
+    last_error varchar(500),
+    otp varchar(255),
+    recipient varchar(255) not null,
+    user_name varchar(255),
+    status enum ('PENDING','SENT','FAILED') not null,
+    type enum ('OTP','PASSWORD_RESET_CONFIRMATION') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_email_outbox_status_next_attempt
+   on email_outbox (status, next_attempt_at);
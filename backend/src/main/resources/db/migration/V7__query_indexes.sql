@@ -0,0 +1,37 @@
+-- Secondary indexes for the repository queries. InnoDB already indexes every foreign key column on
+-- its own; these composite indexes also cover the ORDER BY, so the newest rows are read straight
+-- from the index instead of being filesorted.
+
+-- stock_transactions: StockTransactionRepository
+-- findTop10/Top100ByOrderByCreatedAtDesc, findByCreatedAtBetween..., countByCreatedAtAfter, streamForExport
+create index idx_stock_transactions_created_at_id on stock_transactions (created_at desc, id desc);
+-- findByFashionProductIdOrderByCreatedAtDesc, findByAnyProductIdOrderByCreatedAtDesc (fashion product branch)
+create index idx_stock_transactions_fashion_product_created_at on stock_transactions (fashion_product_id, created_at desc);
+-- findByProductIdOrderByCreatedAtDesc, findByAnyProductIdOrderByCreatedAtDesc (regular product branch)
+create index idx_stock_transactions_product_created_at on stock_transactions (product_id, created_at desc);
+-- findByProductVariantIdOrderByCreatedAtDesc
+create index idx_stock_transactions_variant_created_at on stock_transactions (product_variant_id, created_at desc);
+-- findByUserIdOrderByCreatedAtDesc
+create index idx_stock_transactions_user_created_at on stock_transactions (user_id, created_at desc);
+-- findByTypeOrderByCreatedAtDesc
+create index idx_stock_transactions_type_created_at on stock_transactions (type, created_at desc);
+
+-- product_variants: ProductVariantRepository
+-- findByProductAndSizeAndColor, findByProductOrderBySizeAscColorAsc, available sizes/colors per product
+create index idx_product_variants_product_size_color on product_variants (product_id, size, color, quantity);
+-- findOutOfStockVariants / findByQuantity (seek on quantity); findLowStockVariants and
+-- findWellStockedVariants compare two columns, which no B-tree can seek, but they are answered
+-- from this index without reading the rows
+create index idx_product_variants_quantity_min_stock on product_variants (quantity, min_stock_level);
+
+-- alerts: AlertRepository
+-- findByProductAndTypeAndStatus (every alert evaluation)
+create index idx_alerts_product_type_status on alerts (product_id, type, status);
+-- findByStatusOrderByCreatedAtDesc
+create index idx_alerts_status_created_at on alerts (status, created_at desc);
+
+-- password_reset_otps: PasswordResetOtpRepository
+-- countByEmailAndCreatedAtAfter, findTopByEmailAndUsedFalseOrderByCreatedAtDesc
+create index idx_password_reset_otps_email_created_at on password_reset_otps (email, created_at);
+-- deleteExpiredOtps
+create index idx_password_reset_otps_expires_at on password_reset_otps (expires_at);
@@ -0,0 +1,46 @@
+-- Stock ledger: the stock_transactions stream is folded in id order into one running head per variant.
+-- When a variant is first seen, and every app.ledger.snapshot-every events after that, its head is
+-- copied to an immutable snapshot, so the quantity at any time is replayed from the nearest snapshot.
+
+-- Position of background jobs that consume stock_transactions in id order
+create table job_watermarks (
+    last_id bigint not null,
+    updated_at datetime(6) not null,
+    name varchar(50) not null,
+    primary key (name)
+) engine=InnoDB;
+
+create table stock_ledger_heads (
+    events_since_snapshot integer not null,
+    quantity integer not null,
+    last_transaction_id bigint not null,
+    product_variant_id bigint not null,
+    updated_at datetime(6) not null,
+    primary key (product_variant_id)
+) engine=InnoDB;
+
+create table stock_snapshots (
+    quantity integer not null,
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    last_transaction_id bigint not null,
+    product_variant_id bigint not null,
+    snapshot_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table stock_ledger_heads
+   add constraint fk_stock_ledger_heads_variant
+   foreign key (product_variant_id)
+   references product_variants (id);
+
+alter table stock_snapshots
+   add constraint fk_stock_snapshots_variant
+   foreign key (product_variant_id)
+   references product_variants (id);
+
+-- StockSnapshotRepository.findLatestAtOrBefore: nearest snapshot at or before a point in time
+create index idx_stock_snapshots_variant_snapshot_at on stock_snapshots (product_variant_id, snapshot_at, last_transaction_id);
+
+-- StockTransactionRepository.sumQuantityDeltaAfter / findLedgerDrift: a variant's events after a snapshot or head
+create index idx_stock_transactions_variant_id on stock_transactions (product_variant_id, id);
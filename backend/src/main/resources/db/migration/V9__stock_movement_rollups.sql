@@ -0,0 +1,17 @@
+-- Pre-aggregated stock movement volume per hour and per day, for the whole inventory (TOTAL) and per
+-- product, fashion product, category, brand and user. Maintained by StockMovementRollupService, which
+-- folds new stock_transactions into these rows past a job_watermarks position.
+create table stock_movement_rollups (
+    in_count bigint not null,
+    in_quantity bigint not null,
+    out_count bigint not null,
+    out_quantity bigint not null,
+    bucket_start datetime(6) not null,
+    granularity varchar(10) not null,
+    dimension varchar(20) not null,
+    dimension_key varchar(255) not null,
+    primary key (granularity, dimension, dimension_key, bucket_start)
+) engine=InnoDB;
+
+-- StockMovementRollupRepository.findSeries without a key: every key of a dimension in a time range
+create index idx_stock_movement_rollups_bucket on stock_movement_rollups (granularity, dimension, bucket_start);
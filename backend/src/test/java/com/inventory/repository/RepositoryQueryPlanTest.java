@@ -0,0 +1,165 @@
+package com.inventory.repository;
+
+import com.inventory.model.Alert;
+import com.inventory.model.AlertEvaluationTask;
+import com.inventory.model.EmailOutboxMessage;
+import com.inventory.model.FashionProduct;
+import com.inventory.model.Product;
+import com.inventory.model.ProductVariant;
+import com.inventory.model.StockTransaction;
+import com.inventory.support.SqlCapture;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL Hibernate generates for each repository query the migrations add an index for,
+ * and checks the plan reads through that index. The plans come from H2 (MySQL mode) with the Flyway schema.
+ * findLowStockVariants/findWellStockedVariants compare two columns and findByAnyProductIdOrderByCreatedAtDesc
+ * ORs two columns, so no single index can seek them; they are left out.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.inventory.support.SqlCapture")
+@ActiveProfiles("test")
+class RepositoryQueryPlanTest {
+
+    private static final String CREATED_AT = "idx_stock_transactions_created_at_id";
+    private static final String OTP_EMAIL = "idx_password_reset_otps_email_created_at";
+    private static final String VARIANT_PRODUCT = "idx_product_variants_product_size_color";
+    // H2 keeps the index it created for each foreign key next to a composite index on the same leading column
+    // (MySQL drops the implicit one) and, on the empty test tables, may pick it: either way a seek on the column
+    private static final String VARIANT_PRODUCT_FK = "fko52x4lc7lxwok1ts0heknb0tf_INDEX";
+    private static final String TRANSACTION_FASHION_PRODUCT_FK = "fkhb1ic8sn35sgpvnhyhf8uso2q_INDEX";
+    private static final String TRANSACTION_PRODUCT_FK = "fk9qbjlda0gjdsmqn7bkhii6bb0_INDEX";
+    private static final String TRANSACTION_VARIANT_FK = "fkhisuvq33hlmot99n0kut5b69a_INDEX";
+    private static final String TRANSACTION_USER_FK = "fk22636p8lnuf1dl7tvet5dnjfs_INDEX";
+
+    @Autowired
+    private StockTransactionRepository stockTransactionRepository;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private FashionProductRepository fashionProductRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private PasswordResetOtpRepository passwordResetOtpRepository;
+
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    @Autowired
+    private AlertEvaluationTaskRepository alertEvaluationTaskRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseTheirIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        FashionProduct fashionProduct = fashionProductRepository.getReferenceById(1L);
+        Product product = productRepository.getReferenceById(1L);
+
+        return Stream.of(
+                plan("StockTransaction.findTop10ByOrderByCreatedAtDesc", List.of(CREATED_AT),
+                        () -> stockTransactionRepository.findTop10ByOrderByCreatedAtDesc()),
+                plan("StockTransaction.findByCreatedAtBetweenOrderByCreatedAtDesc", List.of(CREATED_AT),
+                        () -> stockTransactionRepository.findByCreatedAtBetweenOrderByCreatedAtDesc(now.minusDays(1), now)),
+                plan("StockTransaction.countByCreatedAtAfter", List.of(CREATED_AT),
+                        () -> stockTransactionRepository.countByCreatedAtAfter(now)),
+                plan("StockTransaction.countByCreatedAtGreaterThanEqualAndCreatedAtLessThan", List.of(CREATED_AT),
+                        () -> stockTransactionRepository.countByCreatedAtGreaterThanEqualAndCreatedAtLessThan(now.minusHours(1), now)),
+                plan("StockTransaction.findByFashionProductIdOrderByCreatedAtDesc",
+                        List.of("idx_stock_transactions_fashion_product_created_at", TRANSACTION_FASHION_PRODUCT_FK),
+                        () -> stockTransactionRepository.findByFashionProductIdOrderByCreatedAtDesc(1L)),
+                plan("StockTransaction.findByProductIdOrderByCreatedAtDesc",
+                        List.of("idx_stock_transactions_product_created_at", TRANSACTION_PRODUCT_FK),
+                        () -> stockTransactionRepository.findByProductIdOrderByCreatedAtDesc(1L)),
+                plan("StockTransaction.findByProductVariantIdOrderByCreatedAtDesc",
+                        List.of("idx_stock_transactions_variant_created_at", TRANSACTION_VARIANT_FK),
+                        () -> stockTransactionRepository.findByProductVariantIdOrderByCreatedAtDesc(1L)),
+                plan("StockTransaction.findByUserIdOrderByCreatedAtDesc",
+                        List.of("idx_stock_transactions_user_created_at", TRANSACTION_USER_FK),
+                        () -> stockTransactionRepository.findByUserIdOrderByCreatedAtDesc(1L)),
+                plan("StockTransaction.findByTypeOrderByCreatedAtDesc",
+                        List.of("idx_stock_transactions_type_created_at"),
+                        () -> stockTransactionRepository.findByTypeOrderByCreatedAtDesc(StockTransaction.TransactionType.STOCK_OUT)),
+                plan("StockTransaction.sumQuantityDeltaAfter",
+                        List.of("idx_stock_transactions_variant_id", "idx_stock_transactions_variant_created_at"),
+                        () -> stockTransactionRepository.sumQuantityDeltaAfter(1L, 0L, now)),
+                plan("ProductVariant.findByProductAndSizeAndColor", List.of(VARIANT_PRODUCT, VARIANT_PRODUCT_FK),
+                        () -> productVariantRepository.findByProductAndSizeAndColor(fashionProduct,
+                                ProductVariant.Size.M, ProductVariant.Color.BLACK)),
+                plan("ProductVariant.findByProductOrderBySizeAscColorAsc", List.of(VARIANT_PRODUCT, VARIANT_PRODUCT_FK),
+                        () -> productVariantRepository.findByProductOrderBySizeAscColorAsc(fashionProduct)),
+                plan("ProductVariant.findOutOfStockVariants", List.of("idx_product_variants_quantity_min_stock"),
+                        () -> productVariantRepository.findOutOfStockVariants()),
+                plan("ProductVariant.findByQuantity", List.of("idx_product_variants_quantity_min_stock"),
+                        () -> productVariantRepository.findByQuantity(0)),
+                plan("FashionProduct.findPageWithFilters", List.of("idx_fashion_products_created_at_id"),
+                        () -> fashionProductRepository.findPageWithFilters(null, null, null, null, null, null,
+                                false, false, now, 1L, PageRequest.of(0, 20))),
+                plan("Alert.findByProductAndTypeAndStatus", List.of("idx_alerts_product_type_status"),
+                        () -> alertRepository.findByProductAndTypeAndStatus(product,
+                                Alert.AlertType.LOW_STOCK, Alert.AlertStatus.ACTIVE)),
+                plan("Alert.findByStatusOrderByCreatedAtDesc", List.of("idx_alerts_status_created_at"),
+                        () -> alertRepository.findByStatusOrderByCreatedAtDesc(Alert.AlertStatus.ACTIVE)),
+                plan("PasswordResetOtp.countByEmailAndCreatedAtAfter", List.of(OTP_EMAIL),
+                        () -> passwordResetOtpRepository.countByEmailAndCreatedAtAfter("user@example.com", now)),
+                plan("PasswordResetOtp.findTopByEmailAndUsedFalseOrderByCreatedAtDesc", List.of(OTP_EMAIL),
+                        () -> passwordResetOtpRepository.findTopByEmailAndUsedFalseOrderByCreatedAtDesc("user@example.com")),
+                plan("PasswordResetOtp.deleteExpiredOtps", List.of("idx_password_reset_otps_expires_at"),
+                        () -> passwordResetOtpRepository.deleteExpiredOtps(now)),
+                plan("StockSnapshot.findLatestAtOrBefore", List.of("idx_stock_snapshots_variant_snapshot_at"),
+                        () -> stockSnapshotRepository.findLatestAtOrBefore(1L, now, PageRequest.of(0, 1))),
+                plan("AlertEvaluationTask.deleteProcessed", List.of("idx_alert_evaluation_queue_target"),
+                        () -> alertEvaluationTaskRepository.deleteProcessed(AlertEvaluationTask.TargetType.VARIANT, 1L, 1L)),
+                plan("EmailOutbox.findDue", List.of("idx_email_outbox_status_next_attempt"),
+                        () -> emailOutboxRepository.findDue(EmailOutboxMessage.Status.PENDING, now, PageRequest.of(0, 50))));
+    }
+
+    private DynamicTest plan(String query, List<String> acceptedIndexes, Runnable invocation) {
+        return DynamicTest.dynamicTest(query, () -> {
+            List<String> statements = transactionTemplate.execute(status -> {
+                status.setRollbackOnly();
+                SqlCapture.start();
+                try {
+                    invocation.run();
+                    return SqlCapture.stop();
+                } finally {
+                    SqlCapture.stop();
+                }
+            });
+            assertThat(statements).as("SQL of %s", query).isNotEmpty();
+            String sql = statements.get(statements.size() - 1);
+            String plan = jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+                    rs -> rs.next() ? rs.getString(1) : "");
+            assertThat(plan).as("plan of %s", query).doesNotContain("tableScan")
+                    .containsAnyOf(acceptedIndexes.stream().map(index -> "public." + index).toArray(String[]::new));
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package com.inventory.service;
+
+import com.inventory.model.AlertEvaluationTask;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * drain only starts the work on the worker pool, and a drain requested while one is running is not lost.
+ * (The test profile pushes the wakeup window and the poll out, so drains run only when called here.)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AlertEvaluationServiceTest {
+
+    @Autowired
+    private AlertEvaluationService alertEvaluationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void drainEvaluatesQueuedTargetsInTheBackground() throws Exception {
+        // Variants that do not exist: their tasks are dropped without raising alerts
+        long variantId = -System.nanoTime();
+        enqueue(variantId, variantId - 1, variantId - 2);
+
+        alertEvaluationService.drain();
+
+        assertThat(waitUntilDrained(variantId - 2, variantId)).isTrue();
+    }
+
+    @Test
+    void tasksQueuedDuringADrainAreDrainedToo() throws Exception {
+        long variantId = -System.nanoTime();
+        enqueue(variantId);
+        alertEvaluationService.drain();
+        // Most likely lands while the first drain is still running
+        enqueue(variantId - 1);
+        alertEvaluationService.drain();
+
+        assertThat(waitUntilDrained(variantId - 1, variantId)).isTrue();
+    }
+
+    private void enqueue(long... variantIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long variantId : variantIds) {
+                alertEvaluationService.enqueueAll(List.of(
+                        new AlertEvaluationTask(AlertEvaluationTask.TargetType.VARIANT, variantId, null)));
+            }
+        });
+    }
+
+    private boolean waitUntilDrained(long fromId, long toId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Long pending = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM alert_evaluation_queue WHERE target_id BETWEEN ? AND ?", Long.class, fromId, toId);
+            if (pending == 0) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+}
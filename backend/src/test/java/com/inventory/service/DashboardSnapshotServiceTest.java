@@ -0,0 +1,91 @@
+package com.inventory.service;
+
+import com.inventory.dto.DashboardSnapshot;
+import com.inventory.dto.FashionProductRequest;
+import com.inventory.dto.FashionProductResponse;
+import com.inventory.dto.InventoryStatistics;
+import com.inventory.dto.ProductVariantRequest;
+import com.inventory.dto.StockTransactionRequest;
+import com.inventory.model.FashionProduct;
+import com.inventory.model.ProductVariant;
+import com.inventory.repository.InventoryStatisticsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The low and out-of-stock counters adjusted by each refresh agree with the aggregate query the full
+ * rebuild takes them from.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DashboardSnapshotServiceTest {
+
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+
+    @Autowired
+    private InventoryStatisticsRepository inventoryStatisticsRepository;
+
+    @Autowired
+    private FashionProductService fashionProductService;
+
+    @Autowired
+    private StockTransactionService stockTransactionService;
+
+    @Test
+    void refreshedCountersMatchTheAggregate() {
+        dashboardSnapshotService.rebuild();
+        FashionProductResponse product = createProduct();
+        dashboardSnapshotService.applyPendingChanges();
+        assertCountersMatchTheAggregate();
+
+        // Low stock, then out of stock
+        Long variantId = product.getVariants().get(0).getId();
+        move(product.getId(), variantId, 8);
+        dashboardSnapshotService.applyPendingChanges();
+        assertCountersMatchTheAggregate();
+        move(product.getId(), variantId, 2);
+        dashboardSnapshotService.applyPendingChanges();
+        assertCountersMatchTheAggregate();
+
+        // A product without movements can be deleted
+        FashionProductResponse deleted = createProduct();
+        dashboardSnapshotService.applyPendingChanges();
+        fashionProductService.deleteProduct(deleted.getId());
+        dashboardSnapshotService.applyPendingChanges();
+        assertCountersMatchTheAggregate();
+    }
+
+    private void assertCountersMatchTheAggregate() {
+        DashboardSnapshot snapshot = dashboardSnapshotService.getSnapshot();
+        InventoryStatistics statistics = inventoryStatisticsRepository.getStatistics();
+        assertThat(snapshot.getLowStockProducts()).isEqualTo(statistics.getLowStockFashionProducts());
+        assertThat(snapshot.getOutOfStockProducts()).isEqualTo(statistics.getOutOfStockFashionProducts());
+    }
+
+    private void move(Long productId, Long variantId, int quantity) {
+        StockTransactionRequest request = new StockTransactionRequest();
+        request.setFashionProductId(productId);
+        request.setVariantId(variantId);
+        request.setType("STOCK_OUT");
+        request.setQuantity(quantity);
+        request.setReason("Dashboard test");
+        stockTransactionService.createStockTransaction(request, "admin");
+    }
+
+    private FashionProductResponse createProduct() {
+        FashionProductRequest request = new FashionProductRequest("Dashboard Tee " + System.nanoTime(), "Cotton tee",
+                FashionProduct.Category.CLOTHING_MENS, "StyleCraft", new BigDecimal("499.00"),
+                FashionProduct.Season.SUMMER, FashionProduct.Gender.MALE);
+        request.setVariants(List.of(
+                new ProductVariantRequest(ProductVariant.Size.M, ProductVariant.Color.BLACK, 10, 5, null)));
+        return fashionProductService.createProduct(request);
+    }
+}
@@ -0,0 +1,138 @@
+package com.inventory.service;
+
+import com.inventory.model.EmailOutboxMessage;
+import com.inventory.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Outbox delivery through a mocked JavaMailSender: failed sends are retried after the backoff, messages
+ * are given up on after max-attempts or once expired, and the OTP is cleared from every finished row.
+ */
+@SpringBootTest(properties = {"app.email.outbox.initial-backoff-ms=300", "app.email.outbox.max-attempts=2"})
+@ActiveProfiles("test")
+class EmailOutboxServiceTest {
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @Test
+    void failedSendIsRetriedAfterTheBackoff() throws Exception {
+        reset(mailSender);
+        doThrow(new MailSendException("SMTP unavailable")).doNothing().when(mailSender).send(any(SimpleMailMessage[].class));
+        String recipient = enqueueOtp(LocalDateTime.now().plusMinutes(10));
+
+        emailOutboxService.dispatch();
+        EmailOutboxMessage retrying = find(recipient);
+        assertThat(retrying.getStatus()).isEqualTo(EmailOutboxMessage.Status.PENDING);
+        assertThat(retrying.getAttempts()).isEqualTo(1);
+        assertThat(retrying.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(retrying.getOtp()).isNotNull();
+
+        // Not due yet: not attempted again
+        emailOutboxService.dispatch();
+        assertThat(find(recipient).getAttempts()).isEqualTo(1);
+
+        Thread.sleep(400);
+        emailOutboxService.dispatch();
+        EmailOutboxMessage sent = find(recipient);
+        assertThat(sent.getStatus()).isEqualTo(EmailOutboxMessage.Status.SENT);
+        assertThat(sent.getSentAt()).isNotNull();
+        assertThat(sent.getOtp()).isNull();
+    }
+
+    @Test
+    void messageIsGivenUpOnAfterMaxAttempts() throws Exception {
+        reset(mailSender);
+        doThrow(new MailSendException("SMTP unavailable")).when(mailSender).send(any(SimpleMailMessage[].class));
+        String recipient = enqueueOtp(LocalDateTime.now().plusMinutes(10));
+
+        emailOutboxService.dispatch();
+        Thread.sleep(400);
+        emailOutboxService.dispatch();
+
+        EmailOutboxMessage failed = find(recipient);
+        assertThat(failed.getStatus()).isEqualTo(EmailOutboxMessage.Status.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(failed.getLastError()).contains("SMTP unavailable");
+        assertThat(failed.getOtp()).isNull();
+    }
+
+    @Test
+    void expiredMessageIsNotSent() {
+        reset(mailSender);
+        doNothing().when(mailSender).send(any(SimpleMailMessage[].class));
+        String recipient = enqueueOtp(LocalDateTime.now().minusSeconds(1));
+        clearInvocations(mailSender);
+        ArgumentCaptor<SimpleMailMessage[]> captor = ArgumentCaptor.forClass(SimpleMailMessage[].class);
+
+        emailOutboxService.dispatch();
+
+        EmailOutboxMessage expired = find(recipient);
+        assertThat(expired.getStatus()).isEqualTo(EmailOutboxMessage.Status.FAILED);
+        assertThat(expired.getOtp()).isNull();
+        // Other due rows may be sent in the same dispatch, but not this one
+        verify(mailSender, atLeast(0)).send(captor.capture());
+        assertThat(captor.getAllValues()).flatMap(List::of)
+                .noneMatch(mail -> List.of(mail.getTo()).contains(recipient));
+    }
+
+    @Test
+    void finishedMessagesArePurgedAfterTheRetention() {
+        reset(mailSender);
+        doThrow(new MailSendException("SMTP unavailable")).when(mailSender).send(any(SimpleMailMessage[].class));
+        String recipient = enqueueOtp(LocalDateTime.now().minusSeconds(1));
+        emailOutboxService.dispatch();
+        assertThat(find(recipient).getStatus()).isEqualTo(EmailOutboxMessage.Status.FAILED);
+
+        jdbcTemplate.update("UPDATE email_outbox SET created_at = ? WHERE recipient = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(30)), recipient);
+        emailOutboxService.poll();
+
+        assertThat(emailOutboxRepository.findAll()).noneMatch(message -> message.getRecipient().equals(recipient));
+    }
+
+    private String enqueueOtp(LocalDateTime expiresAt) {
+        // Saved directly: enqueueOtpEmail would also wake up a dispatch in the background
+        String recipient = "outbox-" + System.nanoTime() + "@example.com";
+        emailOutboxRepository.save(new EmailOutboxMessage(
+                EmailOutboxMessage.MessageType.OTP, recipient, "Outbox Test", "123456", expiresAt));
+        return recipient;
+    }
+
+    private EmailOutboxMessage find(String recipient) {
+        return emailOutboxRepository.findAll().stream()
+                .filter(message -> message.getRecipient().equals(recipient))
+                .findFirst().orElseThrow();
+    }
+}
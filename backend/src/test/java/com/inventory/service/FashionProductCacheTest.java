@@ -0,0 +1,107 @@
+package com.inventory.service;
+
+import com.inventory.dto.FashionProductRequest;
+import com.inventory.dto.FashionProductResponse;
+import com.inventory.dto.ProductVariantRequest;
+import com.inventory.dto.StockTransactionRequest;
+import com.inventory.model.FashionProduct;
+import com.inventory.model.ProductVariant;
+import com.inventory.support.SqlCapture;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Second-level cache of the catalog: repeated reads are served without SQL, and a stock movement evicts
+ * only the variant and product it changed. Statements are counted on the test thread only (Hibernate
+ * statistics would also count background jobs).
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.inventory.support.SqlCapture")
+@ActiveProfiles("test")
+class FashionProductCacheTest {
+
+    @Autowired
+    private FashionProductService fashionProductService;
+
+    @Autowired
+    private StockTransactionService stockTransactionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Cache cache;
+    private FashionProductResponse product;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cache = entityManagerFactory.getCache();
+        FashionProductRequest request = new FashionProductRequest("Cache Tee " + System.nanoTime(), "Cotton tee",
+                FashionProduct.Category.CLOTHING_MENS, "StyleCraft", new BigDecimal("499.00"),
+                FashionProduct.Season.SUMMER, FashionProduct.Gender.MALE);
+        request.setVariants(List.of(
+                new ProductVariantRequest(ProductVariant.Size.M, ProductVariant.Color.BLACK, 50, 5, null),
+                new ProductVariantRequest(ProductVariant.Size.L, ProductVariant.Color.BLACK, 50, 5, null)));
+        product = fashionProductService.createProduct(request);
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() {
+        // The first read loads the product, its variants collection and the variants into the cache
+        fashionProductService.getProductById(product.getId());
+        statistics.clear();
+
+        List<String> statements;
+        SqlCapture.start();
+        try {
+            for (int i = 0; i < 5; i++) {
+                fashionProductService.getProductById(product.getId());
+            }
+            statements = SqlCapture.stop();
+        } finally {
+            SqlCapture.stop();
+        }
+
+        assertThat(statements).isEmpty();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(5 * 4);
+    }
+
+    @Test
+    void stockMovementEvictsOnlyTheRowsItChanged() {
+        Long movedId = product.getVariants().get(0).getId();
+        Long otherId = product.getVariants().get(1).getId();
+        fashionProductService.getProductById(product.getId());
+        assertThat(cache.contains(ProductVariant.class, movedId)).isTrue();
+        assertThat(cache.contains(ProductVariant.class, otherId)).isTrue();
+
+        StockTransactionRequest request = new StockTransactionRequest();
+        request.setFashionProductId(product.getId());
+        request.setVariantId(movedId);
+        request.setType("STOCK_OUT");
+        request.setQuantity(7);
+        request.setReason("Cache test");
+        stockTransactionService.createStockTransaction(request, "admin");
+
+        assertThat(cache.contains(ProductVariant.class, movedId)).isFalse();
+        assertThat(cache.contains(FashionProduct.class, product.getId())).isFalse();
+        assertThat(cache.contains(ProductVariant.class, otherId)).isTrue();
+
+        FashionProductResponse reloaded = fashionProductService.getProductById(product.getId());
+        assertThat(reloaded.getVariants()).filteredOn(variant -> variant.getId().equals(movedId))
+                .singleElement().satisfies(variant -> assertThat(variant.getQuantity()).isEqualTo(43));
+        assertThat(reloaded.getTotalStock()).isEqualTo(93);
+    }
+}
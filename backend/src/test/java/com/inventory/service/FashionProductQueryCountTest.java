@@ -0,0 +1,70 @@
+package com.inventory.service;
+
+import com.inventory.dto.FashionProductRequest;
+import com.inventory.dto.FashionProductResponse;
+import com.inventory.dto.ProductVariantRequest;
+import com.inventory.model.FashionProduct;
+import com.inventory.model.ProductVariant;
+import com.inventory.support.SqlCapture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The fashion product list loads products and variants with findAllWithVariantsOrderByCreatedAtDesc,
+ * so the number of statements does not grow with the number of products. Statements are counted on the
+ * test thread only (Hibernate statistics would also count background jobs).
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.inventory.support.SqlCapture")
+@ActiveProfiles("test")
+class FashionProductQueryCountTest {
+
+    @Autowired
+    private FashionProductService fashionProductService;
+
+    @Test
+    void productListIsLoadedWithOneQuery() {
+        createProduct();
+        long listed = countStatementsOfProductList();
+
+        for (int i = 0; i < 5; i++) {
+            createProduct();
+        }
+        long listedAfter = countStatementsOfProductList();
+
+        List<FashionProductResponse> products = fashionProductService.getAllProducts();
+        assertThat(products).filteredOn(product -> product.getName().startsWith("Count Tee"))
+                .hasSizeGreaterThanOrEqualTo(6)
+                .allSatisfy(product -> assertThat(product.getVariants()).hasSize(2));
+        assertThat(listed).isEqualTo(1);
+        assertThat(listedAfter).isEqualTo(1);
+    }
+
+    private long countStatementsOfProductList() {
+        // Lazy variant collections or products fetched one by one would show up as extra statements
+        SqlCapture.start();
+        try {
+            fashionProductService.getAllProducts();
+            return SqlCapture.stop().size();
+        } finally {
+            SqlCapture.stop();
+        }
+    }
+
+    private void createProduct() {
+        FashionProductRequest request = new FashionProductRequest("Count Tee " + System.nanoTime(), "Cotton tee",
+                FashionProduct.Category.CLOTHING_MENS, "StyleCraft", new BigDecimal("499.00"),
+                FashionProduct.Season.SUMMER, FashionProduct.Gender.MALE);
+        request.setVariants(List.of(
+                new ProductVariantRequest(ProductVariant.Size.M, ProductVariant.Color.BLACK, 20, 5, null),
+                new ProductVariantRequest(ProductVariant.Size.L, ProductVariant.Color.WHITE, 20, 5, null)));
+        fashionProductService.createProduct(request);
+    }
+}
@@ -0,0 +1,156 @@
+package com.inventory.service;
+
+import com.inventory.event.FashionProductChangedEvent;
+import com.inventory.model.FashionProduct;
+import com.inventory.model.ProductVariant;
+import com.inventory.repository.FashionProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Exact, prefix and typo matching and ranking of the search index, and re-indexing of changed and deleted
+ * products through the coalesced re-index queue.
+ */
+class ProductSearchIndexTest {
+
+    private Map<Long, FashionProduct> catalog;
+
+    private FashionProductRepository fashionProductRepository;
+    private TaskScheduler taskScheduler;
+    private ProductSearchIndex productSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new HashMap<>();
+        catalog.put(1L, product(1L, "Denim Jacket", "FP-DJ-001", "Levis", "Cotton", "Classic blue", "FP-DJ-001-M"));
+        catalog.put(2L, product(2L, "Leather Jacket", "FP-LJ-002", "Zara", "Leather", "Biker cut with denim trim"));
+        catalog.put(3L, product(3L, "Jacquard Scarf", "FP-JS-003", "Hermes", "Silk", null));
+
+        fashionProductRepository = mock(FashionProductRepository.class);
+        when(fashionProductRepository.findAllWithVariantsOrderByCreatedAtDesc())
+                .thenAnswer(invocation -> List.copyOf(catalog.values()));
+        when(fashionProductRepository.findAllWithVariantsByIdIn(anyCollection()))
+                .thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).stream()
+                        .map(catalog::get)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+        taskScheduler = mock(TaskScheduler.class);
+
+        productSearchIndex = new ProductSearchIndex();
+        ReflectionTestUtils.setField(productSearchIndex, "fashionProductRepository", fashionProductRepository);
+        ReflectionTestUtils.setField(productSearchIndex, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(productSearchIndex, "taskScheduler", taskScheduler);
+        productSearchIndex.init();
+        productSearchIndex.rebuild();
+    }
+
+    @Test
+    void exactMatchesRankByFieldWeight() {
+        // "denim" is in the name of product 1 but only in the description of product 2
+        assertThat(productSearchIndex.search("denim")).containsExactly(1L, 2L);
+        // Variant SKUs are indexed as well
+        assertThat(productSearchIndex.search("fp-dj-001-m")).containsExactly(1L);
+        assertThat(productSearchIndex.search("  ")).isEmpty();
+    }
+
+    @Test
+    void prefixMatchesNeedTwoCharacters() {
+        // "jacquard" does not start with "jack"
+        assertThat(productSearchIndex.search("jack")).containsExactly(2L, 1L);
+        assertThat(productSearchIndex.search("jac")).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(productSearchIndex.search("j")).isEmpty();
+    }
+
+    @Test
+    void typoMatchesWithinTheEditDistance() {
+        assertThat(productSearchIndex.search("jaket")).containsExactly(2L, 1L);
+        // Adjacent transposition counts as one edit
+        assertThat(productSearchIndex.search("levsi")).containsExactly(1L);
+        // Four characters allow one edit only
+        assertThat(productSearchIndex.search("zrxx")).isEmpty();
+
+        assertThat(ProductSearchIndex.editDistance("jaket", "jacket", 1)).isEqualTo(1);
+        assertThat(ProductSearchIndex.editDistance("levsi", "levis", 1)).isEqualTo(1);
+        assertThat(ProductSearchIndex.editDistance("lether", "leather", 2)).isEqualTo(1);
+        // Stops at maxDistance + 1 once exceeded
+        assertThat(ProductSearchIndex.editDistance("scarf", "jacket", 1)).isEqualTo(2);
+    }
+
+    @Test
+    void everyQueryWordMustMatchAndExactBeatsPrefixBeatsTypo() {
+        assertThat(productSearchIndex.search("denim jacket")).containsExactly(1L, 2L);
+        assertThat(productSearchIndex.search("denim scarf")).isEmpty();
+
+        catalog.put(4L, product(4L, "Jacket", "FP-J-004", "Acme", null, null));
+        catalog.put(5L, product(5L, "Jackets", "FP-J-005", "Acme", null, null));
+        catalog.put(6L, product(6L, "Jacker", "FP-J-006", "Acme", null, null));
+        productSearchIndex.rebuild();
+        assertThat(productSearchIndex.search("jacket acme")).containsExactly(4L, 5L, 6L);
+        assertThat(productSearchIndex.search("jacket acme", 2)).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void changedProductsAreQueuedAndReindexedTogether() {
+        productSearchIndex.onFashionProductChanged(new FashionProductChangedEvent(1L));
+        catalog.remove(1L);
+        catalog.get(2L).setName("Leather Coat");
+        productSearchIndex.onFashionProductChanged(new FashionProductChangedEvent(2L));
+
+        // The second change joins the pending re-index instead of scheduling another one
+        ArgumentCaptor<Runnable> reindex = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(1)).schedule(reindex.capture(), any(Instant.class));
+        // Nothing changes until the re-index runs
+        assertThat(productSearchIndex.search("levis")).containsExactly(1L);
+
+        reindex.getValue().run();
+
+        // The deleted product is gone, and so are the words only it used
+        assertThat(productSearchIndex.search("denim")).containsExactly(2L);
+        assertThat(productSearchIndex.search("levis")).isEmpty();
+        assertThat(productSearchIndex.search("levsi")).isEmpty();
+        assertThat(productSearchIndex.search("jacket")).isEmpty();
+        assertThat(productSearchIndex.search("coat")).containsExactly(2L);
+        assertThat(productSearchIndex.getStatistics()).containsEntry("products", 2);
+
+        // The queue is empty again, so the next change schedules a new re-index
+        productSearchIndex.onFashionProductChanged(new FashionProductChangedEvent(3L));
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    private static FashionProduct product(Long id, String name, String sku, String brand, String material,
+                                          String description, String... variantSkus) {
+        FashionProduct product = new FashionProduct();
+        product.setId(id);
+        product.setSku(sku);
+        product.setName(name);
+        product.setBrand(brand);
+        product.setMaterial(material);
+        product.setDescription(description);
+        for (String variantSku : variantSkus) {
+            ProductVariant variant = new ProductVariant();
+            variant.setVariantSku(variantSku);
+            product.getVariants().add(variant);
+        }
+        return product;
+    }
+}
@@ -0,0 +1,117 @@
+package com.inventory.service;
+
+import com.inventory.model.VariantForecast;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * The closed-form fold (open day, zero-demand days applied as a decay, bias correction by the weight of
+ * the history) matches a plain day-by-day EWMA over the same daily demand.
+ */
+class SalesVelocityServiceTest {
+
+    private static final double SMOOTHING = 0.1;
+    private static final double LEAD_TIME_DAYS = 7;
+    private static final double SERVICE_LEVEL_Z = 1.65;
+    private static final long MIN_HISTORY_DAYS = 14;
+
+    private static final LocalDate CREATED = LocalDate.of(2026, 3, 1);
+
+    private SalesVelocityService salesVelocityService;
+
+    @BeforeEach
+    void setUp() {
+        salesVelocityService = new SalesVelocityService();
+        ReflectionTestUtils.setField(salesVelocityService, "smoothing", SMOOTHING);
+        ReflectionTestUtils.setField(salesVelocityService, "leadTimeDays", LEAD_TIME_DAYS);
+        ReflectionTestUtils.setField(salesVelocityService, "serviceLevelZ", SERVICE_LEVEL_Z);
+        ReflectionTestUtils.setField(salesVelocityService, "minHistoryDays", MIN_HISTORY_DAYS);
+    }
+
+    @Test
+    void foldMatchesADailyEwmaWithZeroDemandDaysAndBiasCorrection() {
+        // Daily demand by day offset from the variant's creation: nothing before day 3, two sales on day 4,
+        // gaps without sales in between
+        Map<Integer, Integer> sales = Map.of(3, 5, 4, 2, 10, 7, 20, 4);
+        VariantForecast forecast = new VariantForecast(1L, CREATED, CREATED.plusDays(3));
+        recordSale(forecast, 3, 5);
+        recordSale(forecast, 4, 1);
+        recordSale(forecast, 4, 1);
+        recordSale(forecast, 10, 7);
+        recordSale(forecast, 20, 4);
+
+        // Early on there is not enough history for a reorder point
+        VariantForecast early = new VariantForecast(2L, CREATED, CREATED.plusDays(3));
+        recordSale(early, 3, 5);
+        recordSale(early, 4, 2);
+        refresh(early, 10);
+        assertMatchesReference(early, Map.of(3, 5, 4, 2), 10);
+        assertThat(early.getReorderPoint()).isNull();
+
+        // Day 30: days 21-29 are zero-demand days
+        refresh(forecast, 30);
+        assertMatchesReference(forecast, sales, 30);
+        assertThat(forecast.getReorderPoint()).isNotNull();
+    }
+
+    @Test
+    void refreshOnTheOpenDayLeavesItsSalesOut() {
+        VariantForecast forecast = new VariantForecast(1L, CREATED, CREATED);
+        recordSale(forecast, 0, 3);
+        recordSale(forecast, 15, 9);
+
+        // Day 15 is still open: only days 0-14 count
+        refresh(forecast, 15);
+
+        assertMatchesReference(forecast, Map.of(0, 3), 15);
+    }
+
+    @Test
+    void lowStockFlipsWhenTheLevelCrossesTheQuantity() {
+        // Without a reorder point the minimum stock level applies
+        assertThat(SalesVelocityService.lowStockChanged(8, 5, null, null)).isFalse();
+        assertThat(SalesVelocityService.lowStockChanged(8, 5, null, 10)).isTrue();
+        assertThat(SalesVelocityService.lowStockChanged(8, 5, 10, 12)).isFalse();
+        assertThat(SalesVelocityService.lowStockChanged(8, 5, 10, 6)).isTrue();
+        assertThat(SalesVelocityService.lowStockChanged(4, 5, null, 6)).isFalse();
+    }
+
+    /**
+     * Day-by-day EWMA of daily demand and its square from the creation day through the day before
+     * refreshDay, divided by 1 - (1 - alpha)^days
+     */
+    private void assertMatchesReference(VariantForecast forecast, Map<Integer, Integer> sales, int refreshDay) {
+        double mean = 0;
+        double meanSq = 0;
+        for (int day = 0; day < refreshDay; day++) {
+            double out = sales.getOrDefault(day, 0);
+            mean = SMOOTHING * out + (1 - SMOOTHING) * mean;
+            meanSq = SMOOTHING * out * out + (1 - SMOOTHING) * meanSq;
+        }
+        double weight = 1 - Math.pow(1 - SMOOTHING, refreshDay);
+        double velocity = mean / weight;
+        double stdDev = Math.sqrt(Math.max(0, meanSq / weight - velocity * velocity));
+
+        assertThat(forecast.getDailyVelocity()).isCloseTo(velocity, within(1e-9));
+        assertThat(forecast.getVelocityStdDev()).isCloseTo(stdDev, within(1e-9));
+        if (refreshDay >= MIN_HISTORY_DAYS) {
+            assertThat(forecast.getReorderPoint()).isEqualTo(
+                    (int) Math.ceil(velocity * LEAD_TIME_DAYS + SERVICE_LEVEL_Z * stdDev * Math.sqrt(LEAD_TIME_DAYS)));
+        }
+    }
+
+    private void recordSale(VariantForecast forecast, int day, int quantity) {
+        ReflectionTestUtils.invokeMethod(salesVelocityService, "recordSale", forecast, CREATED.plusDays(day), quantity);
+    }
+
+    private void refresh(VariantForecast forecast, int day) {
+        ReflectionTestUtils.invokeMethod(salesVelocityService, "refresh", forecast, CREATED.plusDays(day));
+    }
+}
@@ -0,0 +1,96 @@
+package com.inventory.service;
+
+import com.inventory.dto.FashionProductRequest;
+import com.inventory.dto.FashionProductResponse;
+import com.inventory.dto.FashionProductStockAt;
+import com.inventory.dto.ProductVariantRequest;
+import com.inventory.dto.StockTransactionRequest;
+import com.inventory.model.FashionProduct;
+import com.inventory.model.ProductVariant;
+import com.inventory.repository.StockSnapshotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Point-in-time stock is answered from the ledger snapshots and agrees with StockLedgerService.getQuantityAt.
+ * Gaps left by rolled-back movements of other tests must not hold the ledger back, so they settle at once.
+ */
+@SpringBootTest(properties = {"app.stream.settle-seconds=0", "app.ledger.snapshot-every=2"})
+@ActiveProfiles("test")
+class StockHistoryServiceTest {
+
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private FashionProductService fashionProductService;
+
+    @Autowired
+    private StockTransactionService stockTransactionService;
+
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    @Test
+    void stockAtIsReplayedFromTheNearestSnapshot() throws Exception {
+        LocalDateTime beforeCreation = LocalDateTime.now().minusMinutes(1);
+        FashionProductResponse product = createProduct();
+        Long variantId = product.getVariants().get(0).getId();
+
+        move(product.getId(), variantId, "STOCK_OUT", 7);
+        move(product.getId(), variantId, "STOCK_OUT", 3);
+        Thread.sleep(20);
+        LocalDateTime afterOuts = LocalDateTime.now();
+        Thread.sleep(20);
+        move(product.getId(), variantId, "STOCK_IN", 5);
+        stockLedgerService.fold();
+
+        // The second movement was snapshotted, so the lookup at afterOuts starts from it
+        assertThat(stockSnapshotRepository.findLatestAtOrBefore(variantId, afterOuts, PageRequest.of(0, 1)))
+                .singleElement().satisfies(snapshot -> assertThat(snapshot.getQuantity()).isEqualTo(40));
+        assertThat(quantityAt(product.getId(), afterOuts)).isEqualTo(40);
+        assertThat(quantityAt(product.getId(), LocalDateTime.now())).isEqualTo(45);
+        assertThat(quantityAt(product.getId(), beforeCreation)).isZero();
+        assertThat(stockLedgerService.getQuantityAt(variantId, afterOuts)).isEqualTo(40);
+
+        FashionProductStockAt stock = stockHistoryService.getStockAt(product.getId(), afterOuts);
+        assertThat(stock.getTotalStock()).isEqualTo(40 + 20);
+    }
+
+    private int quantityAt(Long productId, LocalDateTime at) {
+        List<FashionProductStockAt> stock = stockHistoryService.getStockAt(List.of(productId), at);
+        return stock.get(0).getVariants().get(0).getQuantity();
+    }
+
+    private void move(Long productId, Long variantId, String type, int quantity) {
+        StockTransactionRequest request = new StockTransactionRequest();
+        request.setFashionProductId(productId);
+        request.setVariantId(variantId);
+        request.setType(type);
+        request.setQuantity(quantity);
+        request.setReason("Stock-at test");
+        stockTransactionService.createStockTransaction(request, "admin");
+    }
+
+    private FashionProductResponse createProduct() {
+        FashionProductRequest request = new FashionProductRequest("History Tee " + System.nanoTime(), "Cotton tee",
+                FashionProduct.Category.CLOTHING_MENS, "StyleCraft", new BigDecimal("499.00"),
+                FashionProduct.Season.SUMMER, FashionProduct.Gender.MALE);
+        request.setVariants(List.of(
+                new ProductVariantRequest(ProductVariant.Size.M, ProductVariant.Color.BLACK, 50, 5, null),
+                new ProductVariantRequest(ProductVariant.Size.L, ProductVariant.Color.BLACK, 20, 5, null)));
+        return fashionProductService.createProduct(request);
+    }
+}
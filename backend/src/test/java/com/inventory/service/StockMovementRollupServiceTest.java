@@ -0,0 +1,58 @@
+package com.inventory.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * countSince adds the hourly buckets, the part of the first hour counted from stock_transactions and the
+ * rows not folded yet, so it matches a direct count whatever the time and the fold position.
+ */
+@SpringBootTest(properties = "app.stream.settle-seconds=0")
+@ActiveProfiles("test")
+class StockMovementRollupServiceTest {
+
+    @Autowired
+    private StockMovementRollupService stockMovementRollupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countSinceMatchesADirectCount() {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(150).withMinute(20).withSecond(30);
+        // Same hour as since, before and after it; then later hours
+        insert(since.minusMinutes(5));
+        insert(since.plusMinutes(5));
+        insert(since.plusMinutes(50));
+        insert(since.plusMinutes(100));
+        stockMovementRollupService.fold();
+        // Not folded yet
+        insert(since.plusMinutes(10));
+        insert(LocalDateTime.now());
+
+        assertThat(stockMovementRollupService.countSince(since)).isEqualTo(directCount(since));
+        assertThat(stockMovementRollupService.countSince(since.withMinute(0).withSecond(0)))
+                .isEqualTo(directCount(since.withMinute(0).withSecond(0)));
+
+        stockMovementRollupService.fold();
+        assertThat(stockMovementRollupService.countSince(since)).isEqualTo(directCount(since));
+    }
+
+    private long directCount(LocalDateTime since) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_transactions WHERE created_at >= ?",
+                Long.class, Timestamp.valueOf(since));
+    }
+
+    private void insert(LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO stock_transactions (quantity, created_at, user_id, type, reason) " +
+                "SELECT 1, ?, id, 'STOCK_OUT', 'Rollup test' FROM users WHERE username = 'admin'", Timestamp.valueOf(createdAt));
+    }
+}
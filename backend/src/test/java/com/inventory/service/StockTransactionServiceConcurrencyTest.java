@@ -0,0 +1,138 @@
+package com.inventory.service;
+
+import com.inventory.dto.FashionProductRequest;
+import com.inventory.dto.FashionProductResponse;
+import com.inventory.dto.ProductVariantRequest;
+import com.inventory.dto.StockTransactionBatchRequest;
+import com.inventory.dto.StockTransactionRequest;
+import com.inventory.model.FashionProduct;
+import com.inventory.model.ProductVariant;
+import com.inventory.repository.FashionProductRepository;
+import com.inventory.repository.ProductVariantRepository;
+import com.inventory.repository.StockTransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 64 threads moving stock of one variant at the same time: every successful movement is reflected in the
+ * variant's quantity, the product totals and the transaction log, and stock never goes negative.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StockTransactionServiceConcurrencyTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private StockTransactionService stockTransactionService;
+
+    @Autowired
+    private FashionProductService fashionProductService;
+
+    @Autowired
+    private ProductVariantRepository productVariantRepository;
+
+    @Autowired
+    private FashionProductRepository fashionProductRepository;
+
+    @Autowired
+    private StockTransactionRepository stockTransactionRepository;
+
+    @Test
+    void conditionalDecrementNeverOversells() throws Exception {
+        FashionProductResponse product = createProduct(40);
+        Long variantId = product.getVariants().get(0).getId();
+
+        int succeeded = runConcurrently(() ->
+                stockTransactionService.createStockTransaction(movement(product.getId(), variantId, "STOCK_OUT", 1), "admin"));
+
+        assertThat(succeeded).isEqualTo(40);
+        assertStockConsistent(product.getId(), variantId, 0, 40);
+    }
+
+    @Test
+    void concurrentBatchesWaitForTheVariantLockWithoutLosingStock() throws Exception {
+        FashionProductResponse product = createProduct(1000);
+        Long variantId = product.getVariants().get(0).getId();
+
+        // Each batch locks the variant, applies both lines in memory and writes it back; the others wait
+        int succeeded = runConcurrently(() -> stockTransactionService.createStockTransactionsBatch(
+                new StockTransactionBatchRequest(List.of(
+                        movement(product.getId(), variantId, "STOCK_OUT", 3),
+                        movement(product.getId(), variantId, "STOCK_IN", 1)), "Concurrency test"), "admin"));
+
+        assertThat(succeeded).isEqualTo(THREADS);
+        assertStockConsistent(product.getId(), variantId, 1000 - 2 * THREADS, 2 * THREADS);
+    }
+
+    private void assertStockConsistent(Long productId, Long variantId, int expectedQuantity, int expectedTransactions) {
+        ProductVariant variant = productVariantRepository.findById(variantId).orElseThrow();
+        FashionProduct product = fashionProductRepository.findById(productId).orElseThrow();
+        assertThat(variant.getQuantity()).isEqualTo(expectedQuantity);
+        assertThat(product.getTotalStock()).isEqualTo(expectedQuantity);
+        assertThat(stockTransactionRepository.findByProductVariantIdOrderByCreatedAtDesc(variantId)).hasSize(expectedTransactions);
+    }
+
+    /**
+     * Start the task on all threads at once; returns how many calls succeeded
+     */
+    private int runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        task.run();
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(2, TimeUnit.MINUTES)) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private FashionProductResponse createProduct(int quantity) {
+        FashionProductRequest request = new FashionProductRequest("Concurrency Tee " + System.nanoTime(), "Cotton tee",
+                FashionProduct.Category.CLOTHING_MENS, "StyleCraft", new BigDecimal("499.00"),
+                FashionProduct.Season.SUMMER, FashionProduct.Gender.MALE);
+        request.setVariants(List.of(new ProductVariantRequest(ProductVariant.Size.M, ProductVariant.Color.BLACK, quantity, 5, null)));
+        return fashionProductService.createProduct(request);
+    }
+
+    private static StockTransactionRequest movement(Long fashionProductId, Long variantId, String type, int quantity) {
+        StockTransactionRequest request = new StockTransactionRequest();
+        request.setFashionProductId(fashionProductId);
+        request.setVariantId(variantId);
+        request.setType(type);
+        request.setQuantity(quantity);
+        request.setReason("Concurrency test");
+        return request;
+    }
+}
@@ -0,0 +1,121 @@
+package com.inventory.service;
+
+import com.inventory.model.JobWatermark;
+import com.inventory.repository.JobWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Consecutive ids are handed out right away, an id gap holds the stream until the row after it has
+ * settled, and rows without a creation time do not stop it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StockTransactionStreamTest {
+
+    @Autowired
+    private StockTransactionStream stockTransactionStream;
+
+    @Autowired
+    private JobWatermarkRepository jobWatermarkRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String watermarkName;
+    private Long userId;
+    private final List<long[]> consumed = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'admin'", Long.class);
+        // A watermark of its own, positioned after every existing transaction
+        watermarkName = "stream-test-" + System.nanoTime();
+        JobWatermark watermark = new JobWatermark(watermarkName);
+        watermark.setLastId(jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM stock_transactions", Long.class));
+        jobWatermarkRepository.save(watermark);
+    }
+
+    @Test
+    void freshConsecutiveRowsAreConsumedWithoutWaiting() {
+        long first = insert(LocalDateTime.now());
+        long second = insert(LocalDateTime.now());
+
+        StockTransactionStream.Chunk chunk = consumeNext();
+
+        assertThat(chunk.getConsumed()).isEqualTo(2);
+        assertThat(chunk.isWaiting()).isFalse();
+        assertThat(consumed).containsExactly(new long[] {first - 1, second});
+        assertThat(stockTransactionStream.getWatermark(watermarkName)).isEqualTo(second);
+    }
+
+    @Test
+    void gapHoldsTheStreamUntilItHasSettled() {
+        long first = insert(LocalDateTime.now());
+        long skipped = insert(LocalDateTime.now());
+        long third = insert(LocalDateTime.now());
+        jdbcTemplate.update("DELETE FROM stock_transactions WHERE id = ?", skipped);
+
+        StockTransactionStream.Chunk held = consumeNext();
+        assertThat(held.getConsumed()).isEqualTo(1);
+        assertThat(held.isWaiting()).isTrue();
+        assertThat(stockTransactionStream.getWatermark(watermarkName)).isEqualTo(first);
+
+        // Once the row after the gap is older than the settle time the missing id is re-checked and skipped
+        jdbcTemplate.update("UPDATE stock_transactions SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(1)), third);
+        StockTransactionStream.Chunk settled = consumeNext();
+
+        assertThat(settled.getConsumed()).isEqualTo(1);
+        assertThat(settled.isWaiting()).isFalse();
+        assertThat(consumed).containsExactly(new long[] {first - 1, first}, new long[] {first, third});
+        assertThat(stockTransactionStream.getWatermark(watermarkName)).isEqualTo(third);
+    }
+
+    @Test
+    void rowsWithoutCreationTimeCountAsSettled() {
+        insert(LocalDateTime.now());
+        long skipped = insert(null);
+        long undated = insert(null);
+        jdbcTemplate.update("DELETE FROM stock_transactions WHERE id = ?", skipped);
+
+        StockTransactionStream.Chunk chunk = consumeNext();
+
+        assertThat(chunk.getConsumed()).isEqualTo(2);
+        assertThat(chunk.isWaiting()).isFalse();
+        assertThat(stockTransactionStream.getWatermark(watermarkName)).isEqualTo(undated);
+    }
+
+    private StockTransactionStream.Chunk consumeNext() {
+        return stockTransactionStream.consumeNext(watermarkName,
+                (afterId, throughId) -> consumed.add(new long[] {afterId, throughId}));
+    }
+
+    private long insert(LocalDateTime createdAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO stock_transactions (quantity, created_at, user_id, type, reason) VALUES (1, ?, ?, 'STOCK_IN', 'Stream test')",
+                    Statement.RETURN_GENERATED_KEYS);
+            statement.setTimestamp(1, createdAt != null ? Timestamp.valueOf(createdAt) : null);
+            statement.setLong(2, userId);
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+}
@@ -0,0 +1,34 @@
+package com.inventory.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL Hibernate prepares on the current thread between start() and stop(). Registered with
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector (Hibernate creates the instance).
+ */
+public class SqlCapture implements StatementInspector {
+    
+    private static final ThreadLocal<List<String>> captured = new ThreadLocal<>();
+    
+    public static void start() {
+        captured.set(new ArrayList<>());
+    }
+    
+    public static List<String> stop() {
+        List<String> statements = captured.get();
+        captured.remove();
+        return statements != null ? statements : List.of();
+    }
+    
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = captured.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}